@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -13,14 +14,16 @@ package org.glassfish.pfl.basic.contain ;
 /** Type safe holder that can hold any non-primitive type.
  * Useful for out parameters and passing arguments that need
  * to be set later.
+ * <p>
+ * This extends VolatileHolder so that code which only reads or sets the
+ * content can accept either kind of holder.  All methods still lock
+ * the holder.
  */
-public class SynchronizedHolder<T> 
+public class SynchronizedHolder<T> extends VolatileHolder<T>
 {
-    private T _content ;
-
     public SynchronizedHolder( T content ) 
     {
-	this._content = content ;
+	super( content ) ;
     }
 
     public SynchronizedHolder()
@@ -28,14 +31,16 @@ public class SynchronizedHolder<T>
 	this( null ) ;
     }
 
+    @Override
     public synchronized T content()
     {
-	return _content ;
+	return super.content() ;
     }
 
+    @Override
     public synchronized void content( T content ) 
     {
-	this._content = content ;
+	super.content( content ) ;
     }
 
     @Override
@@ -46,24 +51,25 @@ public class SynchronizedHolder<T>
         }
 
 	SynchronizedHolder other = SynchronizedHolder.class.cast( obj ) ;
+        T current = content() ;
 
-        if (_content == null) {
+        if (current == null) {
             return other.content() == null ;
         } else  {
-            return _content.equals( other.content() ) ;
+            return current.equals( other.content() ) ;
         }
     }
 
     @Override
     public synchronized int hashCode()
     {
-	return _content.hashCode() ;
+	return content().hashCode() ;
     }
 
     @Override
     public synchronized String toString() 
     {
-	return "SynchronizedHolder[" + _content + "]" ;
+	return "SynchronizedHolder[" + content() + "]" ;
     }
 }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.basic.contain ;
+
+/** Type safe holder that can hold any non-primitive type, and that can
+ * be shared between threads without locking.  The content is volatile,
+ * so reading it costs no more than an ordinary field read on most
+ * platforms, and an update is seen by all threads that read the holder
+ * after it.  Use this in place of SynchronizedHolder when the content is
+ * read far more often than it is set.
+ */
+public class VolatileHolder<T>
+{
+    private volatile T _content ;
+
+    public VolatileHolder( T content )
+    {
+	this._content = content ;
+    }
+
+    public VolatileHolder()
+    {
+	this( null ) ;
+    }
+
+    public T content()
+    {
+	return _content ;
+    }
+
+    public void content( T content )
+    {
+	this._content = content ;
+    }
+
+    @Override
+    public boolean equals( Object obj )
+    {
+	if (!(obj instanceof VolatileHolder)) {
+            return false;
+        }
+
+	VolatileHolder<?> other = VolatileHolder.class.cast( obj ) ;
+        T current = content() ;
+
+        if (current == null) {
+            return other.content() == null ;
+        } else  {
+            return current.equals( other.content() ) ;
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        T current = content() ;
+	return current == null ? 0 : current.hashCode() ;
+    }
+
+    @Override
+    public String toString()
+    {
+	return "VolatileHolder[" + content() + "]" ;
+    }
+}
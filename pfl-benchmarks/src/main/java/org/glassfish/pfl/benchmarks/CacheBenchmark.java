@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.pfl.basic.concurrent.SoftCache;
+import org.glassfish.pfl.basic.concurrent.WeakCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures lookups of keys that are already present in a WeakCache and
+ * in a SoftCache.  WeakCache.get takes a read lock, and SoftCache is not
+ * synchronized, so concurrent callers must lock it themselves.  The
+ * lookups are also run from several threads to show the cost of that
+ * locking under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    @Param({"1000"})
+    public int size;
+
+    private Class<?>[] keys;
+    private WeakCache<Class<?>, String> weakCache;
+    private SoftCache<Class<?>, String> softCache;
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        // Classes are strongly reachable for the whole run, so no entry
+        // can be cleared from the WeakCache.
+        Class<?>[] candidates = {
+            String.class, Integer.class, Long.class, Object.class,
+            Thread.class, StringBuilder.class, Class.class, Number.class,
+            Character.class, Boolean.class, Double.class, Float.class,
+            Short.class, Byte.class, Void.class, Math.class
+        };
+
+        keys = new Class<?>[size];
+        for (int ctr = 0; ctr < size; ctr++) {
+            keys[ctr] = candidates[ctr % candidates.length];
+        }
+
+        weakCache = new WeakCache<Class<?>, String>() {
+            @Override
+            protected String lookup(Class<?> key) {
+                return key.getName();
+            }
+        };
+
+        softCache = new SoftCache<Class<?>, String>() {
+            @Override
+            protected String fill(Object key) {
+                return ((Class<?>) key).getName();
+            }
+        };
+
+        for (Class<?> key : candidates) {
+            weakCache.get(key);
+            softCache.get(key);
+        }
+    }
+
+    private Class<?> nextKey(Cursor cursor) {
+        int index = cursor.next++;
+        if (cursor.next == keys.length) {
+            cursor.next = 0;
+        }
+
+        return keys[index];
+    }
+
+    @Benchmark
+    public String weakCacheGet(Cursor cursor) {
+        return weakCache.get(nextKey(cursor));
+    }
+
+    @Benchmark
+    public String softCacheGet(Cursor cursor) {
+        return softCache.get(nextKey(cursor));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String weakCacheGetContended(Cursor cursor) {
+        return weakCache.get(nextKey(cursor));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String softCacheGetContended(Cursor cursor) {
+        synchronized (softCache) {
+            return softCache.get(nextKey(cursor));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.pfl.dynamic.copyobject.spi.CopyobjectDefaults;
+import org.glassfish.pfl.dynamic.copyobject.spi.ObjectCopierFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compares the copier implementations on the same graphs:
+ * <ul>
+ * <li>javaStream: serialization through JavaStreamObjectCopierImpl,
+ * <li>reflectiveGenerated: ObjectCopierImpl with the generated
+ * hidden class field copiers (the default), and
+ * <li>reflectiveUnsafe: ObjectCopierImpl with the generated copiers
+ * disabled, so that fields are copied by ClassFieldCopierUnsafeImpl.
+ * </ul>
+ * The choice of field copier is made once per JVM, so reflectiveUnsafe
+ * runs in a fork with the DisableGeneratedCopiers property set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CopierComparisonBenchmark {
+    @Param({"FLAT_DTO", "DEEP_LIST", "CYCLE"})
+    public CopyGraphs.Shape shape;
+
+    @Param({"100"})
+    public int size;
+
+    private ObjectCopierFactory streamFactory;
+    private ObjectCopierFactory reflectFactory;
+    private Object graph;
+
+    @Setup
+    public void setup() {
+        streamFactory = CopyobjectDefaults.makeJavaStreamObjectCopierFactory();
+        reflectFactory = CopyobjectDefaults.makeReflectObjectCopierFactory();
+        graph = CopyGraphs.make(shape, size);
+    }
+
+    @Benchmark
+    public Object javaStream() {
+        return streamFactory.make().copy(graph);
+    }
+
+    @Benchmark
+    public Object reflectiveGenerated() {
+        return reflectFactory.make().copy(graph);
+    }
+
+    @Benchmark
+    @Fork(value = 1, jvmArgsAppend =
+            "-Dorg.glassfish.dynamic.copyobject.DisableGeneratedCopiers=true")
+    public Object reflectiveUnsafe() {
+        return reflectFactory.make().copy(graph);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.benchmarks;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** The object graphs used by the copier benchmarks.  All of the classes
+ * are Serializable, so that the same graphs can be copied by the stream
+ * copier, and all of them have mutable fields, so that the reflective
+ * copier cannot share them as immutable.
+ */
+public final class CopyGraphs {
+    private CopyGraphs() {}
+
+    /** The shapes of graph that can be built by make.
+     */
+    public enum Shape {
+        /** A single object with primitive and String fields. */
+        FLAT_DTO,
+        /** An ArrayList of DTOs, each holding a short list of children. */
+        DEEP_LIST,
+        /** A HashMap from String to DTO. */
+        MAP,
+        /** An Object[] of DTOs and a long[]. */
+        ARRAY,
+        /** A ring of nodes, each also pointing back at the first node. */
+        CYCLE
+    }
+
+    public static class Dto implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public int id;
+        public long timestamp;
+        public double amount;
+        public boolean active;
+        public String name;
+        public String description;
+        public List<Dto> children;
+    }
+
+    public static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public int value;
+        public Node next;
+        public Node head;
+    }
+
+    public static class Arrays implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public Object[] items;
+        public long[] values;
+    }
+
+    /** Return a new DTO with all fields set and no children.
+     */
+    public static Dto makeDto(int id) {
+        Dto result = new Dto();
+        result.id = id;
+        result.timestamp = 1000L * id;
+        result.amount = id / 3.0;
+        result.active = (id & 1) == 0;
+        result.name = "dto" + id;
+        result.description = "A flat object used for copy benchmarks";
+        return result;
+    }
+
+    /** Build a graph of the given shape with roughly size objects.
+     */
+    public static Object make(Shape shape, int size) {
+        switch (shape) {
+            case FLAT_DTO:
+                return makeDto(0);
+
+            case DEEP_LIST: {
+                List<Dto> result = new ArrayList<Dto>(size);
+                for (int ctr = 0; ctr < size; ctr++) {
+                    Dto dto = makeDto(ctr);
+                    dto.children = new ArrayList<Dto>(4);
+                    for (int child = 0; child < 4; child++) {
+                        dto.children.add(makeDto(ctr * 4 + child));
+                    }
+                    result.add(dto);
+                }
+                return result;
+            }
+
+            case MAP: {
+                Map<String, Dto> result = new HashMap<String, Dto>();
+                for (int ctr = 0; ctr < size; ctr++) {
+                    result.put("key" + ctr, makeDto(ctr));
+                }
+                return result;
+            }
+
+            case ARRAY: {
+                Arrays result = new Arrays();
+                result.items = new Object[size];
+                result.values = new long[size];
+                for (int ctr = 0; ctr < size; ctr++) {
+                    result.items[ctr] = makeDto(ctr);
+                    result.values[ctr] = ctr;
+                }
+                return result;
+            }
+
+            case CYCLE: {
+                Node head = new Node();
+                Node current = head;
+                for (int ctr = 1; ctr < size; ctr++) {
+                    Node node = new Node();
+                    node.value = ctr;
+                    node.head = head;
+                    current.next = node;
+                    current = node;
+                }
+                current.next = head;
+                return head;
+            }
+
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+    }
+}
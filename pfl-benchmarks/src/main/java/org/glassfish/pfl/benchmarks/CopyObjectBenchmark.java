@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.pfl.dynamic.copyobject.spi.CopyobjectDefaults;
+import org.glassfish.pfl.dynamic.copyobject.spi.ObjectCopierFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures ObjectCopierImpl, as returned by the reflective copier
+ * factory, on each of the graph shapes in CopyGraphs.  A new ObjectCopier
+ * is made for every copy, which is how the ORB uses it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CopyObjectBenchmark {
+    @Param({"FLAT_DTO", "DEEP_LIST", "MAP", "ARRAY", "CYCLE"})
+    public CopyGraphs.Shape shape;
+
+    @Param({"100"})
+    public int size;
+
+    private ObjectCopierFactory factory;
+    private Object graph;
+
+    @Setup
+    public void setup() {
+        factory = CopyobjectDefaults.makeReflectObjectCopierFactory();
+        graph = CopyGraphs.make(shape, size);
+    }
+
+    @Benchmark
+    public Object copy() {
+        return factory.make().copy(graph);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.benchmarks;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.pfl.basic.contain.VolatileHolder;
+import org.glassfish.pfl.basic.logex.OperationTracer;
+import org.glassfish.pfl.tf.spi.MethodMonitor;
+import org.glassfish.pfl.tf.spi.MethodMonitorFactory;
+import org.glassfish.pfl.tf.spi.MethodMonitorFactoryDefaults;
+import org.glassfish.pfl.tf.spi.MethodMonitorRegistry;
+import org.glassfish.pfl.tf.spi.annotation.MethodMonitorGroup;
+import org.glassfish.pfl.tf.timer.spi.ObjectRegistrationManager;
+import org.glassfish.pfl.tf.timer.spi.Timer;
+import org.glassfish.pfl.tf.timer.spi.TimerFactory;
+import org.glassfish.pfl.tf.timer.spi.TimerFactoryBuilder;
+import org.glassfish.pfl.tf.timer.spi.TimerManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures the cost that tracing adds to a monitored method call.
+ * Traced is written the way the enhancer leaves a class: it has the
+ * MethodMonitor holder field that registerClass fills in, and each
+ * benchmark does what the enhanced method does around its body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodMonitorBenchmark {
+    @MethodMonitorGroup
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Bench {
+    }
+
+    @Bench
+    public static class Traced {
+        // Set by MethodMonitorRegistry.registerClass.
+        private static VolatileHolder<MethodMonitor> __$mm$__0;
+
+        @Bench
+        public int work(int value) {
+            return value + 1;
+        }
+    }
+
+    @Param({"noOp", "operationTracer", "timing"})
+    public String monitor;
+
+    private TimerManager<Timer> timerManager;
+    private VolatileHolder<MethodMonitor> holder;
+    private int ident;
+    private int value;
+
+    @Setup
+    public void setup() {
+        MethodMonitorRegistry.registerClass(Traced.class);
+        ident = MethodMonitorRegistry.getMethodIdentifier(Traced.class, "work");
+        MethodMonitorRegistry.register(Bench.class, makeFactory());
+        holder = Traced.__$mm$__0;
+    }
+
+    private MethodMonitorFactory makeFactory() {
+        if (monitor.equals("noOp")) {
+            return MethodMonitorFactoryDefaults.noOp();
+        } else if (monitor.equals("operationTracer")) {
+            // Otherwise OperationTracer does nothing but check its flag.
+            OperationTracer.enable();
+            return MethodMonitorFactoryDefaults.operationTracer();
+        } else if (monitor.equals("timing")) {
+            timerManager = new TimerManager<Timer>(
+                    ObjectRegistrationManager.nullImpl, "MethodMonitorBenchmark");
+            TimerFactory tf = timerManager.factory();
+            Timer timer = tf.makeTimer(TimerFactoryBuilder.getTimerName(
+                    Traced.class.getSimpleName(), "work"), "Traced.work");
+            timerManager.initialize(timer);
+            timerManager.controller().register(
+                    tf.makeStatsEventHandler("MethodMonitorBenchmark"));
+            timer.enable();
+            return MethodMonitorFactoryDefaults.makeTimingImpl(timerManager);
+        }
+
+        throw new IllegalArgumentException("Unknown monitor " + monitor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MethodMonitorRegistry.clear(Bench.class);
+        OperationTracer.disable();
+        if (timerManager != null) {
+            timerManager.destroy();
+        }
+    }
+
+    @Benchmark
+    public int enterExit() {
+        int arg = value++;
+        MethodMonitor mm = holder.content();
+        if (mm != null) {
+            if (mm.wantsArgs()) {
+                mm.enterI(ident, arg);
+            } else {
+                mm.enter0(ident);
+            }
+        }
+
+        int result = arg + 1;
+
+        if (mm != null) {
+            if (mm.wantsArgs()) {
+                mm.exit(ident, result);
+            } else {
+                mm.exit(ident);
+            }
+        }
+
+        return result;
+    }
+}
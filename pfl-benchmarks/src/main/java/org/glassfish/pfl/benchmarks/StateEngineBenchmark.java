@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.pfl.basic.fsm.Action;
+import org.glassfish.pfl.basic.fsm.FSM;
+import org.glassfish.pfl.basic.fsm.FSMImpl;
+import org.glassfish.pfl.basic.fsm.Guard;
+import org.glassfish.pfl.basic.fsm.Input;
+import org.glassfish.pfl.basic.fsm.Runner;
+import org.glassfish.pfl.basic.fsm.State;
+import org.glassfish.pfl.basic.fsm.StateEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Measures StateEngine.doIt on a small connection-like state machine:
+ * IDLE -open-> OPEN -send-> OPEN -close-> IDLE.  The send transition has
+ * a guard, and the other transitions only have actions, so both kinds of
+ * transition lookup are exercised.  Each benchmark call makes one cycle
+ * of three transitions.
+ */
+@org.openjdk.jmh.annotations.State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateEngineBenchmark {
+    private static final State IDLE = new State("Idle", State.Kind.INITIAL);
+    private static final State OPEN = new State("Open");
+
+    private static final Input OPEN_INPUT = new Input.Base("open");
+    private static final Input SEND_INPUT = new Input.Base("send");
+    private static final Input CLOSE_INPUT = new Input.Base("close");
+
+    private static final StateEngine ENGINE = StateEngine.create();
+
+    private int actions;
+
+    static {
+        Action count = new Action.Base("count") {
+            @Override
+            public void doIt(FSM fsm, Input in) {
+                ((Machine) fsm).owner.actions++;
+            }
+        };
+
+        Guard always = new Guard.Base("always") {
+            @Override
+            public Guard.Result evaluate(FSM fsm, Input in) {
+                return Guard.Result.ENABLED;
+            }
+        };
+
+        ENGINE.add(IDLE, OPEN_INPUT, count, OPEN)
+                .add(OPEN, SEND_INPUT, always, count, OPEN)
+                .add(OPEN, CLOSE_INPUT, count, IDLE)
+                .done();
+    }
+
+    private static final class Machine extends FSMImpl {
+        final StateEngineBenchmark owner;
+
+        Machine(StateEngineBenchmark owner) {
+            super(ENGINE, IDLE);
+            this.owner = owner;
+        }
+    }
+
+    private Runner runner;
+
+    @Setup
+    public void setup() {
+        runner = new Runner(new Machine(this));
+    }
+
+    @Benchmark
+    public int cycle() {
+        runner.doIt(OPEN_INPUT);
+        runner.doIt(SEND_INPUT);
+        runner.doIt(CLOSE_INPUT);
+        return actions;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ * Copyright (c) 2024, 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2019 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -480,9 +480,7 @@ public final class Wrapper {
   // Context used for _package and _import.
   private static final class PackageContext extends Context {
     PackageContext(Stack<Context> contexts) {
-      // start of no-codegen copier
       super(contexts, S_INIT);
-//      ClassCopierOrdinaryImpl.setCodegenCopierAllowed(false);
     }
   }
 
@@ -533,8 +531,6 @@ public final class Wrapper {
     @Override
     public void _end() {
       super._end();
-      // end of no-codegen copier
-//      ClassCopierOrdinaryImpl.setCodegenCopierAllowed(true);
     }
   }
 
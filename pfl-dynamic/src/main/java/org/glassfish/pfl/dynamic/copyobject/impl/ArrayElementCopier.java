@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
+
+/** Copies the elements of an Object[] into another array of the same
+ * length.  This is used for arrays of objects, and for the contents of
+ * the collections that DefaultClassCopiers handles.
+ * <p>
+ * The ClassCopier is looked up again only when the element class changes,
+ * and runs of elements that are copied by identity (including nulls) are
+ * moved with System.arraycopy.  If oldToNew is a ParallelCopyMap and there
+ * are at least threshold elements, the array is split into ranges that
+ * are copied by ForkJoinPool tasks.  Each range runs in its own
+ * ParallelCopyMap.Context, forked from the Context of the caller.
+ */
+final class ArrayElementCopier {
+    private ArrayElementCopier() {}
+
+    // Do not split the array into ranges smaller than this.
+    private static final int MIN_RANGE_SIZE = 256;
+
+    /** Return true if copyElements will copy size elements in parallel
+     * when given oldToNew.
+     */
+    static boolean isParallel(Map<Object, Object> oldToNew, int size) {
+        return (oldToNew instanceof ParallelCopyMap)
+                && (size >= ((ParallelCopyMap) oldToNew).threshold());
+    }
+
+    /** Copy all elements of source into result, using ccf to obtain
+     * the ClassCopier for each element.
+     */
+    static void copyElements(ClassCopierFactory ccf,
+                             Map<Object, Object> oldToNew, Object[] source,
+                             Object[] result) throws ReflectiveCopyException {
+        if (isParallel(oldToNew, source.length)) {
+            // Aim for a few ranges per worker, so that work stealing can
+            // balance elements that take different times to copy.
+            int rangeSize = Math.max(MIN_RANGE_SIZE,
+                    source.length / (4 * ForkJoinPool.getCommonPoolParallelism()));
+            new CopyRangeTask(ccf, oldToNew, source, result, 0,
+                    source.length, rangeSize,
+                    ParallelCopyMap.currentContext()).invoke();
+        } else {
+            copyRange(ccf, oldToNew, source, result, 0, source.length);
+        }
+    }
+
+    private static void copyRange(ClassCopierFactory ccf,
+                                  Map<Object, Object> oldToNew, Object[] source, Object[] result,
+                                  int from, int to) throws ReflectiveCopyException {
+        ClassCopier identity = DefaultClassCopiers.getIdentityClassCopier();
+        Class<?> lastClass = null;
+        ClassCopier lastCopier = null;
+
+        // The start of the current run of elements copied by identity.
+        int runStart = from;
+        for (int ctr = from; ctr < to; ctr++) {
+            Object obj = source[ctr];
+            if (obj == null) {
+                continue;
+            }
+
+            // Must look up the Copier for each element class
+            // to handle polymorphic arrays
+            Class<?> cls = obj.getClass();
+            if (cls != lastClass) {
+                lastCopier = ccf.getClassCopier(cls);
+                lastClass = cls;
+            }
+
+            if (lastCopier != identity) {
+                if (runStart < ctr) {
+                    System.arraycopy(source, runStart, result, runStart,
+                            ctr - runStart);
+                }
+
+                result[ctr] = lastCopier.copy(oldToNew, obj);
+                runStart = ctr + 1;
+            }
+        }
+
+        if (runStart < to) {
+            System.arraycopy(source, runStart, result, runStart, to - runStart);
+        }
+    }
+
+    private static final class CopyRangeTask extends RecursiveAction {
+        private final ClassCopierFactory ccf;
+        private final Map<Object, Object> oldToNew;
+        private final Object[] source;
+        private final Object[] result;
+        private final int from;
+        private final int to;
+        private final int rangeSize;
+        private final ParallelCopyMap.Context parent;
+
+        CopyRangeTask(ClassCopierFactory ccf, Map<Object, Object> oldToNew,
+                      Object[] source, Object[] result, int from, int to,
+                      int rangeSize, ParallelCopyMap.Context parent) {
+            this.ccf = ccf;
+            this.oldToNew = oldToNew;
+            this.source = source;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+            this.rangeSize = rangeSize;
+            this.parent = parent;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= rangeSize) {
+                // A ReflectiveCopyException is unchecked, so it is simply
+                // rethrown by the invoke of the root task.
+                ParallelCopyMap.Context previous = ParallelCopyMap.enter(parent);
+                try {
+                    copyRange(ccf, oldToNew, source, result, from, to);
+                } finally {
+                    ParallelCopyMap.exit(previous);
+                }
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(
+                        new CopyRangeTask(ccf, oldToNew, source, result,
+                                from, middle, rangeSize, parent),
+                        new CopyRangeTask(ccf, oldToNew, source, result,
+                                middle, to, rangeSize, parent));
+            }
+        }
+    }
+}
@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -114,8 +115,13 @@ public abstract class ClassCopierBase implements ClassCopier {
         if (isEmptyHashMap(source))
             result = cloneEmptyHashMap();
 
-        if (result != null)
-            oldToNew.put(source, result);
+        if (result != null) {
+            Object registered = register(oldToNew, source, result);
+            if (registered == result) {
+                completed(oldToNew, source);
+            }
+            result = registered;
+        }
         return result;
     }
 
@@ -136,14 +142,49 @@ public abstract class ClassCopierBase implements ClassCopier {
         Object result;
         try {
             result = createCopy(source);
-            oldToNew.put(source, result);
-            result = doCopy(oldToNew, source, result);
+            Object registered = register(oldToNew, source, result);
+            if (registered != result) {
+                // Another thread has copied source.
+                return registered;
+            }
+            try {
+                result = doCopy(oldToNew, source, result);
+            } finally {
+                completed(oldToNew, source);
+            }
         } catch (StackOverflowError ex) {
             throw Exceptions.self.stackOverflow(source, ex);
         }
         return result;
     }
 
+    /** Record copy as the copy of source in oldToNew, and return the copy
+     * that must be used.  This is normally copy, but in a parallel copy
+     * another thread may have registered its own copy of source first.
+     * That copy is returned instead, once it is complete, so that aliasing
+     * is preserved, and the caller must not complete copy.  If copy is
+     * returned, the caller must call completed once copy is filled in.
+     */
+    static Object register(Map<Object, Object> oldToNew, Object source,
+        Object copy) {
+        if (oldToNew instanceof ParallelCopyMap) {
+            return ((ParallelCopyMap) oldToNew).register(source, copy);
+        }
+
+        oldToNew.put(source, copy);
+        return copy;
+    }
+
+    /** Record that the copy of source registered by register is complete.
+     * This only matters in a parallel copy, where other threads wait for
+     * the copy until then.
+     */
+    static void completed(Map<Object, Object> oldToNew, Object source) {
+        if (oldToNew instanceof ParallelCopyMap) {
+            ((ParallelCopyMap) oldToNew).complete(source);
+        }
+    }
+
     @Override
     public boolean isReflectiveClassCopier()
     {
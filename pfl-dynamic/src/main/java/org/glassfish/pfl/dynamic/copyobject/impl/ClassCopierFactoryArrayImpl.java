@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -51,20 +52,10 @@ public class ClassCopierFactoryArrayImpl implements ClassCopierFactory {
 	    public Object doCopy( Map<Object,Object> oldToNew, Object source,
 		Object result ) throws ReflectiveCopyException 
 	    {
-		int alen = Array.getLength( source ) ;
-		for (int ctr=0; ctr<alen; ctr++) {
-		    Object aobj = Array.get( source, ctr ) ;
-
-		    if (aobj != null) {
-			// Must look up the Copier for each element
-			// to handle polymorphic arrays
-			ClassCopier copier = classCopierFactory.getClassCopier( 
-			    aobj.getClass() ) ;
-			aobj = copier.copy( oldToNew, aobj ) ;
-		    }
-
-		    Array.set( result, ctr, aobj ) ;
-		}
+		// Only arrays of Objects get here, so the elements can be
+		// accessed directly rather than through java.lang.reflect.Array.
+		ArrayElementCopier.copyElements( classCopierFactory, oldToNew,
+		    (Object[])source, (Object[])result ) ;
 
 		return result ;
 	    }
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
+
+/** A CachingClassCopierFactory backed by a ClassValue.
+ * Lookups of an already cached ClassCopier take no lock: the ClassValue
+ * gives each class its own CacheEntry, and the copier is read from a
+ * volatile field in the entry.  Since the entries are stored with the
+ * Class itself, the cache never pins ClassLoaders in memory.
+ * <p>
+ * The entry also serves as the lock for building a ClassCopier, so that
+ * concurrent misses on the same class run the (expensive) class analysis
+ * only once, while misses on different classes proceed in parallel.
+ */
+public class ClassCopierFactoryCachingImpl implements CachingClassCopierFactory {
+    private static final class CacheEntry {
+        private volatile ClassCopier copier ;
+    }
+
+    private final ClassValue<CacheEntry> cache = new ClassValue<CacheEntry>() {
+        @Override
+        protected CacheEntry computeValue( Class<?> cls ) {
+            return new CacheEntry() ;
+        }
+    } ;
+
+    @Override
+    public void put( Class<?> cls, ClassCopier copier ) {
+        CacheEntry entry = cache.get( cls ) ;
+        synchronized (entry) {
+            entry.copier = copier ;
+        }
+    }
+
+    /** Return the cached ClassCopier for cls, or null if there is none.
+     */
+    @Override
+    public ClassCopier getClassCopier( Class<?> cls ) {
+        return cache.get( cls ).copier ;
+    }
+
+    /** Return the cached ClassCopier for cls.  If there is none,
+     * obtain one from builder and cache it.  Only one thread at a
+     * time calls builder for a particular class; other threads that
+     * miss on the same class wait for that result instead of building
+     * their own.  If builder fails, nothing is cached, and the next
+     * caller tries again.
+     */
+    public ClassCopier getClassCopier( Class<?> cls, ClassCopierFactory builder )
+        throws ReflectiveCopyException {
+
+        CacheEntry entry = cache.get( cls ) ;
+        ClassCopier result = entry.copier ;
+        if (result == null) {
+            synchronized (entry) {
+                result = entry.copier ;
+                if (result == null) {
+                    result = builder.getClassCopier( cls ) ;
+                    if (result == null) {
+                        throw Exceptions.self.couldNotFindClassCopier( cls ) ;
+                    }
+
+                    entry.copier = result ;
+                }
+            }
+        }
+
+        return result ;
+    }
+}
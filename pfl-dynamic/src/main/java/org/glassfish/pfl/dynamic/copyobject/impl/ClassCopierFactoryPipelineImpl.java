@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -14,9 +15,13 @@ import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.security.AccessControlContext;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.LogManager;
 import java.util.logging.Logger;
 
@@ -85,29 +90,35 @@ public class ClassCopierFactoryPipelineImpl implements
     } ;
 
     private static final Class<?>[] mapClasses = {
-        // ConcurrentHashMap.class,
         // ConcurrentSkipListMap.class,
         // EnumMap.class,
-        // HashMap.class,
         // Hashtable.class,
         IdentityHashMap.class,
         LinkedHashMap.class,
         // Properties.class,
-        // TreeMap.class,
         // WeakHashMap.class
     } ;
 
+    // Note that HashMap, TreeMap, and ConcurrentHashMap are not in 
+    // mapClasses: they have their own ClassCopiers (see the constructor).
 
-    private CachingClassCopierFactory factoryCache ;
+
+    // Classes inferred to be immutable are shared like the classes above,
+    // unless this property is set.
+    private static final boolean INFER_IMMUTABLE = !Boolean.getBoolean(
+        "org.glassfish.dynamic.copyobject.DisableImmutabilityInference" ) ;
+
+    private ClassCopierFactoryCachingImpl factoryCache ;
     private ClassCopierFactory specialFactory ;
     private ClassCopierFactory arrayFactory ;
     private ClassCopierFactory ordinaryFactory ;
     private ClassCopier errorCopier ;
+    private final ImmutabilityAnalyzer immutabilityAnalyzer =
+	new ImmutabilityAnalyzer( this ) ;
 
     public ClassCopierFactoryPipelineImpl() {
 	// Set up internal ClassCopierFactory instances
-	factoryCache =
-	    DefaultClassCopierFactories.makeCachingClassCopierFactory() ;
+	factoryCache = new ClassCopierFactoryCachingImpl() ;
 	specialFactory = 
 	    DefaultClassCopierFactories.getNullClassCopierFactory() ;
 	arrayFactory = 
@@ -136,6 +147,19 @@ public class ClassCopierFactoryPipelineImpl implements
             factoryCache.put( cls, mapCopier ) ;
         }
 
+	// Copying the most common collections by rebuilding them is much faster
+	// than reflectively copying their internal node tables.
+	factoryCache.put( HashMap.class,
+	    DefaultClassCopiers.makeHashMapClassCopier( this ) ) ;
+	factoryCache.put( ConcurrentHashMap.class,
+	    DefaultClassCopiers.makeConcurrentHashMapClassCopier( this ) ) ;
+	factoryCache.put( TreeMap.class,
+	    DefaultClassCopiers.makeTreeMapClassCopier( this ) ) ;
+	factoryCache.put( ArrayList.class,
+	    DefaultClassCopiers.makeArrayListClassCopier( this ) ) ;
+	factoryCache.put( ArrayDeque.class,
+	    DefaultClassCopiers.makeArrayDequeClassCopier( this ) ) ;
+
 	// Make sure that all non-copyable classes have the error
 	// copier in the cache.
 	for (Class<?> cls : notCopyable) {
@@ -160,14 +184,9 @@ public class ClassCopierFactoryPipelineImpl implements
      */
     @Override
     public ClassCopier lookupInCache( Class<?> cls ) {
-	try {
-	    // TIME enter_lookupInCache
-	    return factoryCache.getClassCopier( cls ) ;
-	    // TIME exit_lookupInCache
-	} catch (ReflectiveCopyException exc) {
-	    // ignore this: it cannot occur on the cache class copier get.
-	    return null ;
-	}
+	// TIME enter_lookupInCache
+	return factoryCache.getClassCopier( cls ) ;
+	// TIME exit_lookupInCache
     }
 
     /** Register an immutable class, so that it will not be copied, but just
@@ -186,10 +205,40 @@ public class ClassCopierFactoryPipelineImpl implements
 	specialFactory = ccf ;
     }
 
-    // Issue 14455: introduce read/write lock to reduce contention
-    // on getClassCopier.
-    private ReentrantReadWriteLock rwlock = new ReentrantReadWriteLock() ;
+    // Runs the Enum, special, immutability inference, array, and ordinary
+    // factories in order
+    // to create a ClassCopier for a class that is not yet cached.
+    // factoryCache makes sure that this runs at most once at a time
+    // for any given class.
+    private final ClassCopierFactory pipeline = new ClassCopierFactory() {
+        @Override
+        public ClassCopier getClassCopier( Class<?> cls ) 
+            throws ReflectiveCopyException {
 
+            ClassCopier result = null ;
+
+            // New for Java SE 5.0: all Enums are immutable.
+            // We'll figure that out here and cache the result.
+            if (Enum.class.isAssignableFrom(cls)) {
+                result = DefaultClassCopiers.getIdentityClassCopier();
+            }
+            if (result == null) {
+                result = specialFactory.getClassCopier(cls);
+            }
+            if ((result == null) && INFER_IMMUTABLE
+                && immutabilityAnalyzer.isImmutable(cls)) {
+                result = DefaultClassCopiers.getIdentityClassCopier();
+            }
+            if (result == null) {
+                result = arrayFactory.getClassCopier(cls);
+            }
+            if (result == null) {
+                result = ordinaryFactory.getClassCopier(cls);
+            }
+
+            return result ;
+        }
+    } ;
 
      /** Analyze cls to determine the appropriate ClassCopier
      * and return the ClassCopier instance.  Will only create
@@ -203,52 +252,16 @@ public class ClassCopierFactoryPipelineImpl implements
             throw Exceptions.self.cannotCopyInterface( cls ) ;
         }
 
-        rwlock.readLock().lock() ;
-        boolean readLocked = true ;
-        try {
-            ClassCopier result = factoryCache.getClassCopier( cls ) ;
-            if (result == null) {
-                // New for Java SE 5.0: all Enums are immutable.
-                // We'll figure that out here and cache the result.
-                if (Enum.class.isAssignableFrom(cls)) {
-                    result = DefaultClassCopiers.getIdentityClassCopier();
-                }
-                if (result == null) {
-                    result = specialFactory.getClassCopier(cls);
-                }
-                if (result == null) {
-                    result = arrayFactory.getClassCopier(cls);
-                }
-                if (result == null) {
-                    result = ordinaryFactory.getClassCopier(cls);
-                }
-                if (result == null) {
-                    throw Exceptions.self.couldNotFindClassCopier( cls ) ;
-                }
-
-                // Result was not cached, so update the cache
-                rwlock.readLock().unlock() ;
-                readLocked = false ;
-                rwlock.writeLock().lock() ;
-                try {
-                    if (factoryCache.getClassCopier(cls) == null) {
-                        factoryCache.put( cls, result ) ;
-                    }
-                } finally {
-                    rwlock.writeLock().unlock() ;
-                }
-            }
+        // Issue 14455 introduced a read/write lock here to reduce contention.
+        // The ClassValue based cache now makes the common (cached) case
+        // lock free.
+        ClassCopier result = factoryCache.getClassCopier( cls, pipeline ) ;
 
-            if (result == errorCopier) {
-                throw Exceptions.self.cannotCopyClass( cls ) ;
-            }
-
-            // TIME exit_getClassCopier
-            return result ;
-        } finally {
-            if (readLocked) {
-                rwlock.readLock().unlock() ;
-            }
+        if (result == errorCopier) {
+            throw Exceptions.self.cannotCopyClass( cls ) ;
         }
+
+        // TIME exit_getClassCopier
+        return result ;
     }
 }
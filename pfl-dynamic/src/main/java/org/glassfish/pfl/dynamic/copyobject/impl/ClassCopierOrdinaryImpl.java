@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ * Copyright (c) 2024, 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -21,7 +21,7 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
-import java.security.ProtectionDomain;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.WeakHashMap;
 
@@ -194,6 +194,35 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                   Object src, Object dest) throws ReflectiveCopyException;
     }
 
+    /**
+     * A ClassFieldCopier that copies reference fields through the
+     * CopyWorkQueue.  This is the base of both ClassFieldCopierUnsafeImpl
+     * and the copiers generated by HiddenClassCopierGenerator.
+     */
+    abstract static class QueueingClassFieldCopier implements ClassFieldCopier {
+        @Override
+        public final void copy(Map<Object, Object> oldToNew, Object source,
+                               Object result) throws ReflectiveCopyException {
+            CopyWorkQueue queue = CopyWorkQueue.get();
+            int mark = queue.mark();
+            try {
+                copy(oldToNew, source, result, queue);
+                queue.drain(oldToNew, mark);
+            } finally {
+                queue.reset(mark);
+            }
+        }
+
+        /**
+         * Copy the primitive and specially annotated fields, and push
+         * tasks for the reference fields onto queue.  The caller is
+         * responsible for draining the queue.
+         */
+        abstract void copy(Map<Object, Object> oldToNew, Object source,
+                           Object result, CopyWorkQueue queue)
+                throws ReflectiveCopyException;
+    }
+
     // Utilities for ClassFieldCopier instances.
 
     // Maps classes to ClassFieldCopier instances.
@@ -202,17 +231,33 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                     new FastCache<>(new WeakHashMap<>()) :
                     new WeakHashMap<>();
 
-    private static boolean useCodegenCopier() {
-        return Boolean.getBoolean(
-                "org.glassfish.dynamic.codegen.UseCodegenReflectiveCopyobject");
-    }
+    private static final String DISABLE_GENERATED_COPIERS =
+            "org.glassfish.dynamic.copyobject.DisableGeneratedCopiers";
+
+    // Enabled the old codegen copiers, which the generated copiers replace.
+    private static final String USE_CODEGEN_COPIERS =
+            "org.glassfish.dynamic.codegen.UseCodegenReflectiveCopyobject";
+
+    // Generated copiers are used whenever the JDK supports hidden classes,
+    // unless DISABLE_GENERATED_COPIERS is set, or USE_CODEGEN_COPIERS is
+    // set to false.
+    private static final boolean USE_GENERATED_COPIERS =
+            HiddenClassCopierGenerator.isAvailable() && useGeneratedCopiers();
+
+    private static boolean useGeneratedCopiers() {
+        String useCodegen = System.getProperty(USE_CODEGEN_COPIERS);
+        if (useCodegen != null) {
+            Exceptions.self.obsoleteCodegenProperty(USE_CODEGEN_COPIERS,
+                    DISABLE_GENERATED_COPIERS);
+            if (!Boolean.parseBoolean(useCodegen)) {
+                return false;
+            }
+        }
 
-    private static final Package CODEGEN_SPI =
-            org.glassfish.pfl.dynamic.codegen.spi.Type.class.getPackage();
-    private static final Package CODEGEN_IMPL =
-            org.glassfish.pfl.dynamic.codegen.impl.Node.class.getPackage();
+        return !Boolean.getBoolean(DISABLE_GENERATED_COPIERS);
+    }
 
-    private static ThreadLocal<Boolean> isCodegenCopierAllowed =
+    private static ThreadLocal<Boolean> isGeneratedCopierAllowed =
             new ThreadLocal<>() {
                 @Override
                 public Boolean initialValue() {
@@ -220,12 +265,20 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                 }
             };
 
-    // ONLY for use in spi.orbutil.codegen.Wrapper!
+    /** Allow or forbid generated copiers for the classes whose copiers
+     * are first needed on the calling thread.
+     * @param flag false to use the reflective copier for those classes.
+     * @deprecated Copiers are no longer generated with codegen, so there is
+     * no longer any need to turn them off while codegen runs.  Set the
+     * org.glassfish.dynamic.copyobject.DisableGeneratedCopiers property to
+     * turn generated copiers off everywhere.
+     */
+    @Deprecated
     public static void setCodegenCopierAllowed(boolean flag) {
-        isCodegenCopierAllowed.set(flag);
+        isGeneratedCopierAllowed.set(flag);
     }
 
-    private static synchronized ClassFieldCopier getClassFieldCopier(
+    static synchronized ClassFieldCopier getClassFieldCopier(
             final Class<?> cls,
             final PipelineClassCopierFactory classCopierFactory)
             throws ReflectiveCopyException {
@@ -238,20 +291,22 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                             @Override
                             public ClassFieldCopier run()
                                     throws ReflectiveCopyException {
-                                // Note that we can NOT generate a copier for
-                                // classes used in codegen!  If we try, generating
-                                // the copier uses codegen which calls the copier,
-                                // which generates a copier using codegen, which...
-                                // Just don't do this for anything that is in the
-                                // codegen packages.
-                                if (useCodegenCopier()
-                                        && isCodegenCopierAllowed.get()) {
-                                    return makeClassFieldCopierUnsafeCodegenImpl(
-                                            cls, classCopierFactory);
-                                } else {
-                                    return new ClassFieldCopierUnsafeImpl(cls,
-                                            classCopierFactory);
+                                if (USE_GENERATED_COPIERS
+                                        && isGeneratedCopierAllowed.get()) {
+                                    // The generated copier copies the superclass
+                                    // fields itself, but the superclasses must
+                                    // still be copyable by reflection.
+                                    checkSuperclasses(classCopierFactory, cls);
+                                    ClassFieldCopier result =
+                                            HiddenClassCopierGenerator.makeClassFieldCopier(
+                                                    cls, classCopierFactory);
+                                    if (result != null) {
+                                        return result;
+                                    }
                                 }
+
+                                return new ClassFieldCopierUnsafeImpl(cls,
+                                        classCopierFactory);
                             }
                         }
                 );
@@ -272,28 +327,44 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
         Class<?> superClass = cls.getSuperclass();
         ClassFieldCopier superCopier = null;
         if ((superClass != java.lang.Object.class) && (superClass != null)) {
-            ClassCopier cachedCopier = ccf.lookupInCache(superClass);
+            checkSuperclass(ccf, superClass);
+            superCopier = getClassFieldCopier(superClass, ccf);
+        }
 
-            // If there is a cached ClassCopier, and it is not reflective, then cls
-            // should not be copied by reflection.
-            if ((cachedCopier != null)
-                    && (!cachedCopier.isReflectiveClassCopier())) {
-                throw Exceptions.self.noClassCopierForSuperclass(superClass);
-            }
+        return superCopier;
+    }
 
-            // Return an error immediately, rather than waiting until the
-            // superClass copier is invoked.
-            if (!ccf.reflectivelyCopyable(superClass)) {
-                throw new ReflectiveCopyException(
-                        "Cannot create ClassFieldCopier for superclass " +
-                                superClass.getName() +
-                                ": This class cannot be copied.");
-            }
+    // Check that the fields of superClass may be copied by reflection as part
+    // of copying a subclass.
+    private static void checkSuperclass(PipelineClassCopierFactory ccf,
+                                        Class<?> superClass) throws ReflectiveCopyException {
+        ClassCopier cachedCopier = ccf.lookupInCache(superClass);
+
+        // If there is a cached ClassCopier, and it is not reflective, then cls
+        // should not be copied by reflection.
+        if ((cachedCopier != null)
+                && (!cachedCopier.isReflectiveClassCopier())) {
+            throw Exceptions.self.noClassCopierForSuperclass(superClass);
+        }
 
-            superCopier = getClassFieldCopier(superClass, ccf);
+        // Return an error immediately, rather than waiting until the
+        // superClass copier is invoked.
+        if (!ccf.reflectivelyCopyable(superClass)) {
+            throw new ReflectiveCopyException(
+                    "Cannot create ClassFieldCopier for superclass " +
+                            superClass.getName() +
+                            ": This class cannot be copied.");
         }
+    }
 
-        return superCopier;
+    // Apply checkSuperclass to all superclasses of cls.
+    private static void checkSuperclasses(PipelineClassCopierFactory ccf,
+                                          Class<?> cls) throws ReflectiveCopyException {
+        for (Class<?> superClass = cls.getSuperclass();
+             (superClass != java.lang.Object.class) && (superClass != null);
+             superClass = superClass.getSuperclass()) {
+            checkSuperclass(ccf, superClass);
+        }
     }
 
 //******************************************************************************
@@ -306,7 +377,7 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
      * suppressAccessChecks that supports writing to final fields.
      * This copier also supports @Copy annotations on fields.
      */
-    private static class ClassFieldCopierUnsafeImpl implements ClassFieldCopier {
+    private static class ClassFieldCopierUnsafeImpl extends QueueingClassFieldCopier {
         private final Class<?> myClass;
 
         // Note that fieldOffsets and fieldCopiers must always be the
@@ -317,7 +388,15 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
         private final UnsafeFieldCopier[] fieldCopiers;   // The FieldCopier instances for
         // this class.
 
-        // The ClassCopierFactory needed inside objectUnsafeFieldCopier.
+        // The field offsets of the reference fields that are copied
+        // recursively.  These are copied through the CopyWorkQueue
+        // rather than by an UnsafeFieldCopier.
+        private final long[] referenceOffsets;
+
+        // Avoid the synthetic accessor for BRIDGE_REF in copy (see below).
+        private final Bridge bridge = BRIDGE_REF;
+
+        // The ClassCopierFactory used to copy the reference fields.
         private final PipelineClassCopierFactory classCopierFactory;
 
         // ClassFieldCopier for the immediate super class, if any.
@@ -648,38 +727,6 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
             throw new IllegalArgumentException("cls must be a primitive type");
         }
 
-        // Various kinds of Object copiers
-        //
-        // The objectUnsafeFieldCopier is not stateless, as it requires access to the
-        // ClassCopierFactory, so it cannot be static.
-        private final UnsafeFieldCopier objectUnsafeFieldCopier =
-                new UnsafeFieldCopier(BRIDGE_REF) {
-
-                    @Override
-                    public void copy(Map<Object, Object> oldToNew, long offset,
-                                     Object src, Object dest) throws ReflectiveCopyException {
-                        Object obj = bridge.getObject(src, offset);
-
-                        Object result = null;
-
-                        if (obj != null) {
-                            // This lookup must be based on the actual type, not the
-                            // declared type to allow for polymorphism.
-                            ClassCopier copier = classCopierFactory.getClassCopier(
-                                    obj.getClass());
-
-                            result = copier.copy(oldToNew, obj);
-                        }
-
-                        bridge.putObject(dest, offset, result);
-                    }
-
-                    @Override
-                    public String toString() {
-                        return "objectUnsafeFieldCopier";
-                    }
-                };
-
         private static UnsafeFieldCopier objectUnsafeFieldInitializer =
                 new UnsafeFieldCopier(BRIDGE_REF) {
 
@@ -741,6 +788,8 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                     }
                 };
 
+        // Returns null for a reference field that must be copied recursively.
+        // Such fields are handled by pushing them on the CopyWorkQueue.
         private UnsafeFieldCopier getUnsafeFieldCopier(Field fld) {
             Class<?> defType = fld.getDeclaringClass();
             Class<?> fldType = fld.getType();
@@ -750,7 +799,7 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                 if (fldType.isPrimitive()) {
                     return getPrimitiveFieldCopier(fldType);
                 } else {
-                    return objectUnsafeFieldCopier;
+                    return null;
                 }
             } else {
                 switch (copyAnnotation.value()) {
@@ -758,7 +807,7 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                         if (fldType.isPrimitive()) {
                             return getPrimitiveFieldCopier(fldType);
                         } else {
-                            return objectUnsafeFieldCopier;
+                            return null;
                         }
                     case IDENTITY:
                         if (fldType.isPrimitive()) {
@@ -815,24 +864,38 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
             // Count the number of non-static fields.  These are the
             // ones we must copy.
             Field[] fields = cls.getDeclaredFields();
+            UnsafeFieldCopier[] copiers = new UnsafeFieldCopier[fields.length];
             int numFields = 0;
-            for (Field field : fields) {
-                if (fieldIsCopyable(field)) {
-                    numFields++;
+            int numReferences = 0;
+            for (int ctr = 0; ctr < fields.length; ctr++) {
+                if (fieldIsCopyable(fields[ctr])) {
+                    copiers[ctr] = getUnsafeFieldCopier(fields[ctr]);
+                    if (copiers[ctr] == null) {
+                        numReferences++;
+                    } else {
+                        numFields++;
+                    }
                 }
             }
 
             fieldOffsets = new long[numFields];
             fieldCopiers = new UnsafeFieldCopier[numFields];
+            referenceOffsets = new long[numReferences];
 
             // Initialze offsets and field copiers for non-static
             // fields.
             int pos = 0;
-            for (Field fld : fields) {
-                if (fieldIsCopyable(fld)) {
-                    fieldOffsets[pos] = BRIDGE_REF.objectFieldOffset(fld);
-                    fieldCopiers[pos] = getUnsafeFieldCopier(fld);
-                    pos++;
+            int refPos = 0;
+            for (int ctr = 0; ctr < fields.length; ctr++) {
+                if (fieldIsCopyable(fields[ctr])) {
+                    long offset = BRIDGE_REF.objectFieldOffset(fields[ctr]);
+                    if (copiers[ctr] == null) {
+                        referenceOffsets[refPos++] = offset;
+                    } else {
+                        fieldOffsets[pos] = offset;
+                        fieldCopiers[pos] = copiers[ctr];
+                        pos++;
+                    }
                 }
             }
         }
@@ -848,79 +911,38 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
                 sb.append(':');
                 sb.append(fieldCopiers[ctr].toString());
             }
+            for (long offset : referenceOffsets) {
+                sb.append("\n\t");
+                sb.append(offset);
+                sb.append(":deferred");
+            }
             sb.append("\n]");
             return sb.toString();
         }
 
         @Override
-        public void copy(Map<Object, Object> oldToNew, Object source,
-                         Object result) throws ReflectiveCopyException {
+        void copy(Map<Object, Object> oldToNew, Object source,
+                  Object result, CopyWorkQueue queue) throws ReflectiveCopyException {
             if (superCopier != null) {
                 ((ClassFieldCopierUnsafeImpl) superCopier).copy(
-                        oldToNew, source, result);
+                        oldToNew, source, result, queue);
             }
 
             for (int ctr = 0; ctr < fieldOffsets.length; ctr++) {
                 fieldCopiers[ctr].copy(oldToNew, fieldOffsets[ctr],
                         source, result);
             }
-        }
-    }
-
-//******************************************************************************
-//******************************************************************************
-
-    private static Map<Class<?>, Constructor<?>> classToConstructor =
-            DefaultClassCopierFactories.USE_FAST_CACHE ?
-                    new FastCache<>(
-                            new WeakHashMap<>()) :
-                    new WeakHashMap<>();
-
-    /**
-     * Use bridge with code generated by codegen to copy objects.
-     * This method must be invoked
-     * from inside a doPrivileged call.
-     */
-    private static synchronized ClassFieldCopier
-    makeClassFieldCopierUnsafeCodegenImpl(
-            final Class<?> cls, final PipelineClassCopierFactory classCopierFactory)
-            throws ReflectiveCopyException {
-        Constructor<?> cons = classToConstructor.get(cls);
-        if (cons == null) {
-            final String className =
-                    "org.glassfish.dynamic.codegen.impl.generated.copiers." +
-                            cls.getName() + "Copier";
-            final CodegenCopierGenerator generator =
-                    new CodegenCopierGenerator(className, cls);
-            final ProtectionDomain pd = cls.getProtectionDomain();
-            final Class<?> copierClass = generator.create(pd, cls);
 
-            try {
-                cons = copierClass.getDeclaredConstructor(
-                        PipelineClassCopierFactory.class, ClassFieldCopier.class);
-            } catch (Exception exc) {
-                // XXX use Exceptions
-                throw new ReflectiveCopyException(
-                        "Could not access unsafe codegen copier constructor", exc);
+            for (long offset : referenceOffsets) {
+                Object obj = bridge.getObject(source, offset);
+                if (obj == null) {
+                    // The constructor may have set a value for the field.
+                    bridge.putObject(result, offset, null);
+                } else {
+                    queue.push(result, offset, obj, classCopierFactory);
+                }
             }
-
-            classToConstructor.put(cls, cons);
-        }
-
-        ClassFieldCopier copier = null;
-
-        try {
-            ClassFieldCopier superCopier = getSuperCopier(classCopierFactory,
-                    cls);
-            Object[] args = new Object[]{classCopierFactory, superCopier};
-            copier = (ClassFieldCopier) cons.newInstance(args);
-        } catch (Exception exc) {
-            // XXX use Exceptions
-            throw new ReflectiveCopyException(
-                    "Could not create unsafe codegen copier", exc);
         }
-
-        return copier;
     }
 
 //******************************************************************************
@@ -937,6 +959,10 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
     // Null unless the class defines a readResolve() method.
     private final MethodHandle readResolveMethod;
 
+    // True if instances can be completed after they have been registered in
+    // oldToNew, without any further processing: see copyDeferred.
+    private final boolean isDeferrable;
+
 //******************************************************************************
 // Implementation
 //******************************************************************************
@@ -949,6 +975,14 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
         constructor = ConstructorFactory.makeConstructor(cls);
         readResolveMethod = BRIDGE_REF.readResolveForSerialization(cls);
 
+        // Classes with readResolve or CopyInterceptor need their fields
+        // before the copy is complete, and HashMap is a special case in
+        // ClassCopierBase.
+        isDeferrable = (readResolveMethod == null)
+                && (classFieldCopier instanceof QueueingClassFieldCopier)
+                && !CopyInterceptor.class.isAssignableFrom(cls)
+                && !HashMap.class.isAssignableFrom(cls);
+
         // XXX handle custom marshalled objects.
     }
 
@@ -968,17 +1002,72 @@ public class ClassCopierOrdinaryImpl extends ClassCopierBase {
     @Override
     public Object doCopy(Map<Object, Object> oldToNew, Object source,
                          Object result) throws ReflectiveCopyException {
-        if (source instanceof CopyInterceptor) {
-            // Note that result will also be an instance of CopyInterceptor in this case.
-            ((CopyInterceptor) source).preCopy();
-            classFieldCopier.copy(oldToNew, source, result);
-            ((CopyInterceptor) result).postCopy();
+        CopyWorkQueue queue = CopyWorkQueue.get();
+        int mark = queue.mark();
+        try {
+            if (source instanceof CopyInterceptor) {
+                // Note that result will also be an instance of CopyInterceptor in this case.
+                ((CopyInterceptor) source).preCopy();
+                copyFields(oldToNew, source, result, queue);
+                queue.drain(oldToNew, mark);
+                ((CopyInterceptor) result).postCopy();
+
+                return resolve(result);
+            } else {
+                copyFields(oldToNew, source, result, queue);
+                queue.drain(oldToNew, mark);
+
+                return resolve(result);
+            }
+        } finally {
+            queue.reset(mark);
+        }
+    }
 
-            return resolve(result);
+    private void copyFields(Map<Object, Object> oldToNew, Object source,
+                            Object result, CopyWorkQueue queue) throws ReflectiveCopyException {
+        if (classFieldCopier instanceof QueueingClassFieldCopier) {
+            ((QueueingClassFieldCopier) classFieldCopier).copy(
+                    oldToNew, source, result, queue);
         } else {
             classFieldCopier.copy(oldToNew, source, result);
+        }
+    }
+
+    /**
+     * Copy source as part of draining queue.  If possible, this only
+     * allocates the copy, registers it in oldToNew, and pushes the reference
+     * fields of source onto queue, so that the copy is completed later by
+     * CopyWorkQueue.drain without using any stack.  Otherwise the copy is
+     * made immediately by copy.
+     */
+    Object copyDeferred(Map<Object, Object> oldToNew, Object source,
+                        CopyWorkQueue queue) throws ReflectiveCopyException {
+        if (!isDeferrable) {
+            return copy(oldToNew, source);
+        }
+
+        Object result = createCopy(source);
+        Object registered = register(oldToNew, source, result);
+        if (registered != result) {
+            // Another thread has copied source.
+            return registered;
+        }
 
-            return resolve(result);
+        // The copy is complete once the fields pushed here are drained.
+        int position = queue.mark();
+        boolean pushed = false;
+        try {
+            ((QueueingClassFieldCopier) classFieldCopier).copy(
+                    oldToNew, source, result, queue);
+            pushed = true;
+        } finally {
+            if (pushed) {
+                queue.completeAt(position, oldToNew, source);
+            } else {
+                completed(oldToNew, source);
+            }
         }
+        return result;
     }
 }
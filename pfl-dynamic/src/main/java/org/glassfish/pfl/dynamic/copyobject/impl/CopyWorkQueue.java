@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.glassfish.pfl.basic.reflection.Bridge;
+import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
+
+/** The work queue used by the reflective copier to copy reference fields
+ * without recursion.
+ * <p>
+ * Instead of copying the value of a reference field immediately, the
+ * field copier pushes a (target, offset, source) task.  drain then pops
+ * the tasks: each source that has not yet been copied is allocated with
+ * createCopy and registered in oldToNew, and its own reference fields are
+ * pushed in turn.  The depth of the object graph is therefore bounded by
+ * the heap rather than by the thread stack.
+ * <p>
+ * Classes that must see their fields fully copied before the copy can
+ * complete (readResolve, CopyInterceptor), as well as non-reflective
+ * ClassCopiers, are still copied by a call to ClassCopier.copy.  Such
+ * a call uses the same queue: it records mark() on entry, and drains
+ * the queue back to the mark before it returns, so that every call to
+ * ClassCopier.copy still returns a completely copied object.
+ * <p>
+ * In a parallel copy, a deferred copy stays pending in the ParallelCopyMap
+ * until the tasks for its fields, and the tasks they push in turn, have
+ * been processed: see completeAt.
+ * <p>
+ * There is one queue per thread, which is reused across copies.
+ */
+final class CopyWorkQueue {
+    private static final Bridge BRIDGE_REF = AccessController.doPrivileged(
+            new PrivilegedAction<Bridge>() {
+                @Override
+                public Bridge run() {
+                    return Bridge.get();
+                }
+            }
+    );
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Do not keep arrays larger than this around after a copy completes.
+    private static final int MAX_RETAINED_CAPACITY = 4096;
+
+    private static final ThreadLocal<CopyWorkQueue> current =
+            new ThreadLocal<CopyWorkQueue>() {
+                @Override
+                protected CopyWorkQueue initialValue() {
+                    return new CopyWorkQueue();
+                }
+            };
+
+    /** Return the work queue for the current thread.
+     */
+    static CopyWorkQueue get() {
+        return current.get();
+    }
+
+    // The four arrays are always the same length.
+    private Object[] targets;
+    private long[] offsets;
+    private Object[] sources;
+    private ClassCopierFactory[] factories;
+    private int size;
+
+    // The deferred copies of a parallel copy that are not yet complete,
+    // with the position the queue must drain back to for each of them.
+    // The positions never decrease.
+    private int[] completionPositions = new int[0];
+    private ParallelCopyMap[] completionMaps = new ParallelCopyMap[0];
+    private Object[] completionSources = new Object[0];
+    private int completions;
+
+    private CopyWorkQueue() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        targets = new Object[capacity];
+        offsets = new long[capacity];
+        sources = new Object[capacity];
+        factories = new ClassCopierFactory[capacity];
+    }
+
+    private void grow() {
+        int capacity = 2 * targets.length;
+        Object[] oldTargets = targets;
+        long[] oldOffsets = offsets;
+        Object[] oldSources = sources;
+        ClassCopierFactory[] oldFactories = factories;
+
+        allocate(capacity);
+        System.arraycopy(oldTargets, 0, targets, 0, size);
+        System.arraycopy(oldOffsets, 0, offsets, 0, size);
+        System.arraycopy(oldSources, 0, sources, 0, size);
+        System.arraycopy(oldFactories, 0, factories, 0, size);
+    }
+
+    /** Return the current position in the queue, for use in drain and
+     * reset.
+     */
+    int mark() {
+        return size;
+    }
+
+    /** Record that the copy of source must be stored in target at the
+     * field offset.  factory supplies the ClassCopier for source.
+     */
+    void push(Object target, long offset, Object source,
+              ClassCopierFactory factory) {
+        if (size == targets.length) {
+            grow();
+        }
+
+        targets[size] = target;
+        offsets[size] = offset;
+        sources[size] = source;
+        factories[size] = factory;
+        size++;
+    }
+
+    /** Record that the copy of source in oldToNew is complete once the
+     * queue has been drained back to position, which was the mark before
+     * the fields of source were pushed.  This only matters in a parallel
+     * copy.
+     */
+    void completeAt(int position, Map<Object, Object> oldToNew,
+                    Object source) {
+        if (!(oldToNew instanceof ParallelCopyMap)) {
+            return;
+        }
+
+        if (size <= position) {
+            // No reference fields were pushed.
+            ((ParallelCopyMap) oldToNew).complete(source);
+            return;
+        }
+
+        if (completions == completionPositions.length) {
+            int capacity = Math.max(16, 2 * completions);
+            completionPositions = Arrays.copyOf(completionPositions, capacity);
+            completionMaps = Arrays.copyOf(completionMaps, capacity);
+            completionSources = Arrays.copyOf(completionSources, capacity);
+        }
+
+        completionPositions[completions] = position;
+        completionMaps[completions] = (ParallelCopyMap) oldToNew;
+        completionSources[completions] = source;
+        completions++;
+    }
+
+    // Complete the deferred copies recorded after completionMark whose
+    // tasks have all been processed, or all of them if the copy failed,
+    // so that no other thread waits for them forever.
+    private void complete(int completionMark, boolean failed) {
+        while ((completions > completionMark)
+                && (failed || (completionPositions[completions - 1] >= size))) {
+            completions--;
+            completionMaps[completions].complete(
+                    completionSources[completions]);
+            completionMaps[completions] = null;
+            completionSources[completions] = null;
+        }
+    }
+
+    /** Process all tasks pushed after mark, including the tasks that
+     * are pushed while doing so.  On return, the queue is back at mark.
+     */
+    void drain(Map<Object, Object> oldToNew, int mark)
+            throws ReflectiveCopyException {
+        // A nested drain may run while the last task of an outer deferred
+        // copy is being processed, so it must leave that copy pending.
+        int completionMark = completions;
+        boolean drained = false;
+        try {
+            while (size > mark) {
+                size--;
+                Object target = targets[size];
+                long offset = offsets[size];
+                Object source = sources[size];
+                ClassCopierFactory factory = factories[size];
+                targets[size] = null;
+                sources[size] = null;
+                factories[size] = null;
+
+                Object result = oldToNew.get(source);
+                if (result == null) {
+                    // This lookup must be based on the actual type, not the
+                    // declared type to allow for polymorphism.
+                    ClassCopier copier = factory.getClassCopier(source.getClass());
+                    if (copier instanceof ClassCopierOrdinaryImpl) {
+                        result = ((ClassCopierOrdinaryImpl) copier).copyDeferred(
+                                oldToNew, source, this);
+                    } else {
+                        result = copier.copy(oldToNew, source);
+                    }
+                }
+
+                BRIDGE_REF.putObject(target, offset, result);
+                complete(completionMark, false);
+            }
+            drained = true;
+        } finally {
+            if (!drained) {
+                complete(completionMark, true);
+            }
+        }
+    }
+
+    /** Discard all tasks pushed after mark.  This is used to clean up
+     * after a failed copy.
+     */
+    void reset(int mark) {
+        for (int ctr = mark; ctr < size; ctr++) {
+            targets[ctr] = null;
+            sources[ctr] = null;
+            factories[ctr] = null;
+        }
+
+        size = mark;
+        if (size == 0 && targets.length > MAX_RETAINED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+        }
+    }
+}
@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -14,9 +15,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.Map;
 
-import org.glassfish.pfl.basic.concurrent.WeakHashMapSafeReadLock;
 import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
 
 public abstract class DefaultClassCopierFactories
@@ -116,27 +115,13 @@ public abstract class DefaultClassCopierFactories
 	} ;
     }
 
+    /** Create a CachingClassCopierFactory.  The result is backed by a
+     * ClassValue, so that cache hits take no lock, and cached classes
+     * do not pin their ClassLoaders.
+     */
     public static CachingClassCopierFactory makeCachingClassCopierFactory( )
     {
-	return new CachingClassCopierFactory() 
-	{
-	    private Map<Class<?>,ClassCopier> cache = USE_FAST_CACHE ?
-		new FastCache<Class<?>,ClassCopier>(
-                    new WeakHashMapSafeReadLock<Class<?>,ClassCopier>() ) :
-		new WeakHashMapSafeReadLock<Class<?>,ClassCopier>() ;
-
-            @Override
-	    public void put( Class<?> cls, ClassCopier copier )
-	    {
-		cache.put( cls, copier ) ;
-	    }
-
-            @Override
-	    public ClassCopier getClassCopier( Class<?> cls )
-	    {
-		return cache.get(cls) ;
-	    }
-	};
+	return new ClassCopierFactoryCachingImpl() ;
     }
     
     public static ClassCopierFactory getNullClassCopierFactory()
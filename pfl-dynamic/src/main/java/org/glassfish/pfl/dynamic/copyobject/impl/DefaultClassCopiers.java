@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -10,8 +11,15 @@
 
 package org.glassfish.pfl.dynamic.copyobject.impl;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
 
@@ -117,4 +125,261 @@ public abstract class DefaultClassCopiers
 	    }
 	} ;
     }
+
+    // Copy obj (which may be null) using the ClassCopier that ccf
+    // supplies for its actual class.
+    private static Object copyElement( ClassCopierFactory ccf,
+	Map<Object,Object> oldToNew, Object obj ) throws ReflectiveCopyException
+    {
+	if (obj == null) {
+	    return null ;
+	}
+
+	ClassCopier copier = ccf.getClassCopier( obj.getClass() ) ;
+	return copier.copy( oldToNew, obj ) ;
+    }
+
+    // Copy the keys and values of source into result.  In a parallel copy
+    // of a large map, the keys and values are copied by
+    // ArrayElementCopier, and then inserted in result.
+    private static void copyEntries( ClassCopierFactory ccf,
+	Map<Object,Object> oldToNew, Map<?,?> source,
+	Map<Object,Object> result ) throws ReflectiveCopyException
+    {
+	if (ArrayElementCopier.isParallel( oldToNew, source.size() )) {
+	    Object[] elements = new Object[ 2 * source.size() ] ;
+	    int pos = 0 ;
+	    for (Map.Entry<?,?> entry : source.entrySet()) {
+		if (pos == elements.length) {
+		    // A ConcurrentHashMap may have grown meanwhile.
+		    elements = Arrays.copyOf( elements, 2 * pos ) ;
+		}
+		elements[pos++] = entry.getKey() ;
+		elements[pos++] = entry.getValue() ;
+	    }
+
+	    if (pos < elements.length) {
+		// Or it may have shrunk.
+		elements = Arrays.copyOf( elements, pos ) ;
+	    }
+
+	    Object[] copies = new Object[ pos ] ;
+	    ArrayElementCopier.copyElements( ccf, oldToNew, elements, copies ) ;
+	    for (int ctr=0; ctr<pos; ctr+=2) {
+		result.put( copies[ctr], copies[ctr+1] ) ;
+	    }
+	} else {
+	    for (Map.Entry<?,?> entry : source.entrySet()) {
+		Object newKey = copyElement( ccf, oldToNew, entry.getKey() ) ;
+		Object newValue = copyElement( ccf, oldToNew, entry.getValue() ) ;
+		result.put( newKey, newValue ) ;
+	    }
+	}
+    }
+
+    // The initial capacity a HashMap needs to hold size entries without
+    // resizing.
+    private static int hashCapacity( int size )
+    {
+	return Math.max( (int)(size / 0.75f) + 1, 16 ) ;
+    }
+
+    // The copiers below are all marked as reflective: a subclass of one of
+    // these classes may still be copied reflectively, as the class itself
+    // could be, rather than failing because its super class has a
+    // ClassCopier that does not use reflection.
+
+    /** Return a ClassCopier for java.util.HashMap (but not its subclasses).
+     * The copy is allocated with enough capacity for all of the entries,
+     * and the keys are re-hashed after they are copied, so keys that use
+     * identity hash codes are handled correctly.
+     */
+    public static ClassCopier makeHashMapClassCopier(
+	final ClassCopierFactory ccf )
+    {
+	return new ClassCopierBase( "hashMap", true )
+	{
+            @Override
+	    public Object createCopy( Object source )
+	    {
+		return new HashMap<Object,Object>(
+		    hashCapacity( ((HashMap<?,?>)source).size() ) ) ;
+	    }
+
+            @Override
+	    public Object doCopy( Map<Object,Object> oldToNew,
+		Object source, Object result ) throws ReflectiveCopyException
+	    {
+		@SuppressWarnings("unchecked")
+		HashMap<Object,Object> resultMap = (HashMap<Object,Object>)result ;
+		copyEntries( ccf, oldToNew, (HashMap<?,?>)source, resultMap ) ;
+
+		return result ;
+	    }
+	} ;
+    }
+
+    /** Return a ClassCopier for java.util.concurrent.ConcurrentHashMap (but
+     * not its subclasses).  This works like the HashMap copier.  Note that
+     * a map that is concurrently modified is copied as seen by its
+     * (weakly consistent) iterator.
+     */
+    public static ClassCopier makeConcurrentHashMapClassCopier(
+	final ClassCopierFactory ccf )
+    {
+	return new ClassCopierBase( "concurrentHashMap", true )
+	{
+            @Override
+	    public Object createCopy( Object source )
+	    {
+		return new ConcurrentHashMap<Object,Object>(
+		    ((ConcurrentHashMap<?,?>)source).size() ) ;
+	    }
+
+            @Override
+	    public Object doCopy( Map<Object,Object> oldToNew,
+		Object source, Object result ) throws ReflectiveCopyException
+	    {
+		@SuppressWarnings("unchecked")
+		ConcurrentHashMap<Object,Object> resultMap =
+		    (ConcurrentHashMap<Object,Object>)result ;
+		copyEntries( ccf, oldToNew, (ConcurrentHashMap<?,?>)source,
+		    resultMap ) ;
+
+		return result ;
+	    }
+	} ;
+    }
+
+    /** Return a ClassCopier for java.util.TreeMap (but not its subclasses).
+     * The comparator is copied first, since it is needed to construct the
+     * copy, then the entries are inserted in order.
+     */
+    public static ClassCopier makeTreeMapClassCopier(
+	final ClassCopierFactory ccf )
+    {
+	// This cannot be based on ClassCopierBase, because the comparator
+	// must be copied before the result can be created.
+	return new ClassCopier()
+	{
+            @Override
+	    public Object copy( Map<Object,Object> oldToNew,
+		Object source ) throws ReflectiveCopyException
+	    {
+		Object result = oldToNew.get( source ) ;
+		if (result != null) {
+		    return result ;
+		}
+
+		TreeMap<?,?> sourceMap = (TreeMap<?,?>)source ;
+
+		@SuppressWarnings("unchecked")
+		Comparator<Object> comparator = (Comparator<Object>)copyElement(
+		    ccf, oldToNew, sourceMap.comparator() ) ;
+
+		// The comparator may refer back to the map.
+		result = oldToNew.get( source ) ;
+		if (result != null) {
+		    return result ;
+		}
+
+		TreeMap<Object,Object> resultMap =
+		    new TreeMap<Object,Object>( comparator ) ;
+		result = ClassCopierBase.register( oldToNew, source, resultMap ) ;
+		if (result != resultMap) {
+		    // Another thread has copied source.
+		    return result ;
+		}
+
+		try {
+		    for (Map.Entry<?,?> entry : sourceMap.entrySet()) {
+			Object newKey = copyElement( ccf, oldToNew, entry.getKey() ) ;
+			Object newValue = copyElement( ccf, oldToNew, entry.getValue() ) ;
+			resultMap.put( newKey, newValue ) ;
+		    }
+		} finally {
+		    ClassCopierBase.completed( oldToNew, source ) ;
+		}
+
+		return resultMap ;
+	    }
+
+            @Override
+	    public boolean isReflectiveClassCopier()
+	    {
+		return true ;
+	    }
+
+            @Override
+	    public String toString()
+	    {
+		return "ClassCopier[treeMap]" ;
+	    }
+	} ;
+    }
+
+    /** Return a ClassCopier for java.util.ArrayList (but not its subclasses).
+     * The copy is allocated with the exact size of the source.
+     */
+    public static ClassCopier makeArrayListClassCopier(
+	final ClassCopierFactory ccf )
+    {
+	return new ClassCopierBase( "arrayList", true )
+	{
+            @Override
+	    public Object createCopy( Object source )
+	    {
+		return new ArrayList<Object>( ((ArrayList<?>)source).size() ) ;
+	    }
+
+            @Override
+	    public Object doCopy( Map<Object,Object> oldToNew,
+		Object source, Object result ) throws ReflectiveCopyException
+	    {
+		@SuppressWarnings("unchecked")
+		ArrayList<Object> resultList = (ArrayList<Object>)result ;
+		Object[] elements = ((ArrayList<?>)source).toArray() ;
+		Object[] copies = new Object[ elements.length ] ;
+		ArrayElementCopier.copyElements( ccf, oldToNew, elements, copies ) ;
+		resultList.addAll( Arrays.asList( copies ) ) ;
+
+		return result ;
+	    }
+	} ;
+    }
+
+    /** Return a ClassCopier for java.util.ArrayDeque (but not its
+     * subclasses).  The copy is allocated with the size of the source,
+     * and has the same order of elements.
+     */
+    public static ClassCopier makeArrayDequeClassCopier(
+	final ClassCopierFactory ccf )
+    {
+	return new ClassCopierBase( "arrayDeque", true )
+	{
+            @Override
+	    public Object createCopy( Object source )
+	    {
+		return new ArrayDeque<Object>( ((ArrayDeque<?>)source).size() ) ;
+	    }
+
+            @Override
+	    public Object doCopy( Map<Object,Object> oldToNew,
+		Object source, Object result ) throws ReflectiveCopyException
+	    {
+		@SuppressWarnings("unchecked")
+		ArrayDeque<Object> resultDeque = (ArrayDeque<Object>)result ;
+		// ArrayDeque does not allow null elements, so toArray has
+		// no nulls either.
+		Object[] elements = ((ArrayDeque<?>)source).toArray() ;
+		Object[] copies = new Object[ elements.length ] ;
+		ArrayElementCopier.copyElements( ccf, oldToNew, elements, copies ) ;
+		for (Object obj : copies) {
+		    resultDeque.addLast( obj ) ;
+		}
+
+		return result ;
+	    }
+	} ;
+    }
 }
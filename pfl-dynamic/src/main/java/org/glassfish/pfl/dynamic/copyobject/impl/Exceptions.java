@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -87,4 +88,17 @@ public interface Exceptions {
         + ": This class already has a ClassCopier" )
     @Log( id = CCOI_START + 0, level=LogLevel.WARNING )
     ReflectiveCopyException noClassCopierForSuperclass( Class<?> superClass ) ;
+
+    @Message( "The {0} property is obsolete: generated copiers are used "
+        + "unless it is false or {1} is set" )
+    @Log( id = CCOI_START + 1, level=LogLevel.WARNING )
+    void obsoleteCodegenProperty( String name, String replacement ) ;
+
+// JavaStreamObjectCopierImpl
+    static final int JSOCI_START = CCOI_START + EXCEPTIONS_PER_CLASS ;
+
+    @Message( "Could not copy an instance of {0} by serialization" )
+    @Log( id = JSOCI_START + 0, level=LogLevel.FINE )
+    ReflectiveCopyException streamCopyFailed( Class<?> cls,
+        @Chain Exception exc ) ;
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+
+import org.glassfish.pfl.basic.reflection.Bridge;
+
+/** Base class of the ClassFieldCopiers generated by HiddenClassCopierGenerator.
+ * A generated copier only contains a copy method with one call to
+ * one of the static helpers below for each field, with the field offset
+ * as a constant.  All access to the fields goes through the Bridge,
+ * so the generated class needs no access to the class being copied.
+ * <p>
+ * This class and its constructor are package private: the generated
+ * classes are defined in this package, and nothing else can extend
+ * this class to get access to the Bridge.
+ */
+abstract class GeneratedClassFieldCopier
+    extends ClassCopierOrdinaryImpl.QueueingClassFieldCopier {
+
+    private static final Bridge BRIDGE_REF = AccessController.doPrivileged(
+            new PrivilegedAction<Bridge>() {
+                @Override
+                public Bridge run() {
+                    return Bridge.get();
+                }
+            }
+    );
+
+    private final PipelineClassCopierFactory classCopierFactory;
+
+    // Only the name is kept, so that the copier does not pin the class.
+    private final String className;
+
+    GeneratedClassFieldCopier(PipelineClassCopierFactory ccf,
+                              String className) {
+        this.classCopierFactory = ccf;
+        this.className = className;
+    }
+
+    static void copyByte(long offset, Object src, Object dest) {
+        BRIDGE_REF.putByte(dest, offset, BRIDGE_REF.getByte(src, offset));
+    }
+
+    static void copyChar(long offset, Object src, Object dest) {
+        BRIDGE_REF.putChar(dest, offset, BRIDGE_REF.getChar(src, offset));
+    }
+
+    static void copyShort(long offset, Object src, Object dest) {
+        BRIDGE_REF.putShort(dest, offset, BRIDGE_REF.getShort(src, offset));
+    }
+
+    static void copyInt(long offset, Object src, Object dest) {
+        BRIDGE_REF.putInt(dest, offset, BRIDGE_REF.getInt(src, offset));
+    }
+
+    static void copyLong(long offset, Object src, Object dest) {
+        BRIDGE_REF.putLong(dest, offset, BRIDGE_REF.getLong(src, offset));
+    }
+
+    static void copyBoolean(long offset, Object src, Object dest) {
+        BRIDGE_REF.putBoolean(dest, offset, BRIDGE_REF.getBoolean(src, offset));
+    }
+
+    static void copyFloat(long offset, Object src, Object dest) {
+        BRIDGE_REF.putFloat(dest, offset, BRIDGE_REF.getFloat(src, offset));
+    }
+
+    static void copyDouble(long offset, Object src, Object dest) {
+        BRIDGE_REF.putDouble(dest, offset, BRIDGE_REF.getDouble(src, offset));
+    }
+
+    // Push a task for a reference field, exactly as
+    // ClassFieldCopierUnsafeImpl does.
+    final void copyReference(long offset, Object src, Object dest,
+                             CopyWorkQueue queue) {
+        Object obj = BRIDGE_REF.getObject(src, offset);
+        if (obj == null) {
+            // The constructor may have set a value for the field.
+            BRIDGE_REF.putObject(dest, offset, null);
+        } else {
+            queue.push(dest, offset, obj, classCopierFactory);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedClassFieldCopier[" + className + "]";
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.glassfish.pfl.basic.reflection.Bridge;
+import org.glassfish.pfl.dynamic.copyobject.spi.Copy;
+import org.glassfish.pfl.dynamic.copyobject.spi.CopyType;
+import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/** Generates a ClassFieldCopier for a class directly with ASM.
+ * <p>
+ * The generated copier is flattened: a single copy method copies the
+ * fields of the class and of all of its superclasses, with every field
+ * offset compiled in as a constant, so there is no chain of superclass
+ * copiers and no per-field dispatch.  Reference fields are pushed on the
+ * CopyWorkQueue, just as in ClassFieldCopierUnsafeImpl.
+ * <p>
+ * The copier is defined as a hidden class in this package by
+ * Lookup.defineHiddenClass.  It is only reachable from the copier
+ * instance, so it is unloaded with the copier, and it never touches the
+ * ClassLoader of the class being copied.  defineHiddenClass needs JDK 15,
+ * while this library still runs on JDK 11, so it is looked up
+ * reflectively; on older JDKs isAvailable returns false, and the
+ * ClassFieldCopierUnsafeImpl is used instead.
+ */
+final class HiddenClassCopierGenerator {
+    private HiddenClassCopierGenerator() {}
+
+    private static final Bridge BRIDGE_REF = AccessController.doPrivileged(
+            new PrivilegedAction<Bridge>() {
+                @Override
+                public Bridge run() {
+                    return Bridge.get();
+                }
+            }
+    );
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // (Lookup, byte[]) -> Lookup of the defined hidden class, or null
+    // if this JDK does not support hidden classes.
+    private static final MethodHandle DEFINE_HIDDEN_CLASS = findDefineHiddenClass();
+
+    private static final String BASE_NAME =
+            Type.getInternalName(GeneratedClassFieldCopier.class);
+    private static final String CLASS_NAME_PREFIX =
+            BASE_NAME.substring(0, BASE_NAME.lastIndexOf('/') + 1) + "GeneratedCopier$";
+    private static final String CONSTRUCTOR_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.VOID_TYPE,
+                    Type.getType(PipelineClassCopierFactory.class),
+                    Type.getType(String.class));
+    private static final String COPY_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.VOID_TYPE,
+                    Type.getType(Map.class), Type.getType(Object.class),
+                    Type.getType(Object.class), Type.getType(CopyWorkQueue.class));
+    private static final String PRIMITIVE_HELPER_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.VOID_TYPE, Type.LONG_TYPE,
+                    Type.getType(Object.class), Type.getType(Object.class));
+    private static final String REFERENCE_HELPER_DESCRIPTOR =
+            Type.getMethodDescriptor(Type.VOID_TYPE, Type.LONG_TYPE,
+                    Type.getType(Object.class), Type.getType(Object.class),
+                    Type.getType(CopyWorkQueue.class));
+    private static final String[] COPY_EXCEPTIONS = {
+            Type.getInternalName(ReflectiveCopyException.class)
+    };
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(
+            void.class, PipelineClassCopierFactory.class, String.class);
+
+    private static MethodHandle findDefineHiddenClass() {
+        try {
+            Class<?> optionClass = Class.forName(
+                    "java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            Object noOptions = Array.newInstance(optionClass, 0);
+            MethodHandle mh = MethodHandles.publicLookup().findVirtual(
+                    MethodHandles.Lookup.class, "defineHiddenClass",
+                    MethodType.methodType(MethodHandles.Lookup.class,
+                            byte[].class, boolean.class, noOptions.getClass()));
+            return MethodHandles.insertArguments(mh, 2, true, noOptions);
+        } catch (ReflectiveOperationException exc) {
+            return null;
+        }
+    }
+
+    /** Return true if this JDK can define hidden classes.
+     */
+    static boolean isAvailable() {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    /** Return a generated ClassFieldCopier for cls, or null if cls has
+     * fields that need the special handling of a @Copy annotation.  Such
+     * classes are rare, and are left to ClassFieldCopierUnsafeImpl.
+     * The superclasses of cls must already have been checked by
+     * ClassCopierOrdinaryImpl.
+     */
+    static ClassCopierOrdinaryImpl.ClassFieldCopier makeClassFieldCopier(
+            Class<?> cls, PipelineClassCopierFactory ccf)
+            throws ReflectiveCopyException {
+
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = cls;
+             (current != Object.class) && (current != null);
+             current = current.getSuperclass()) {
+            for (Field fld : current.getDeclaredFields()) {
+                if (Modifier.isStatic(fld.getModifiers())) {
+                    continue;
+                }
+
+                Copy copyAnnotation = fld.getAnnotation(Copy.class);
+                if ((copyAnnotation != null)
+                        && (copyAnnotation.value() != CopyType.RECURSE)) {
+                    return null;
+                }
+
+                fields.add(fld);
+            }
+        }
+
+        String className = CLASS_NAME_PREFIX + cls.getName().replace('.', '_');
+        byte[] classBytes = generate(className, fields);
+        try {
+            MethodHandles.Lookup copierLookup = (MethodHandles.Lookup)
+                    DEFINE_HIDDEN_CLASS.invoke(LOOKUP, classBytes);
+            MethodHandle constructor = copierLookup.findConstructor(
+                    copierLookup.lookupClass(), CONSTRUCTOR_TYPE);
+            return (ClassCopierOrdinaryImpl.ClassFieldCopier)
+                    constructor.invoke(ccf, cls.getName());
+        } catch (Throwable thr) {
+            // XXX use Exceptions
+            throw new ReflectiveCopyException(
+                    "Could not define generated copier for " + cls.getName(), thr);
+        }
+    }
+
+    private static byte[] generate(String className, List<Field> fields) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(Opcodes.V11,
+                Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+                className, null, BASE_NAME, null);
+
+        MethodVisitor mv = cw.visitMethod(0, "<init>",
+                CONSTRUCTOR_DESCRIPTOR, null, null);
+        mv.visitCode();
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitVarInsn(Opcodes.ALOAD, 1);
+        mv.visitVarInsn(Opcodes.ALOAD, 2);
+        mv.visitMethodInsn(Opcodes.INVOKESPECIAL, BASE_NAME, "<init>",
+                CONSTRUCTOR_DESCRIPTOR, false);
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // void copy(Map oldToNew, Object src, Object dest, CopyWorkQueue queue)
+        mv = cw.visitMethod(0, "copy", COPY_DESCRIPTOR, null, COPY_EXCEPTIONS);
+        mv.visitCode();
+        for (Field fld : fields) {
+            long offset = BRIDGE_REF.objectFieldOffset(fld);
+            Class<?> type = fld.getType();
+            if (type.isPrimitive()) {
+                // copyXxx(offset, src, dest)
+                String name = type.getName();
+                mv.visitLdcInsn(offset);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitVarInsn(Opcodes.ALOAD, 3);
+                mv.visitMethodInsn(Opcodes.INVOKESTATIC, BASE_NAME,
+                        "copy" + Character.toUpperCase(name.charAt(0))
+                                + name.substring(1),
+                        PRIMITIVE_HELPER_DESCRIPTOR, false);
+            } else {
+                // this.copyReference(offset, src, dest, queue)
+                mv.visitVarInsn(Opcodes.ALOAD, 0);
+                mv.visitLdcInsn(offset);
+                mv.visitVarInsn(Opcodes.ALOAD, 2);
+                mv.visitVarInsn(Opcodes.ALOAD, 3);
+                mv.visitVarInsn(Opcodes.ALOAD, 4);
+                mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, BASE_NAME,
+                        "copyReference", REFERENCE_HELPER_DESCRIPTOR, false);
+            }
+        }
+        mv.visitInsn(Opcodes.RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/** The oldToNew map used by ObjectCopierImpl.
+ * This is an identity map using open addressing with linear probing,
+ * which is all that the copier needs: keys are only ever compared
+ * with ==, and entries are never removed individually.
+ * <p>
+ * A slot is in use only if its stamp matches the current generation,
+ * so clear does not need to scan the table: it just starts a new
+ * generation and drops the references held in the slots that were
+ * actually used.  The table starts small, since most copies are of
+ * small argument graphs, and doubles whenever it becomes half full.
+ * <p>
+ * Instances can be pooled per thread by acquire and release.  A map
+ * returned by release holds no references to copied objects.
+ */
+public final class IdentityCopyMap extends AbstractMap<Object, Object> {
+    private static final int INITIAL_CAPACITY = 16;   // must be a power of 2
+
+    // Maps that grew larger than this are shrunk again by clear, so that
+    // pooled maps do not hold on to large tables.
+    private static final int MAX_POOLED_CAPACITY = 4096;
+
+    private static final ThreadLocal<IdentityCopyMap> pool =
+            new ThreadLocal<IdentityCopyMap>();
+
+    /** Obtain a map from the current thread's pool, or a new map
+     * if the pool is empty.  The map must be given back by release.
+     */
+    public static IdentityCopyMap acquire() {
+        IdentityCopyMap result = pool.get();
+        if (result == null) {
+            return new IdentityCopyMap();
+        }
+
+        pool.set(null);
+        return result;
+    }
+
+    /** Clear this map, and return it to the current thread's pool.
+     * The map must not be used after this call.
+     */
+    public void release() {
+        clear();
+        pool.set(this);
+    }
+
+    private Object[] keys;
+    private Object[] values;
+    private int[] stamps;
+    private int generation = 1;
+
+    // The slots used in the current generation, in order of insertion.
+    private int[] used;
+    private int size;
+
+    public IdentityCopyMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        stamps = new int[capacity];
+        used = new int[capacity / 2];
+    }
+
+    private static int hash(Object key, int mask) {
+        int hv = System.identityHashCode(key);
+        // Spread the high bits, which are the most random ones.
+        return (hv ^ (hv >>> 16)) & mask;
+    }
+
+    private int findSlot(Object key) {
+        int mask = keys.length - 1;
+        int slot = hash(key, mask);
+        while (stamps[slot] == generation && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = findSlot(key);
+        return stamps[slot] == generation ? values[slot] : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return stamps[findSlot(key)] == generation;
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        int slot = findSlot(key);
+        if (stamps[slot] == generation) {
+            Object result = values[slot];
+            values[slot] = value;
+            return result;
+        }
+
+        if (size == used.length) {
+            grow();
+            slot = findSlot(key);
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+        stamps[slot] = generation;
+        used[size++] = slot;
+        return null;
+    }
+
+    private void grow() {
+        Object[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] oldUsed = used;
+        int oldSize = size;
+
+        allocate(2 * oldKeys.length);
+        generation = 1;
+        size = 0;
+        for (int ctr = 0; ctr < oldSize; ctr++) {
+            int oldSlot = oldUsed[ctr];
+            int slot = findSlot(oldKeys[oldSlot]);
+            keys[slot] = oldKeys[oldSlot];
+            values[slot] = oldValues[oldSlot];
+            stamps[slot] = generation;
+            used[size++] = slot;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int ctr = 0; ctr < size; ctr++) {
+            keys[used[ctr]] = null;
+            values[used[ctr]] = null;
+        }
+        size = 0;
+
+        generation++;
+        if (generation == 0) {
+            // The stamps wrapped around, so old stamps could match again.
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+
+        if (keys.length > MAX_POOLED_CAPACITY) {
+            allocate(INITIAL_CAPACITY);
+            generation = 1;
+        }
+    }
+
+    /** Returns a snapshot of the entries.  This is only intended for
+     * debugging: the copier itself only uses get and put.
+     */
+    @Override
+    public Set<Entry<Object, Object>> entrySet() {
+        // Do not use a HashSet here: distinct keys may be equal.
+        final List<Entry<Object, Object>> entries = new ArrayList<>(size);
+        for (int ctr = 0; ctr < size; ctr++) {
+            int slot = used[ctr];
+            entries.add(new SimpleImmutableEntry<>(keys[slot], values[slot]));
+        }
+
+        return new AbstractSet<Entry<Object, Object>>() {
+            @Override
+            public Iterator<Entry<Object, Object>> iterator() {
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+}
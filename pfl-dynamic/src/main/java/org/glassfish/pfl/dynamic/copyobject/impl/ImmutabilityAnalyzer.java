@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.glassfish.pfl.basic.algorithm.ClassAnalyzer;
+import org.glassfish.pfl.basic.func.UnaryPredicate;
+import org.glassfish.pfl.dynamic.copyobject.spi.Copy;
+import org.glassfish.pfl.dynamic.copyobject.spi.CopyInterceptor;
+import org.glassfish.pfl.dynamic.copyobject.spi.Immutable;
+
+/** Decides whether instances of a class can be shared instead of copied.
+ * A class is inferred to be immutable if:
+ * <ul>
+ * <li>it has at least one instance field, including inherited ones,
+ * <li>all of its instance fields, including inherited ones, are final,
+ * <li>no field is an array, and
+ * <li>the type of every field is primitive, or a final class (such as a
+ * record) that is itself immutable, or an enum, or a class that is
+ * already known to be immutable: one annotated with @Immutable, or
+ * registered with the identity ClassCopier.
+ * </ul>
+ * Note that a non-final field type never qualifies, since a subclass
+ * instance could be mutable.  Fields with @Copy annotations and classes
+ * that implement CopyInterceptor are excluded, as their copies are not
+ * simply equal to the original.  Classes without instance fields, such as
+ * Object itself, are excluded because their instances are typically used
+ * for their identity alone, as locks or sentinels, so a copy must be a
+ * distinct instance.
+ * <p>
+ * Immutability only depends on the classes reachable through field types,
+ * so the analysis is a traversal of that graph, which handles cycles
+ * naturally.  If the class is immutable, so is every class reached, and
+ * all of them are recorded as immutable.  Otherwise, only the class
+ * itself and the class that failed are recorded.
+ */
+final class ImmutabilityAnalyzer {
+    private static final class Verdict {
+        // null until the class has been analyzed.
+        private volatile Boolean immutable;
+    }
+
+    private static final UnaryPredicate<Class<?>> IS_CLASS =
+            new UnaryPredicate<Class<?>>() {
+                @Override
+                public boolean evaluate(Class<?> cls) {
+                    return !cls.isInterface() && (cls != Object.class);
+                }
+            };
+
+    private final ClassValue<Verdict> verdicts = new ClassValue<Verdict>() {
+        @Override
+        protected Verdict computeValue(Class<?> cls) {
+            return new Verdict();
+        }
+    };
+
+    private final PipelineClassCopierFactory ccf;
+
+    ImmutabilityAnalyzer(PipelineClassCopierFactory ccf) {
+        this.ccf = ccf;
+    }
+
+    /** Return true if instances of exactly cls (not its subclasses)
+     * can be shared instead of copied.
+     */
+    boolean isImmutable(Class<?> cls) {
+        Verdict verdict = verdicts.get(cls);
+        Boolean result = verdict.immutable;
+        if (result != null) {
+            return result;
+        }
+
+        if (cls.isArray() || cls.isInterface() || cls.isPrimitive()) {
+            verdict.immutable = Boolean.FALSE;
+            return false;
+        }
+
+        // Only the final classes reached through field types are analyzed
+        // here; cls itself need not be final.
+        Set<Class<?>> visited = new HashSet<>();
+        Deque<Class<?>> work = new ArrayDeque<>();
+        visited.add(cls);
+        work.push(cls);
+        while (!work.isEmpty()) {
+            Class<?> current = work.pop();
+            if (!isLocallyImmutable(current, visited, work)) {
+                verdicts.get(current).immutable = Boolean.FALSE;
+                verdict.immutable = Boolean.FALSE;
+                return false;
+            }
+        }
+
+        for (Class<?> cl : visited) {
+            verdicts.get(cl).immutable = Boolean.TRUE;
+        }
+
+        return true;
+    }
+
+    // Check the fields of cls and its superclasses, and add the field
+    // types that still need to be analyzed to work.
+    private boolean isLocallyImmutable(Class<?> cls, Set<Class<?>> visited,
+                                       Deque<Class<?>> work) {
+        if (CopyInterceptor.class.isAssignableFrom(cls)) {
+            return false;
+        }
+
+        boolean hasFields = false;
+        List<Class<?>> classes =
+                ClassAnalyzer.getClassAnalyzer(cls).findClasses(IS_CLASS);
+        for (Class<?> cl : classes) {
+            for (Field fld : cl.getDeclaredFields()) {
+                int modifiers = fld.getModifiers();
+                if (Modifier.isStatic(modifiers)) {
+                    continue;
+                }
+
+                hasFields = true;
+
+                if (!Modifier.isFinal(modifiers)
+                        || fld.isAnnotationPresent(Copy.class)) {
+                    return false;
+                }
+
+                Class<?> type = fld.getType();
+                if (type.isPrimitive() || isKnownImmutable(type)) {
+                    continue;
+                }
+
+                if (type.isArray() || !Modifier.isFinal(type.getModifiers())) {
+                    return false;
+                }
+
+                Boolean known = verdicts.get(type).immutable;
+                if (known == Boolean.FALSE) {
+                    return false;
+                }
+
+                if ((known == null) && visited.add(type)) {
+                    ClassCopier cached = ccf.lookupInCache(type);
+                    if (cached != null) {
+                        // Some other ClassCopier has been chosen for type.
+                        return false;
+                    }
+
+                    work.push(type);
+                }
+            }
+        }
+
+        // Instances without state are only useful for their identity.
+        return hasFields;
+    }
+
+    private boolean isKnownImmutable(Class<?> type) {
+        if (Enum.class.isAssignableFrom(type)) {
+            return true;
+        }
+
+        if (!Modifier.isFinal(type.getModifiers())) {
+            return false;
+        }
+
+        return type.isAnnotationPresent(Immutable.class)
+                || (ccf.lookupInCache(type)
+                == DefaultClassCopiers.getIdentityClassCopier());
+    }
+}
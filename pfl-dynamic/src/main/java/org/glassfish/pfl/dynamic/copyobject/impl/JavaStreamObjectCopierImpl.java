@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -12,28 +13,161 @@ package org.glassfish.pfl.dynamic.copyobject.impl ;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.InvalidClassException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.glassfish.pfl.dynamic.copyobject.spi.ObjectCopier;
+import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
 
+/** Copies objects by writing them to an ObjectOutputStream and reading
+ * them back.  This is the fallback for classes that cannot be copied
+ * reflectively, so the per-copy setup is kept small:
+ * <ul>
+ * <li>The serialized data goes into a per-thread buffer that is reused
+ * across copies, and is read back directly from that buffer.
+ * <li>Every class descriptor that is written is recorded together with
+ * its Class, and the input side resolves the descriptors from that
+ * record in the same order.  The classes are therefore never looked up
+ * by name, which also means that the copy works for classes that are
+ * not visible from the caller's ClassLoader.
+ * </ul>
+ * Any failure is reported as a ReflectiveCopyException.
+ */
 public class JavaStreamObjectCopierImpl implements ObjectCopier {
+    private static final int INITIAL_BUFFER_SIZE = 10000 ;
+
+    // Buffers that grew larger than this are not kept after a copy.
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20 ;
+
+    // A ByteArrayOutputStream whose contents can be read without
+    // copying them.
+    private static final class CopyBuffer extends ByteArrayOutputStream {
+        private boolean inUse ;
+
+        CopyBuffer() {
+            super( INITIAL_BUFFER_SIZE ) ;
+        }
+
+        InputStream getInputStream() {
+            return new ByteArrayInputStream( buf, 0, count ) ;
+        }
+
+        boolean isOversized() {
+            return buf.length > MAX_RETAINED_BUFFER_SIZE ;
+        }
+    }
+
+    private static final ThreadLocal<CopyBuffer> buffers =
+        new ThreadLocal<CopyBuffer>() {
+            @Override
+            protected CopyBuffer initialValue() {
+                return new CopyBuffer() ;
+            }
+        } ;
+
+    // Records the class of every class descriptor that is written.
+    private static final class CopyOutputStream extends ObjectOutputStream {
+        private final List<Class<?>> classes = new ArrayList<Class<?>>() ;
+
+        CopyOutputStream( OutputStream os ) throws IOException {
+            super( os ) ;
+        }
+
+        @Override
+        protected void annotateClass( Class<?> cl ) {
+            classes.add( cl ) ;
+        }
+
+        @Override
+        protected void annotateProxyClass( Class<?> cl ) {
+            classes.add( cl ) ;
+        }
+    }
+
+    // Resolves the class descriptors from the classes recorded by a
+    // CopyOutputStream.  The descriptors are read in the order in which
+    // they were written.
+    private static final class CopyInputStream extends ObjectInputStream {
+        private final List<Class<?>> classes ;
+        private int next ;
+
+        CopyInputStream( InputStream is, List<Class<?>> classes )
+            throws IOException {
+
+            super( is ) ;
+            this.classes = classes ;
+        }
+
+        private Class<?> nextClass() throws InvalidClassException {
+            if (next == classes.size()) {
+                throw new InvalidClassException(
+                    "More class descriptors read than written" ) ;
+            }
+
+            return classes.get( next++ ) ;
+        }
+
+        @Override
+        protected Class<?> resolveClass( ObjectStreamClass desc )
+            throws InvalidClassException {
+
+            Class<?> result = nextClass() ;
+            if (!result.getName().equals( desc.getName() )) {
+                throw new InvalidClassException( desc.getName(),
+                    "Class descriptor read out of order: expected "
+                        + result.getName() ) ;
+            }
+
+            return result ;
+        }
+
+        @Override
+        protected Class<?> resolveProxyClass( String[] interfaces )
+            throws InvalidClassException {
+
+            return nextClass() ;
+        }
+    }
+
     @Override
-    public Object copy(Object obj) {
-	try {
-	    ByteArrayOutputStream os = new ByteArrayOutputStream( 10000 ) ;
-	    ObjectOutputStream oos = new ObjectOutputStream( os ) ;
-	    oos.writeObject( obj ) ;
-
-	    byte[] arr = os.toByteArray() ;
-	    InputStream is = new ByteArrayInputStream( arr ) ;
-	    ObjectInputStream ois = new ObjectInputStream( is ) ;
-
-	    return ois.readObject();
-	} catch (Exception exc) {
-	    System.out.println( "Failed with exception:" + exc ) ;
-	    return null ;
-	}
+    public Object copy( Object obj ) throws ReflectiveCopyException {
+        if (obj == null) {
+            return null ;
+        }
+
+        CopyBuffer buffer = buffers.get() ;
+        if (buffer.inUse) {
+            // This is a nested copy, made by a writeObject or readObject
+            // method of the object being copied.
+            buffer = new CopyBuffer() ;
+        }
+
+        buffer.inUse = true ;
+        try {
+            CopyOutputStream oos = new CopyOutputStream( buffer ) ;
+            oos.writeObject( obj ) ;
+            oos.flush() ;
+
+            ObjectInputStream ois = new CopyInputStream(
+                buffer.getInputStream(), oos.classes ) ;
+            return ois.readObject() ;
+        } catch (ReflectiveCopyException exc) {
+            throw exc ;
+        } catch (Exception exc) {
+            throw Exceptions.self.streamCopyFailed( obj.getClass(), exc ) ;
+        } finally {
+            buffer.reset() ;
+            buffer.inUse = false ;
+            if (buffer.isOversized() && (buffers.get() == buffer)) {
+                buffers.remove() ;
+            }
+        }
     }
 }
@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -10,7 +11,6 @@
 
 package org.glassfish.pfl.dynamic.copyobject.impl ;
 
-import java.util.IdentityHashMap;
 import java.util.Map;
 
 import org.glassfish.pfl.dynamic.copyobject.spi.Immutable;
@@ -21,7 +21,7 @@ import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
 /** Class used to deep copy arbitrary data.  A single 
  * ObjectCopierImpl
  * instance will preserve all object aliasing across multiple calls
- * to copy.
+ * to copy, unless it was created for a single copy.
  */
 public class ObjectCopierImpl implements ObjectCopier {    
     // It is very important that ccf be static.  This means that
@@ -49,17 +49,56 @@ public class ObjectCopierImpl implements ObjectCopier {
 	) ;
     }
 
+    private final boolean singleCopy ;
+
+    // 0 unless copies are made in parallel: see ParallelCopyMap.
+    private final int parallelThreshold ;
+
+    // Created on the first copy that needs it, and kept for the lifetime
+    // of this copier to preserve aliasing across calls.  Not used if
+    // singleCopy is set.
     private Map<Object,Object> oldToNew ;
 
     public ObjectCopierImpl()
     {
-	if (DefaultClassCopierFactories.USE_FAST_CACHE) {
-            oldToNew =
-                new FastCache<Object,Object>(
-                    new IdentityHashMap<Object,Object>());
-        } else {
-            oldToNew = new IdentityHashMap<Object,Object>();
-        }
+	this( false ) ;
+    }
+
+    /** Create an ObjectCopierImpl.  If singleCopy is true, the caller
+     * promises to use this copier for at most one copy (as DefaultCopier
+     * does).  There is then no aliasing to preserve across calls, so each
+     * copy borrows its oldToNew map from a per-thread pool and gives it
+     * back, cleared, when it returns.
+     */
+    public ObjectCopierImpl( boolean singleCopy )
+    {
+	this( singleCopy, 0 ) ;
+    }
+
+    /** Create an ObjectCopierImpl that copies arrays and common
+     * collections with at least parallelThreshold elements in parallel,
+     * using the common ForkJoinPool.  Parallel copies are not worth
+     * their overhead for small arguments, so the threshold should be in
+     * the thousands.  A parallelThreshold of 0 disables parallel copies.
+     */
+    public ObjectCopierImpl( boolean singleCopy, int parallelThreshold )
+    {
+	if (parallelThreshold < 0) {
+	    throw new IllegalArgumentException(
+		"parallelThreshold must not be negative: " + parallelThreshold ) ;
+	}
+
+	this.singleCopy = singleCopy ;
+	this.parallelThreshold = parallelThreshold ;
+    }
+
+    private Map<Object,Object> makeMap()
+    {
+	if (parallelThreshold > 0) {
+	    return new ParallelCopyMap( parallelThreshold ) ;
+	}
+
+	return new IdentityCopyMap() ;
     }
 
     /** Return a deep copy of obj.  Aliasing is preserved within
@@ -76,6 +115,30 @@ public class ObjectCopierImpl implements ObjectCopier {
 	Class<?> cls = obj.getClass() ;
 	ClassCopier copier = ccf.getClassCopier( cls ) ;
 
+        // Immutable objects need no oldToNew entry, and are very common
+        // as arguments.
+        if (copier == DefaultClassCopiers.getIdentityClassCopier()) {
+            return obj ;
+        }
+
+        if (singleCopy && (parallelThreshold > 0)) {
+            // A ParallelCopyMap is not worth pooling.
+            return copier.copy( makeMap(), obj ) ;
+        }
+
+        if (singleCopy) {
+            IdentityCopyMap map = IdentityCopyMap.acquire() ;
+            try {
+                return copier.copy( map, obj ) ;
+            } finally {
+                map.release() ;
+            }
+        }
+
+        if (oldToNew == null) {
+            oldToNew = makeMap() ;
+        }
+
 	return copier.copy( oldToNew, obj ) ;
     }
 }
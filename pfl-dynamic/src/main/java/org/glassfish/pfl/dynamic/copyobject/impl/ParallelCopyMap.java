@@ -0,0 +1,343 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
+
+/** The oldToNew map for a parallel copy.
+ * Passing an instance of this map to ClassCopier.copy enables the parallel
+ * copy mode: arrays, ArrayLists, ArrayDeques, HashMaps and
+ * ConcurrentHashMaps with at least threshold elements have their elements
+ * copied by ForkJoinPool tasks.  All of the tasks share this map, which is
+ * a thread-safe identity map, so aliasing and cycles are preserved across
+ * tasks.
+ * <p>
+ * A copy is registered by register while it is still being filled in, and
+ * stays pending until complete is called for its source.  Only the first
+ * copy registered for a source is used.  A task that finds a pending copy
+ * waits for it to complete, so that it never passes a half-built object
+ * to, for example, the hashCode or compareTo of the collection it is
+ * filling in, unless the pending copy was registered on the path of that
+ * task, which only happens in a cyclic graph, just as in a sequential
+ * copy.  The same holds if waiting would deadlock, which again needs a
+ * cycle, whose parts are being copied by different tasks.
+ * <p>
+ * Each task runs in a Context, which links to the Context of the task that
+ * forked it: see enter and exit.
+ */
+public final class ParallelCopyMap extends AbstractMap<Object, Object> {
+    // Wraps a key so that the ConcurrentHashMap compares keys by identity.
+    private static final class IdentityKey {
+        private final Object key;
+
+        IdentityKey(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof IdentityKey)
+                    && (((IdentityKey) obj).key == key);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(key);
+        }
+    }
+
+    /** The part of a parallel copy that is done by one task.  The Context
+     * of a task is on the path of the tasks it forks.
+     */
+    static final class Context {
+        private final Context parent;
+
+        // The copy this Context waits for, if any.  Guarded by the
+        // ParallelCopyMap's waiters.
+        private Pending waitingFor;
+
+        private Context(Context parent) {
+            this.parent = parent;
+        }
+
+        // Return true if this is context or one of its ancestors.
+        private boolean isOnPathOf(Context context) {
+            for (Context current = context; current != null;
+                 current = current.parent) {
+                if (current == this) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+    }
+
+    // A copy that is still being filled in by the task of owner.
+    private static final class Pending implements ForkJoinPool.ManagedBlocker {
+        private final Object copy;
+        private final Context owner;
+        private volatile boolean done;
+        private volatile boolean hasWaiters;
+
+        Pending(Object copy, Context owner) {
+            this.copy = copy;
+            this.owner = owner;
+        }
+
+        void complete() {
+            done = true;
+            if (hasWaiters) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            hasWaiters = true;
+            synchronized (this) {
+                while (!done) {
+                    wait();
+                }
+            }
+
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+
+    // The Context of the task running on each thread.
+    private static final ThreadLocal<Context> currentContext =
+            new ThreadLocal<Context>() {
+                @Override
+                protected Context initialValue() {
+                    return new Context(null);
+                }
+            };
+
+    /** Return the Context of the current task.  A thread that is not
+     * running a task has its own root Context.
+     */
+    static Context currentContext() {
+        return currentContext.get();
+    }
+
+    /** Start a task that was forked by the task of parent, and return the
+     * Context to pass to exit when the task ends.
+     */
+    static Context enter(Context parent) {
+        Context previous = currentContext.get();
+        currentContext.set(new Context(parent));
+        return previous;
+    }
+
+    /** End the task started by the enter that returned previous.
+     */
+    static void exit(Context previous) {
+        currentContext.set(previous);
+    }
+
+    // Maps each source to its copy, or to a Pending copy.
+    private final ConcurrentHashMap<IdentityKey, Object> map =
+            new ConcurrentHashMap<>();
+    private final int threshold;
+
+    // The Contexts that are waiting for a Pending copy.  Also the lock for
+    // Context.waitingFor.
+    private final List<Context> waiters = new ArrayList<>();
+
+    /** Create a map for a parallel copy.  Arrays and collections with at
+     * least threshold elements are copied in parallel.
+     */
+    public ParallelCopyMap(int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException(
+                    "threshold must be positive: " + threshold);
+        }
+
+        this.threshold = threshold;
+    }
+
+    /** The smallest number of elements that is copied in parallel.
+     */
+    public int threshold() {
+        return threshold;
+    }
+
+    /** Return the copy of key, waiting for it to complete if it is
+     * pending in another task.
+     */
+    @Override
+    public Object get(Object key) {
+        Object value = map.get(new IdentityKey(key));
+        if (value instanceof Pending) {
+            return await((Pending) value);
+        }
+
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(new IdentityKey(key));
+    }
+
+    @Override
+    public Object put(Object key, Object value) {
+        return map.put(new IdentityKey(key), value);
+    }
+
+    /** Register copy as the pending copy of source in the current task,
+     * unless source already has a copy.  Returns copy if it was
+     * registered, in which case complete must be called for source once
+     * copy is filled in.  Otherwise returns the copy registered first,
+     * as get does.
+     */
+    Object register(Object source, Object copy) {
+        IdentityKey key = new IdentityKey(source);
+        Pending pending = new Pending(copy, currentContext());
+        Object previous = map.putIfAbsent(key, pending);
+        if (previous == null) {
+            return copy;
+        }
+
+        if (previous instanceof Pending) {
+            return await((Pending) previous);
+        }
+
+        return previous;
+    }
+
+    /** Mark the copy of source registered by register as complete, and
+     * wake up the tasks that wait for it.
+     */
+    void complete(Object source) {
+        IdentityKey key = new IdentityKey(source);
+        Object value = map.get(key);
+        if (value instanceof Pending) {
+            Pending pending = (Pending) value;
+            map.replace(key, pending, pending.copy);
+            pending.complete();
+        }
+    }
+
+    private Object await(Pending pending) {
+        Context self = currentContext();
+        if (pending.owner.isOnPathOf(self)) {
+            // A cycle: the copy is being filled in by this task or one that
+            // waits for it.
+            return pending.copy;
+        }
+
+        synchronized (waiters) {
+            if (pending.done || wouldDeadlock(self, pending.owner)) {
+                return pending.copy;
+            }
+
+            self.waitingFor = pending;
+            waiters.add(self);
+        }
+
+        try {
+            ForkJoinPool.managedBlock(pending);
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new ReflectiveCopyException(
+                    "Interrupted while waiting for a copy", exc);
+        } finally {
+            synchronized (waiters) {
+                self.waitingFor = null;
+                waiters.remove(self);
+            }
+        }
+
+        return pending.copy;
+    }
+
+    // Return true if the task of owner waits, directly or through other
+    // tasks, for the task of self or a task on its path.  The task of a
+    // Context waits for the copies its own Context and the Contexts of
+    // the tasks it forked wait for.  Must hold the lock on waiters.
+    private boolean wouldDeadlock(Context self, Context owner) {
+        List<Context> blocked = new ArrayList<>();
+        blocked.add(owner);
+        for (int ctr = 0; ctr < blocked.size(); ctr++) {
+            Context context = blocked.get(ctr);
+            if (context.isOnPathOf(self)) {
+                return true;
+            }
+
+            for (Context waiter : waiters) {
+                Context next = waiter.waitingFor.owner;
+                if (context.isOnPathOf(waiter) && !blocked.contains(next)) {
+                    blocked.add(next);
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    /** Returns a snapshot of the entries, including pending copies.  This
+     * is only intended for debugging: the copier itself only uses get,
+     * register and complete.
+     */
+    @Override
+    public Set<Entry<Object, Object>> entrySet() {
+        final List<Entry<Object, Object>> entries = new ArrayList<>(map.size());
+        for (Entry<IdentityKey, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Pending) {
+                value = ((Pending) value).copy;
+            }
+
+            entries.add(new SimpleImmutableEntry<>(entry.getKey().key,
+                    value));
+        }
+
+        return new AbstractSet<Entry<Object, Object>>() {
+            @Override
+            public Iterator<Entry<Object, Object>> iterator() {
+                return entries.iterator();
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+        };
+    }
+}
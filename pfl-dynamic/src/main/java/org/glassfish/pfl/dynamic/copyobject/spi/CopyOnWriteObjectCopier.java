@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.spi ;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/** An ObjectCopier that defers the copy of an interface-typed argument
+ * until it is first modified.
+ * <p>
+ * copy returns a dynamic proxy that implements the given interfaces.
+ * Calls to methods that only read the object go directly to the source
+ * object.  The first call to any other method makes a deep copy of the
+ * source with an ObjectCopier from the factory, and from then on all calls
+ * go to that copy.  A callee that only reads a large argument therefore
+ * never pays for copying it.
+ * <p>
+ * A method only reads the object if it is annotated with @Mutator(false),
+ * or, if it has no @Mutator annotation, if its name starts with a word such
+ * as get, is, has, contains or size (see READER_PREFIXES).  Every other
+ * method is taken to be mutating, so that a method that is not recognized,
+ * such as Map.computeIfAbsent or BlockingQueue.drainTo, costs a copy rather
+ * than a change to the caller's object.  @Mutator marks a method that
+ * looks like a reader, but is not one.
+ * <p>
+ * This is only equivalent to an immediate copy if the caller does not
+ * modify the argument while the callee holds on to it, and if the reading
+ * methods do not return mutable parts of the object (an Iterator with
+ * remove, for example).  Objects that do not implement all of the
+ * interfaces are copied immediately.
+ */
+public class CopyOnWriteObjectCopier implements ObjectCopier {
+    // A method without @Mutator only reads the object if its name is one
+    // of these, or starts with one of these followed by an upper case
+    // letter.  Methods that return views backed by the object, such as
+    // iterator, subList or keySet, are not included, since the view may
+    // be used to modify it.
+    private static final String[] READER_PREFIXES = {
+        "get", "is", "has", "contains", "size", "length", "equals",
+        "hashCode", "to", "compare", "indexOf", "lastIndexOf", "peek",
+        "element", "first", "last", "stream", "parallelStream", "forEach"
+    } ;
+
+    private final ObjectCopierFactory factory ;
+    private final Class<?>[] interfaces ;
+    private final ConcurrentMap<Method,Boolean> mutators =
+        new ConcurrentHashMap<Method,Boolean>() ;
+
+    /** Create a copier that returns proxies implementing interfaces,
+     * and makes the deep copy with an ObjectCopier obtained from factory.
+     */
+    public CopyOnWriteObjectCopier( ObjectCopierFactory factory,
+        Class<?>... interfaces ) {
+
+        if (interfaces.length == 0) {
+            throw new IllegalArgumentException(
+                "At least one interface is required" ) ;
+        }
+
+        for (Class<?> cls : interfaces) {
+            if (!cls.isInterface()) {
+                throw new IllegalArgumentException( cls + " is not an interface" ) ;
+            }
+        }
+
+        this.factory = factory ;
+        this.interfaces = interfaces.clone() ;
+    }
+
+    @Override
+    public Object copy( Object obj ) throws ReflectiveCopyException {
+        if (obj == null) {
+            return null ;
+        }
+
+        for (Class<?> cls : interfaces) {
+            if (!cls.isInstance( obj )) {
+                return factory.make().copy( obj ) ;
+            }
+        }
+
+        ClassLoader loader = obj.getClass().getClassLoader() ;
+        if (loader == null) {
+            loader = interfaces[0].getClassLoader() ;
+        }
+
+        return Proxy.newProxyInstance( loader, interfaces, new Handler( obj ) ) ;
+    }
+
+    private boolean isMutator( Method method ) {
+        Boolean result = mutators.get( method ) ;
+        if (result == null) {
+            result = analyze( method ) ;
+            mutators.put( method, result ) ;
+        }
+
+        return result ;
+    }
+
+    private static boolean analyze( Method method ) {
+        Mutator mutator = method.getAnnotation( Mutator.class ) ;
+        if (mutator != null) {
+            return mutator.value() ;
+        }
+
+        String name = method.getName() ;
+        for (String prefix : READER_PREFIXES) {
+            if (name.startsWith( prefix ) && ((name.length() == prefix.length())
+                || Character.isUpperCase( name.charAt( prefix.length() ) ))) {
+                return false ;
+            }
+        }
+
+        return true ;
+    }
+
+    private final class Handler implements InvocationHandler {
+        // The object that calls are forwarded to: the source until
+        // the first mutating call, then the copy.
+        private volatile Object target ;
+        private volatile boolean copied ;
+
+        Handler( Object source ) {
+            target = source ;
+        }
+
+        private synchronized Object materialize() throws ReflectiveCopyException {
+            if (!copied) {
+                target = factory.make().copy( target ) ;
+                copied = true ;
+            }
+
+            return target ;
+        }
+
+        @Override
+        public Object invoke( Object proxy, Method method, Object[] args )
+            throws Throwable {
+
+            Object current = target ;
+            if (!copied && isMutator( method )) {
+                current = materialize() ;
+            }
+
+            try {
+                return method.invoke( current, args ) ;
+            } catch (InvocationTargetException exc) {
+                throw exc.getCause() ;
+            }
+        }
+    }
+}
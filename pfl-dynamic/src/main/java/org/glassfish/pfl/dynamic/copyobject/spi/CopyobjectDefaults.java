@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -89,4 +90,39 @@ public abstract class CopyobjectDefaults
 	    }
 	} ;
     }
+
+    /** Obtain a reflective copier factory whose copiers copy arrays and
+     * common collections with at least threshold elements in parallel.
+     * This is only useful for arguments with very large arrays or
+     * collections (10000 elements or more), and the same restrictions as
+     * for the reflective copier apply.
+     */
+    public static ObjectCopierFactory makeParallelReflectObjectCopierFactory(
+	final int threshold )
+    {
+	return new ObjectCopierFactory() {
+            @Override
+	    public ObjectCopier make( )
+	    {
+		return new ObjectCopierImpl( false, threshold ) ;
+	    }
+	} ;
+    }
+
+    /** Create a factory for copiers that copy arguments implementing all of
+     * interfaces lazily, on the first mutating call: see
+     * CopyOnWriteObjectCopier.  The copies are made by copiers from f.
+     */
+    public static ObjectCopierFactory makeCopyOnWriteObjectCopierFactory(
+	ObjectCopierFactory f, Class<?>... interfaces )
+    {
+	final ObjectCopier copier = new CopyOnWriteObjectCopier( f, interfaces ) ;
+	return new ObjectCopierFactory() {
+            @Override
+	    public ObjectCopier make( )
+	    {
+		return copier ;
+	    }
+	} ;
+    }
 }
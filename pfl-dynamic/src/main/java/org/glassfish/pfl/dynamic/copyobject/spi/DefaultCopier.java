@@ -1,4 +1,5 @@
 /*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  *
  * This program and the accompanying materials are made available under the
@@ -20,7 +21,7 @@ public class DefaultCopier {
     private DefaultCopier() {}
 
     public static Object copy( Object obj ) {
-	ObjectCopier c1 = new ObjectCopierImpl() ;
+	ObjectCopier c1 = new ObjectCopierImpl( true ) ;
 	ObjectCopier c2 = new JavaStreamObjectCopierImpl() ;
 	ObjectCopier copier = new FallbackObjectCopierImpl( c1, c2 ) ;
 
@@ -10,11 +10,24 @@
 
 package org.glassfish.pfl.dynamic.copyobject.impl;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 public class ClassCopierTest {
 
@@ -47,4 +60,440 @@ public class ClassCopierTest {
         assertEquals(copy, map.get(original));
     }
 
+    @Test
+    public void classCopierCache_buildsCopierOnlyOnceUnderContention() throws Exception {
+        final ClassCopierFactoryCachingImpl cache = new ClassCopierFactoryCachingImpl();
+        final AtomicInteger builds = new AtomicInteger();
+        final ClassCopierFactory builder = new ClassCopierFactory() {
+            @Override
+            public ClassCopier getClassCopier(Class<?> cls) {
+                builds.incrementAndGet();
+                return DefaultClassCopiers.getIdentityClassCopier();
+            }
+        };
+
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        cache.getClassCopier(StringBuilder.class, builder);
+                    } catch (Exception exc) {
+                        throw new RuntimeException(exc);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(1, builds.get());
+        assertSame(DefaultClassCopiers.getIdentityClassCopier(), cache.getClassCopier(StringBuilder.class));
+        assertNull(cache.getClassCopier(StringBuffer.class));
+    }
+
+    @Test
+    public void registerImmutable_replacesCachedCopier() throws Exception {
+        PipelineClassCopierFactory pipeline = new ClassCopierFactoryPipelineImpl();
+        pipeline.getClassCopier(StringBuilder.class);
+        pipeline.registerImmutable(StringBuilder.class);
+
+        assertSame(DefaultClassCopiers.getIdentityClassCopier(), pipeline.getClassCopier(StringBuilder.class));
+    }
+
+    private static class Node {
+        int value;
+        Node next;
+        Node first;
+    }
+
+    @Test
+    public void copyOfLongLinkedList_doesNotUseStack() throws Exception {
+        final int length = 500000;
+        Node head = new Node();
+        Node current = head;
+        for (int i = 1; i < length; i++) {
+            current.next = new Node();
+            current.next.value = i;
+            current.next.first = head;
+            current = current.next;
+        }
+
+        Node copy = (Node) new ObjectCopierImpl().copy(head);
+
+        int count = 0;
+        for (Node node = copy; node != null; node = node.next) {
+            assertNotSame(head, node);
+            assertEquals(count, node.value);
+            if (count > 0) {
+                assertSame(copy, node.first);
+            }
+            count++;
+        }
+        assertEquals(length, count);
+    }
+
+    @Test
+    public void collectionCopies_areEqualAndPreserveAliasing() throws Exception {
+        Node shared = new Node();
+        shared.value = 42;
+
+        HashMap<Object, Object> hashMap = new HashMap<Object, Object>();
+        ConcurrentHashMap<Object, Object> concurrentMap = new ConcurrentHashMap<Object, Object>();
+        TreeMap<String, Object> treeMap = new TreeMap<String, Object>(Collections.reverseOrder());
+        ArrayList<Object> list = new ArrayList<Object>();
+        ArrayDeque<Object> deque = new ArrayDeque<Object>();
+        for (int i = 0; i < 100; i++) {
+            hashMap.put(shared, "value");
+            hashMap.put("key" + i, i);
+            concurrentMap.put("key" + i, shared);
+            treeMap.put("key" + i, shared);
+            list.add(i % 2 == 0 ? shared : null);
+            deque.add(shared);
+        }
+        Object[] graph = {hashMap, concurrentMap, treeMap, list, deque, shared};
+
+        Object[] copy = (Object[]) new ObjectCopierImpl().copy(graph);
+
+        Node sharedCopy = (Node) copy[5];
+        assertNotSame(shared, sharedCopy);
+        assertEquals(42, sharedCopy.value);
+
+        HashMap<?, ?> hashMapCopy = (HashMap<?, ?>) copy[0];
+        assertEquals(101, hashMapCopy.size());
+        assertEquals("value", hashMapCopy.get(sharedCopy));
+        assertEquals(7, hashMapCopy.get("key7"));
+
+        ConcurrentHashMap<?, ?> concurrentMapCopy = (ConcurrentHashMap<?, ?>) copy[1];
+        assertEquals(100, concurrentMapCopy.size());
+        assertSame(sharedCopy, concurrentMapCopy.get("key3"));
+
+        TreeMap<?, ?> treeMapCopy = (TreeMap<?, ?>) copy[2];
+        assertEquals(treeMap.keySet().toString(), treeMapCopy.keySet().toString());
+        assertSame(treeMap.comparator(), treeMapCopy.comparator());
+        assertSame(sharedCopy, treeMapCopy.get("key99"));
+
+        ArrayList<?> listCopy = (ArrayList<?>) copy[3];
+        assertEquals(100, listCopy.size());
+        assertSame(sharedCopy, listCopy.get(0));
+        assertNull(listCopy.get(1));
+
+        ArrayDeque<?> dequeCopy = (ArrayDeque<?>) copy[4];
+        assertEquals(100, dequeCopy.size());
+        assertSame(sharedCopy, dequeCopy.peekLast());
+    }
+
+    private static class Primitives {
+        byte byteField = 1;
+        char charField = 'c';
+        short shortField = 3;
+        boolean booleanField = true;
+        Object parentRef;
+    }
+
+    private static class MorePrimitives extends Primitives {
+        int intField = 4;
+        long longField = 5L;
+        float floatField = 6.5f;
+        double doubleField = 7.5;
+        Object childRef = "initial";
+    }
+
+    private static class CopiedWhileCodegenForbidden {
+        int value;
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    public void setCodegenCopierAllowed_forbidsGeneratedCopiers() throws Exception {
+        ClassCopierOrdinaryImpl.setCodegenCopierAllowed(false);
+        try {
+            ClassCopierOrdinaryImpl.ClassFieldCopier fieldCopier =
+                ClassCopierOrdinaryImpl.getClassFieldCopier(
+                    CopiedWhileCodegenForbidden.class, factory);
+            assertFalse(fieldCopier instanceof GeneratedClassFieldCopier);
+        } finally {
+            ClassCopierOrdinaryImpl.setCodegenCopierAllowed(true);
+        }
+    }
+
+    @Test
+    public void generatedCopier_copiesWholeHierarchy() throws Exception {
+        assumeTrue(HiddenClassCopierGenerator.isAvailable());
+
+        ClassCopierOrdinaryImpl.ClassFieldCopier fieldCopier =
+            HiddenClassCopierGenerator.makeClassFieldCopier(MorePrimitives.class, factory);
+        assertTrue(fieldCopier instanceof GeneratedClassFieldCopier);
+
+        MorePrimitives source = new MorePrimitives();
+        source.byteField = -1;
+        source.charField = 'x';
+        source.shortField = -3;
+        source.booleanField = false;
+        source.intField = -4;
+        source.longField = Long.MAX_VALUE;
+        source.floatField = -6.5f;
+        source.doubleField = -7.5;
+        source.parentRef = new Node();
+        source.childRef = null;
+
+        MorePrimitives result = new MorePrimitives();
+        fieldCopier.copy(map, source, result);
+
+        assertEquals(-1, result.byteField);
+        assertEquals('x', result.charField);
+        assertEquals(-3, result.shortField);
+        assertEquals(false, result.booleanField);
+        assertEquals(-4, result.intField);
+        assertEquals(Long.MAX_VALUE, result.longField);
+        assertEquals(-6.5f, result.floatField, 0);
+        assertEquals(-7.5, result.doubleField, 0);
+        assertNull(result.childRef);
+        assertNotSame(source.parentRef, result.parentRef);
+        assertSame(map.get(source.parentRef), result.parentRef);
+    }
+
+    @Test
+    public void parallelCopy_preservesAliasingAcrossTasks() throws Exception {
+        final int length = 20000;
+        Node shared = new Node();
+        shared.value = -1;
+        shared.first = shared;
+
+        Object[] array = new Object[length];
+        ArrayList<Object> list = new ArrayList<Object>();
+        HashMap<Object, Object> hashMap = new HashMap<Object, Object>();
+        for (int i = 0; i < length; i++) {
+            Node node = new Node();
+            node.value = i;
+            node.next = shared;
+            node.first = node;
+            array[i] = i % 3 == 0 ? "string" + i : node;
+            list.add(i % 2 == 0 ? null : node);
+            hashMap.put("key" + i, node);
+        }
+        Object[] graph = {array, list, hashMap, shared};
+
+        Object[] copy = (Object[]) new ObjectCopierImpl(true, 1000).copy(graph);
+
+        Node sharedCopy = (Node) copy[3];
+        assertNotSame(shared, sharedCopy);
+        assertSame(sharedCopy, sharedCopy.first);
+
+        Object[] arrayCopy = (Object[]) copy[0];
+        ArrayList<?> listCopy = (ArrayList<?>) copy[1];
+        HashMap<?, ?> hashMapCopy = (HashMap<?, ?>) copy[2];
+        assertEquals(length, arrayCopy.length);
+        assertEquals(length, listCopy.size());
+        assertEquals(length, hashMapCopy.size());
+        for (int i = 0; i < length; i++) {
+            Node node = (Node) hashMapCopy.get("key" + i);
+            assertEquals(i, node.value);
+            assertSame(node, node.first);
+            assertSame(sharedCopy, node.next);
+            if (i % 3 == 0) {
+                assertSame(array[i], arrayCopy[i]);
+            } else {
+                assertSame(node, arrayCopy[i]);
+            }
+            if (i % 2 == 0) {
+                assertNull(listCopy.get(i));
+            } else {
+                assertSame(node, listCopy.get(i));
+            }
+        }
+    }
+
+    // A key whose hashCode and compareTo depend on a field that is only
+    // filled in after the slow copy of payload.
+    private static final class Key implements Comparable<Key> {
+        String name;
+        Object[] payload;
+
+        @Override
+        public int hashCode() {
+            return name.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return (obj instanceof Key) && name.equals(((Key) obj).name);
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            return name.compareTo(other.name);
+        }
+    }
+
+    private static final class Holder {
+        HashMap<Key, Integer> hashMap;
+        TreeMap<Key, Integer> treeMap;
+        Key key;
+        int index;
+    }
+
+    @Test
+    public void parallelCopy_waitsForSharedKeys() throws Exception {
+        final int length = 4000;
+        for (int run = 0; run < 10; run++) {
+            Key[] keys = new Key[4];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = new Key();
+                keys[i].name = "key" + i;
+                keys[i].payload = new Object[2000];
+                for (int j = 0; j < keys[i].payload.length; j++) {
+                    keys[i].payload[j] = new int[] {j};
+                }
+            }
+
+            Object[] holders = new Object[length];
+            for (int i = 0; i < length; i++) {
+                Holder holder = new Holder();
+                holder.key = keys[i % keys.length];
+                holder.index = i;
+                holder.hashMap = new HashMap<Key, Integer>();
+                holder.treeMap = new TreeMap<Key, Integer>();
+                for (Key key : keys) {
+                    holder.hashMap.put(key, i);
+                    holder.treeMap.put(key, i);
+                }
+                holders[i] = holder;
+            }
+
+            Object[] copy = (Object[]) new ObjectCopierImpl(true, 64).copy(holders);
+
+            for (int i = 0; i < length; i++) {
+                Holder holder = (Holder) copy[i];
+                assertEquals("key" + (i % keys.length), holder.key.name);
+                assertEquals(2000, holder.key.payload.length);
+                assertEquals(Integer.valueOf(i), holder.hashMap.get(holder.key));
+                assertEquals(Integer.valueOf(i), holder.treeMap.get(holder.key));
+                assertSame(holder.key, ((Holder) copy[i % keys.length]).key);
+            }
+        }
+    }
+
+    @Test(timeout = 60000)
+    public void parallelCopy_cyclesAcrossTasksDoNotDeadlock() throws Exception {
+        final int length = 4000;
+        for (int run = 0; run < 10; run++) {
+            // Node i and node length-1-i refer to each other through long
+            // chains, so they are copied by different tasks that each
+            // reach the other's node.
+            Object[] array = new Object[length];
+            for (int i = 0; i < length / 2; i++) {
+                Node a = new Node();
+                Node b = new Node();
+                a.value = i;
+                b.value = length - 1 - i;
+                a.next = chain(b, 20);
+                b.next = chain(a, 20);
+                array[i] = a;
+                array[length - 1 - i] = b;
+            }
+
+            Object[] copy = (Object[]) new ObjectCopierImpl(true, 64).copy(array);
+
+            for (int i = 0; i < length; i++) {
+                Node node = (Node) copy[i];
+                assertEquals(i, node.value);
+                Node other = node.next;
+                while (other.first == null) {
+                    other = other.next;
+                }
+                assertSame(copy[length - 1 - i], other.first);
+            }
+        }
+    }
+
+    // Return the head of a chain of length nodes that ends with a node
+    // whose first is target.
+    private static Node chain(Node target, int length) {
+        Node head = new Node();
+        head.first = target;
+        for (int i = 1; i < length; i++) {
+            Node node = new Node();
+            node.next = head;
+            head = node;
+        }
+        return head;
+    }
+
+    private static final class Point {
+        private final int x;
+        private final int y;
+        private final String label;
+
+        Point(int x, int y, String label) {
+            this.x = x;
+            this.y = y;
+            this.label = label;
+        }
+    }
+
+    private static final class Segment {
+        private final Point start;
+        private final Point end;
+        private final Thread.State state;
+
+        Segment(Point start, Point end) {
+            this.start = start;
+            this.end = end;
+            this.state = Thread.State.NEW;
+        }
+    }
+
+    private static final class WithArray {
+        private final int[] values = new int[1];
+    }
+
+    private static final class WithMutableField {
+        private final Point point = new Point(1, 2, "p");
+        private int count;
+    }
+
+    private static final class WithOpenType {
+        private final Object value = "value";
+    }
+
+    private static final class Token {
+    }
+
+    private static final class WithToken {
+        private final Token token = new Token();
+    }
+
+    @Test
+    public void classesWithoutFields_areCopied() throws Exception {
+        Token token = new Token();
+        assertNotSame(token, new ObjectCopierImpl().copy(token));
+
+        WithToken holder = new WithToken();
+        WithToken holderCopy = (WithToken) new ObjectCopierImpl().copy(holder);
+        assertNotSame(holder, holderCopy);
+        assertNotSame(holder.token, holderCopy.token);
+    }
+
+    @Test
+    public void inferredImmutableClasses_areShared() throws Exception {
+        Segment segment = new Segment(new Point(1, 2, "a"), new Point(3, 4, "b"));
+        assertSame(segment, new ObjectCopierImpl().copy(segment));
+        assertSame(DefaultClassCopiers.getIdentityClassCopier(), factory.getClassCopier(Point.class));
+
+        WithMutableField mutable = new WithMutableField();
+        WithMutableField mutableCopy = (WithMutableField) new ObjectCopierImpl().copy(mutable);
+        assertNotSame(mutable, mutableCopy);
+        assertSame(mutable.point, mutableCopy.point);
+
+        assertNotSame(DefaultClassCopiers.getIdentityClassCopier(), factory.getClassCopier(WithArray.class));
+        assertNotSame(DefaultClassCopiers.getIdentityClassCopier(), factory.getClassCopier(WithOpenType.class));
+    }
 }
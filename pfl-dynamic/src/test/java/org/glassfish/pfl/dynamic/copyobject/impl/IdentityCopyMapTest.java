@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class IdentityCopyMapTest {
+
+    @Test
+    public void equalKeys_areDistinctEntries() {
+        IdentityCopyMap map = new IdentityCopyMap();
+        String key1 = new String("key");
+        String key2 = new String("key");
+        map.put(key1, "value1");
+        map.put(key2, "value2");
+
+        assertEquals(2, map.size());
+        assertEquals("value1", map.get(key1));
+        assertEquals("value2", map.get(key2));
+        assertNull(map.get("key"));
+        assertEquals(2, map.entrySet().size());
+    }
+
+    @Test
+    public void afterGrowing_allEntriesAreFound() {
+        IdentityCopyMap map = new IdentityCopyMap();
+        Object[] keys = new Object[10000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new Object();
+            map.put(keys[i], i);
+        }
+
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i, map.get(keys[i]));
+        }
+    }
+
+    @Test
+    public void afterClear_mapIsEmptyAndReusable() {
+        IdentityCopyMap map = new IdentityCopyMap();
+        Object key = new Object();
+        map.put(key, "old");
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertNull(map.get(key));
+
+        map.put(key, "new");
+        assertEquals("new", map.get(key));
+    }
+
+    @Test
+    public void releasedMap_isReturnedEmptyByAcquire() {
+        IdentityCopyMap map = IdentityCopyMap.acquire();
+        Object key = new Object();
+        map.put(key, key);
+        map.release();
+
+        IdentityCopyMap next = IdentityCopyMap.acquire();
+        assertSame(map, next);
+        assertEquals(0, next.size());
+        assertNull(next.get(key));
+        next.release();
+    }
+}
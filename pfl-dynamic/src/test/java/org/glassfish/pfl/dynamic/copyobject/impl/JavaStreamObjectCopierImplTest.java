@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.impl;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.glassfish.pfl.dynamic.copyobject.spi.ReflectiveCopyException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class JavaStreamObjectCopierImplTest {
+
+    private final JavaStreamObjectCopierImpl copier = new JavaStreamObjectCopierImpl();
+
+    private static class Item implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String name;
+        Item self;
+        int[] values;
+        Thread.State state;
+    }
+
+    private static class Nested implements Serializable {
+        private static final long serialVersionUID = 1L;
+        Item item;
+        transient Item nestedCopy;
+
+        private void writeObject(ObjectOutputStream out) throws IOException {
+            out.defaultWriteObject();
+            // Copy again while the outer copy is still using its buffer.
+            nestedCopy = (Item) new JavaStreamObjectCopierImpl().copy(item);
+        }
+    }
+
+    private static class NotSerializable {
+    }
+
+    private static class Holder implements Serializable {
+        private static final long serialVersionUID = 1L;
+        Object value = new NotSerializable();
+    }
+
+    @Test
+    public void copy_preservesGraphAcrossRepeatedCalls() {
+        for (int i = 0; i < 3; i++) {
+            Item item = new Item();
+            item.name = "item" + i;
+            item.self = item;
+            item.values = new int[] {i, i + 1};
+            item.state = Thread.State.RUNNABLE;
+            List<Item> list = new ArrayList<Item>();
+            list.add(item);
+            list.add(item);
+
+            @SuppressWarnings("unchecked")
+            List<Item> copy = (List<Item>) copier.copy(list);
+
+            Item itemCopy = copy.get(0);
+            assertNotSame(item, itemCopy);
+            assertSame(itemCopy, copy.get(1));
+            assertSame(itemCopy, itemCopy.self);
+            assertEquals("item" + i, itemCopy.name);
+            assertEquals(i + 1, itemCopy.values[1]);
+            assertSame(Thread.State.RUNNABLE, itemCopy.state);
+        }
+    }
+
+    @Test
+    public void copy_ofNull_isNull() {
+        assertNull(copier.copy(null));
+    }
+
+    @Test
+    public void nestedCopy_usesItsOwnBuffer() {
+        Nested nested = new Nested();
+        nested.item = new Item();
+        nested.item.name = "inner";
+
+        Nested copy = (Nested) copier.copy(nested);
+
+        assertEquals("inner", copy.item.name);
+        assertEquals("inner", nested.nestedCopy.name);
+    }
+
+    @Test
+    public void failure_throwsReflectiveCopyException() {
+        try {
+            copier.copy(new Holder());
+            fail("Expected ReflectiveCopyException");
+        } catch (ReflectiveCopyException exc) {
+            // expected
+        }
+
+        // The buffer must still be usable after a failure.
+        Item item = new Item();
+        item.name = "after";
+        assertEquals("after", ((Item) copier.copy(item)).name);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.dynamic.copyobject.spi;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class CopyOnWriteObjectCopierTest {
+
+    public interface Account {
+        String getOwner();
+
+        @Mutator
+        void deposit(int amount);
+
+        @Mutator(false)
+        int settings();
+
+        int getBalance();
+    }
+
+    public static class AccountImpl implements Account {
+        String owner = "owner";
+        int balance;
+
+        @Override
+        public String getOwner() {
+            return owner;
+        }
+
+        @Override
+        public void deposit(int amount) {
+            balance += amount;
+        }
+
+        @Override
+        public int settings() {
+            return 0;
+        }
+
+        @Override
+        public int getBalance() {
+            return balance;
+        }
+    }
+
+    private final AtomicInteger copies = new AtomicInteger();
+
+    private final ObjectCopierFactory countingFactory = new ObjectCopierFactory() {
+        @Override
+        public ObjectCopier make() {
+            return new ObjectCopier() {
+                @Override
+                public Object copy(Object obj) throws ReflectiveCopyException {
+                    copies.incrementAndGet();
+                    return CopyobjectDefaults.makeReflectObjectCopierFactory().make().copy(obj);
+                }
+            };
+        }
+    };
+
+    @Test
+    public void readsShareSource_firstMutationCopies() {
+        AccountImpl source = new AccountImpl();
+        Account copy = (Account) new CopyOnWriteObjectCopier(countingFactory, Account.class).copy(source);
+
+        assertEquals("owner", copy.getOwner());
+        assertEquals(0, copy.settings());
+        assertEquals(0, copies.get());
+
+        copy.deposit(10);
+        copy.deposit(5);
+        assertEquals(1, copies.get());
+        assertEquals(15, copy.getBalance());
+        assertEquals(0, source.balance);
+    }
+
+    @Test
+    public void namingHeuristics_detectCollectionMutators() {
+        List<String> source = new ArrayList<String>();
+        source.add("a");
+
+        @SuppressWarnings("unchecked")
+        List<String> copy = (List<String>) new CopyOnWriteObjectCopier(countingFactory, List.class).copy(source);
+
+        assertEquals("a", copy.get(0));
+        assertEquals(1, copy.size());
+        assertEquals(0, copies.get());
+
+        copy.add("b");
+        assertEquals(1, copies.get());
+        assertEquals(2, copy.size());
+        assertEquals(1, source.size());
+    }
+
+    @Test
+    public void unknownMethods_copyBeforeModifying() {
+        Map<String, List<String>> source = new HashMap<String, List<String>>();
+
+        @SuppressWarnings("unchecked")
+        Map<String, List<String>> copy = (Map<String, List<String>>) new CopyOnWriteObjectCopier(countingFactory, Map.class).copy(source);
+
+        assertTrue(copy.isEmpty());
+        assertEquals(0, copies.get());
+
+        copy.computeIfAbsent("a", new Function<String, List<String>>() {
+            @Override
+            public List<String> apply(String key) {
+                return new ArrayList<String>();
+            }
+        }).add("b");
+        copy.merge("c", new ArrayList<String>(), new BinaryOperator<List<String>>() {
+            @Override
+            public List<String> apply(List<String> first, List<String> second) {
+                return first;
+            }
+        });
+        assertEquals(1, copies.get());
+        assertEquals(2, copy.size());
+        assertTrue(source.isEmpty());
+    }
+
+    @Test
+    public void blockingQueueTake_copiesFirst() throws Exception {
+        BlockingQueue<String> source = new LinkedBlockingQueue<String>();
+        source.add("a");
+        source.add("b");
+
+        @SuppressWarnings("unchecked")
+        BlockingQueue<String> copy = (BlockingQueue<String>) new CopyOnWriteObjectCopier(countingFactory, BlockingQueue.class).copy(source);
+
+        assertEquals("a", copy.peek());
+        assertEquals(0, copies.get());
+
+        assertEquals("a", copy.take());
+        List<String> drained = new ArrayList<String>();
+        copy.drainTo(drained);
+        assertEquals(1, copies.get());
+        assertEquals(1, drained.size());
+        assertEquals(2, source.size());
+    }
+
+    @Test
+    public void objectsWithoutTheInterfaces_areCopiedImmediately() {
+        StringBuilder source = new StringBuilder("text");
+        Object copy = new CopyOnWriteObjectCopier(countingFactory, Account.class).copy(source);
+
+        assertNotSame(source, copy);
+        assertTrue(copy instanceof StringBuilder);
+        assertEquals(1, copies.get());
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.agent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.glassfish.pfl.tf.spi.Util;
+import org.glassfish.pfl.tf.timer.spi.TimingInfoProcessor;
+import org.glassfish.pfl.tf.tools.enhancer.AnnotationScannerAction;
+
+/** Records which annotations are annotated with {@code @MethodMonitorGroup}.
+ * This takes the place of the scan of the whole class tree that EnhanceTool
+ * makes before enhancing: each annotation is looked up the first time a
+ * loaded class uses it, by reading its class file from the class loader of
+ * the class, and the answer is kept.  Annotations are identified by name
+ * only, as they are in EnhanceTool.
+ */
+class MonitorGroupRegistry {
+    // Every annotation looked up so far, and whether it is a monitor
+    // group, so that each annotation is only read once.
+    private final Map<String,Boolean> known =
+        new ConcurrentHashMap<String,Boolean>() ;
+
+    // The internal names of the monitor group annotations.  Passed to
+    // Transformer, which only calls contains.
+    private final Set<String> groups = ConcurrentHashMap.newKeySet() ;
+
+    private final AnnotationScannerAction scanner ;
+
+    MonitorGroupRegistry( Util util, TimingInfoProcessor tip ) {
+        this.scanner = new AnnotationScannerAction( util, tip ) ;
+    }
+
+    Set<String> groups() {
+        return groups ;
+    }
+
+    static boolean isPlatformName( String name ) {
+        return name.startsWith( "java/" ) || name.startsWith( "javax/" )
+            || name.startsWith( "jdk/" ) || name.startsWith( "sun/" ) ;
+    }
+
+    private static byte[] readClass( ClassLoader loader, String name )
+        throws IOException {
+
+        InputStream is = (loader == null)
+            ? ClassLoader.getSystemResourceAsStream( name + ".class" )
+            : loader.getResourceAsStream( name + ".class" ) ;
+        if (is == null) {
+            return null ;
+        }
+
+        try {
+            ByteArrayOutputStream os = new ByteArrayOutputStream() ;
+            byte[] buffer = new byte[4096] ;
+            int count ;
+            while ((count = is.read( buffer )) > 0) {
+                os.write( buffer, 0, count ) ;
+            }
+
+            return os.toByteArray() ;
+        } finally {
+            is.close() ;
+        }
+    }
+
+    /** Return true if the annotation with the given internal name is
+     * annotated with {@code @MethodMonitorGroup}.  An annotation whose class
+     * file cannot be read is taken not to be a monitor group.
+     * @param loader The class loader of the class that uses the annotation.
+     * @param name The internal name of the annotation.
+     */
+    boolean isMonitorGroup( ClassLoader loader, String name )
+        throws IOException {
+
+        Boolean result = known.get( name ) ;
+        if (result != null) {
+            return result ;
+        }
+
+        if (isPlatformName( name )) {
+            result = false ;
+        } else {
+            byte[] data = readClass( loader, name ) ;
+            if (data == null) {
+                result = false ;
+            } else {
+                scanner.scan( data ) ;
+                result = scanner.getAnnotationNames().contains( name ) ;
+            }
+        }
+
+        if (result) {
+            groups.add( name ) ;
+        }
+
+        known.put( name, result ) ;
+        return result ;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.agent;
+
+import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.glassfish.pfl.tf.spi.Util;
+
+/** Java agent that adds tracing code to classes as they are loaded, in
+ * place of running EnhanceTool on the class files at build time.  Use as
+ * <pre>
+ *     -javaagent:pfl-tf-agent.jar[=options]
+ * </pre>
+ * where options is a comma separated list of:
+ * <ul>
+ * <li>include=prefix1:prefix2:... Only enhance classes whose names start
+ * with one of the prefixes.
+ * <li>debug=true Print debugging information.
+ * <li>verbose=n Print more information as n increases.
+ * </ul>
+ * When the agent is attached to a running VM, classes that are already
+ * loaded are not enhanced.
+ * <p>
+ * The Class-Path of the agent jar names the pfl-tf-tools, pfl-basic-tools,
+ * pfl-tf, pfl-dynamic, pfl-basic and asm jars, so they must be in the same
+ * directory as pfl-tf-agent.jar; they are then loaded by the system class
+ * loader.  The enhanced classes call pfl-tf, so the loader of each enhanced
+ * class must see the same pfl-tf classes.  That holds for classes on the
+ * class path, but a container whose loaders do not delegate to the system
+ * class loader must either delegate the org.glassfish.pfl packages or only
+ * include classes whose loader can see pfl-tf.
+ */
+public class TraceAgent {
+    private TraceAgent() {}
+
+    /** Parse the agent options and create the transformer.
+     * @param options The options, in the format described above, or null.
+     * @return The transformer.
+     */
+    public static TraceClassFileTransformer makeTransformer( String options ) {
+        boolean debug = false ;
+        int verbose = 0 ;
+        List<String> includes = new ArrayList<String>() ;
+
+        if (options != null && options.length() > 0) {
+            for (String option : options.split( "," )) {
+                int index = option.indexOf( '=' ) ;
+                if (index < 0) {
+                    throw new IllegalArgumentException(
+                        "Option " + option + " is not of the form key=value" ) ;
+                }
+
+                String key = option.substring( 0, index ) ;
+                String value = option.substring( index + 1 ) ;
+                if (key.equals( "include" )) {
+                    includes.addAll( Arrays.asList( value.split( ":" ) ) ) ;
+                } else if (key.equals( "debug" )) {
+                    debug = Boolean.parseBoolean( value ) ;
+                } else if (key.equals( "verbose" )) {
+                    verbose = Integer.parseInt( value ) ;
+                } else {
+                    throw new IllegalArgumentException(
+                        "Unknown option " + key ) ;
+                }
+            }
+        }
+
+        return new TraceClassFileTransformer( new Util( debug, verbose ),
+            includes ) ;
+    }
+
+    public static void premain( String options, Instrumentation inst ) {
+        inst.addTransformer( makeTransformer( options ) ) ;
+    }
+
+    public static void agentmain( String options, Instrumentation inst ) {
+        premain( options, inst ) ;
+    }
+}
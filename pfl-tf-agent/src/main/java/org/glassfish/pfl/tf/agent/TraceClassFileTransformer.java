@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.agent;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.glassfish.pfl.tf.spi.Util;
+import org.glassfish.pfl.tf.timer.spi.TimingInfoProcessor;
+import org.glassfish.pfl.tf.tools.enhancer.EnhanceTool;
+import org.glassfish.pfl.tf.tools.enhancer.Transformer;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/** A ClassFileTransformer that applies both phases of EnhanceTool's
+ * TraceEnhance mode to each class as it is loaded.  Only classes that are
+ * annotated with an annotation that is itself annotated with
+ * {@code @MethodMonitorGroup} are changed; all other classes cost a single
+ * pass over their annotations.
+ * <p>
+ * Since the first phase changes the schema of the class, classes can only
+ * be enhanced when they are first loaded, not when they are redefined or
+ * retransformed.  Timing point classes are not generated: use EnhanceTool
+ * at build time for those.
+ */
+public class TraceClassFileTransformer implements ClassFileTransformer {
+    private static final AtomicInteger instances = new AtomicInteger() ;
+
+    private final Util util ;
+    private final List<String> includes ;
+
+    private final MonitorGroupRegistry registry ;
+    private final Transformer transformer ;
+
+    // Set while this thread is transforming a class, so that classes loaded
+    // by the transformer itself are left alone.
+    private final ThreadLocal<Boolean> active = new ThreadLocal<Boolean>() ;
+
+    /** Create a transformer.
+     * @param util Logging and helper methods.
+     * @param includes Package or class name prefixes, with '.' or '/' as
+     * the separator.  If not empty, only classes whose names start with
+     * one of these are considered.
+     */
+    public TraceClassFileTransformer( Util util, List<String> includes ) {
+        this.util = util ;
+        this.includes = new ArrayList<String>() ;
+        for (String str : includes) {
+            this.includes.add( str.replace( '.', '/' ) ) ;
+        }
+
+        final TimingInfoProcessor tip = new TimingInfoProcessor( "TraceAgent"
+            + instances.incrementAndGet(), "no.package" ) ;
+        registry = new MonitorGroupRegistry( util, tip ) ;
+        transformer = new Transformer( util,
+            EnhanceTool.ProcessingMode.TraceEnhance, tip, registry.groups() ) ;
+    }
+
+    public TraceClassFileTransformer( Util util ) {
+        this( util, Collections.<String>emptyList() ) ;
+    }
+
+    private boolean isCandidate( String className ) {
+        if (MonitorGroupRegistry.isPlatformName( className )
+            || className.startsWith( "org/objectweb/asm/" )) {
+            return false ;
+        }
+
+        if (includes.isEmpty()) {
+            return true ;
+        }
+
+        for (String prefix : includes) {
+            if (className.startsWith( prefix )) {
+                return true ;
+            }
+        }
+
+        return false ;
+    }
+
+    // Collects the annotations on a class and its methods.
+    private static class AnnotationCollector extends ClassVisitor {
+        final List<String> classAnnotations = new ArrayList<String>() ;
+        final List<String> methodAnnotations = new ArrayList<String>() ;
+
+        AnnotationCollector() {
+            super( Opcodes.ASM7 ) ;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation( String desc,
+            boolean visible ) {
+
+            classAnnotations.add( Type.getType( desc ).getInternalName() ) ;
+            return null ;
+        }
+
+        @Override
+        public MethodVisitor visitMethod( int access, String name,
+            String desc, String signature, String[] exceptions ) {
+
+            return new MethodVisitor( Opcodes.ASM7 ) {
+                @Override
+                public AnnotationVisitor visitAnnotation( String desc,
+                    boolean visible ) {
+
+                    methodAnnotations.add(
+                        Type.getType( desc ).getInternalName() ) ;
+                    return null ;
+                }
+            } ;
+        }
+    }
+
+    private boolean isTraced( ClassLoader loader, byte[] classfileBuffer )
+        throws Exception {
+
+        AnnotationCollector collector = new AnnotationCollector() ;
+        new ClassReader( classfileBuffer ).accept( collector,
+            ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG
+                | ClassReader.SKIP_FRAMES ) ;
+
+        boolean result = false ;
+        for (String name : collector.classAnnotations) {
+            result |= registry.isMonitorGroup( loader, name ) ;
+        }
+
+        if (result) {
+            // The methods may name other groups.
+            for (String name : collector.methodAnnotations) {
+                registry.isMonitorGroup( loader, name ) ;
+            }
+        }
+
+        return result ;
+    }
+
+    @Override
+    public byte[] transform( ClassLoader loader, String className,
+        Class<?> classBeingRedefined, ProtectionDomain protectionDomain,
+        byte[] classfileBuffer ) {
+
+        if (className == null || classBeingRedefined != null
+            || active.get() != null || !isCandidate( className )) {
+            return null ;
+        }
+
+        active.set( Boolean.TRUE ) ;
+        try {
+            if (!isTraced( loader, classfileBuffer )) {
+                return null ;
+            }
+
+            util.info( 1, "Enhancing class " + className ) ;
+            return transformer.evaluate( classfileBuffer ) ;
+        } catch (Throwable thr) {
+            // Never stop the class from loading.
+            util.info( 1, "Exception " + thr + " while processing class "
+                + className ) ;
+            return null ;
+        } finally {
+            active.remove() ;
+        }
+    }
+}
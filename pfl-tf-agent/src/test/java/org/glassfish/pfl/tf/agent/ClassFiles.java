@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.agent;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/** Access to the class files of the test classes.
+ */
+final class ClassFiles {
+    private ClassFiles() {}
+
+    /** Return the contents of the class file from which cls was loaded.
+     */
+    static byte[] read( Class<?> cls ) throws IOException {
+        String resource = cls.getName().replace( '.', '/' ) + ".class" ;
+        InputStream is = cls.getClassLoader().getResourceAsStream( resource ) ;
+        try {
+            return is.readAllBytes() ;
+        } finally {
+            is.close() ;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.agent;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.glassfish.pfl.tf.spi.annotation.MethodMonitorGroup;
+import org.glassfish.pfl.tf.tools.enhancer.EnhanceCache;
+import org.glassfish.pfl.tf.tools.enhancer.EnhanceTool;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/** Runs EnhanceTool, which processes the class files in parallel, over a
+ * directory holding a traced class, its group annotation and a plain
+ * class, with a cache of the classes that need no work.
+ */
+public class EnhanceToolCacheTest {
+    @MethodMonitorGroup
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface CacheGroup {
+    }
+
+    @CacheGroup
+    public static class Traced {
+        @CacheGroup
+        public int twice( int value ) {
+            return 2 * value ;
+        }
+    }
+
+    public static class Plain {
+        public int twice( int value ) {
+            return 2 * value ;
+        }
+    }
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder() ;
+
+    private File dir ;
+    private File cacheFile ;
+    private File tracedFile ;
+    private File plainFile ;
+    private byte[] traced ;
+    private byte[] plain ;
+
+    private File copyClass( Class<?> cls ) throws IOException {
+        File file = new File( dir, cls.getName().replace( '.', '/' )
+            + ".class" ) ;
+        file.getParentFile().mkdirs() ;
+        Files.write( file.toPath(), ClassFiles.read( cls ) ) ;
+        return file ;
+    }
+
+    private List<String> cacheLines() throws IOException {
+        return Files.readAllLines( cacheFile.toPath(), StandardCharsets.UTF_8 ) ;
+    }
+
+    private void enhance( EnhanceTool.ProcessingMode mode ) {
+        // EnhanceTool reports errors only as messages, so check that it got
+        // as far as writing the properties file.
+        File rf = new File( folder.getRoot(), "tf.properties" ) ;
+        rf.delete() ;
+        new EnhanceTool().run( new String[] {
+            "-dir", dir.getPath(),
+            "-mode", mode.name(),
+            "-rf", rf.getPath(),
+            "-cache", cacheFile.getPath(),
+            "-threads", "4" } ) ;
+        Assert.assertTrue( rf.exists() ) ;
+    }
+
+    @Before
+    public void setUp() throws IOException {
+        dir = folder.newFolder( "classes" ) ;
+        cacheFile = new File( folder.getRoot(), "enhance.cache" ) ;
+        copyClass( CacheGroup.class ) ;
+        tracedFile = copyClass( Traced.class ) ;
+        plainFile = copyClass( Plain.class ) ;
+        traced = ClassFiles.read( Traced.class ) ;
+        plain = ClassFiles.read( Plain.class ) ;
+    }
+
+    @Test()
+    public void cacheRecordsClassesThatNeedNoWork() throws Exception {
+        enhance( EnhanceTool.ProcessingMode.TraceEnhance ) ;
+
+        byte[] enhanced = Files.readAllBytes( tracedFile.toPath() ) ;
+        Assert.assertFalse( Arrays.equals( traced, enhanced ) ) ;
+        Assert.assertArrayEquals( plain,
+            Files.readAllBytes( plainFile.toPath() ) ) ;
+
+        List<String> lines = cacheLines() ;
+        Assert.assertTrue( lines.get( 0 ).startsWith( "# version=" ) ) ;
+        Assert.assertTrue( lines.contains( EnhanceCache.digest( plain ) ) ) ;
+        Assert.assertTrue( lines.contains( EnhanceCache.digest( enhanced ) ) ) ;
+        Assert.assertFalse( lines.contains( EnhanceCache.digest( traced ) ) ) ;
+
+        // Nothing changes in a second run, and the same classes are kept.
+        enhance( EnhanceTool.ProcessingMode.TraceEnhance ) ;
+        Assert.assertArrayEquals( enhanced,
+            Files.readAllBytes( tracedFile.toPath() ) ) ;
+        Assert.assertEquals( lines, cacheLines() ) ;
+    }
+
+    @Test()
+    public void cachedClassesAreSkipped() throws Exception {
+        enhance( EnhanceTool.ProcessingMode.TraceEnhance ) ;
+
+        // Put back the original class, and claim in the cache that it needs
+        // no work.
+        List<String> lines = new ArrayList<String>( cacheLines() ) ;
+        lines.add( EnhanceCache.digest( traced ) ) ;
+        Files.write( cacheFile.toPath(), lines, StandardCharsets.UTF_8 ) ;
+        Files.write( tracedFile.toPath(), traced ) ;
+
+        enhance( EnhanceTool.ProcessingMode.TraceEnhance ) ;
+        Assert.assertArrayEquals( traced,
+            Files.readAllBytes( tracedFile.toPath() ) ) ;
+
+        // A cache from another mode is ignored.
+        String version = cacheLines().get( 0 ) ;
+        enhance( EnhanceTool.ProcessingMode.UpdateSchemas ) ;
+        Assert.assertFalse( Arrays.equals( traced,
+            Files.readAllBytes( tracedFile.toPath() ) ) ) ;
+        Assert.assertFalse( version.equals( cacheLines().get( 0 ) ) ) ;
+    }
+}
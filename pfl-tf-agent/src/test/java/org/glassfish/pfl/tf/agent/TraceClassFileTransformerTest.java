@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.agent;
+
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.glassfish.pfl.tf.spi.MethodMonitor;
+import org.glassfish.pfl.tf.spi.MethodMonitorBase;
+import org.glassfish.pfl.tf.spi.MethodMonitorFactory;
+import org.glassfish.pfl.tf.spi.MethodMonitorFactoryBase;
+import org.glassfish.pfl.tf.spi.MethodMonitorRegistry;
+import org.glassfish.pfl.tf.spi.annotation.MethodMonitorGroup;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TraceClassFileTransformerTest {
+    @MethodMonitorGroup
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface AgentGroup {
+    }
+
+    @AgentGroup
+    public static class Traced {
+        @AgentGroup
+        public int twice( int value ) {
+            return 2 * value ;
+        }
+    }
+
+    @Deprecated
+    public static class Plain {
+        public int twice( int value ) {
+            return 2 * value ;
+        }
+    }
+
+    // Defines the enhanced version of one class, and leaves all others to
+    // its parent.
+    private static class EnhancedLoader extends ClassLoader {
+        private final String name ;
+        private final byte[] data ;
+
+        EnhancedLoader( String name, byte[] data ) {
+            super( TraceClassFileTransformerTest.class.getClassLoader() ) ;
+            this.name = name ;
+            this.data = data ;
+        }
+
+        @Override
+        protected Class<?> loadClass( String cname, boolean resolve )
+            throws ClassNotFoundException {
+
+            if (cname.equals( name )) {
+                synchronized (getClassLoadingLock( cname )) {
+                    Class<?> result = findLoadedClass( cname ) ;
+                    if (result == null) {
+                        result = defineClass( cname, data, 0, data.length ) ;
+                    }
+                    return result ;
+                }
+            }
+
+            return super.loadClass( cname, resolve ) ;
+        }
+    }
+
+    private final List<String> entered = new ArrayList<String>() ;
+
+    private final MethodMonitorFactory recorder =
+        new MethodMonitorFactoryBase( "Recorder" ) {
+            public MethodMonitor create( final Class<?> cls ) {
+                return new MethodMonitorBase( "Recorder", cls, this ) {
+                    public void enter( int ident, Object... args ) {
+                        entered.add( MethodMonitorRegistry.getMethodName(
+                            cls, ident ) ) ;
+                    }
+
+                    public void info( Object[] args, int callerIdent,
+                        int selfIdent ) { }
+
+                    public void exit( int ident ) { }
+
+                    public void exit( int ident, Object result ) { }
+
+                    public void exception( int ident, Throwable thr ) { }
+
+                    public void clear() { }
+                } ;
+            }
+        } ;
+
+    @After
+    public void tearDown() {
+        MethodMonitorRegistry.clear( AgentGroup.class ) ;
+    }
+
+
+    private static byte[] transform( TraceClassFileTransformer transformer,
+        Class<?> cls ) throws IOException {
+
+        return transformer.transform( cls.getClassLoader(),
+            cls.getName().replace( '.', '/' ), null, null,
+            ClassFiles.read( cls ) ) ;
+    }
+
+    @Test()
+    public void enhancesTracedClass() throws Exception {
+        TraceClassFileTransformer transformer =
+            TraceAgent.makeTransformer( null ) ;
+        byte[] enhanced = transform( transformer, Traced.class ) ;
+        Assert.assertNotNull( enhanced ) ;
+
+        Class<?> cls = new EnhancedLoader( Traced.class.getName(), enhanced )
+            .loadClass( Traced.class.getName() ) ;
+        Assert.assertNotSame( Traced.class, cls ) ;
+        Object obj = cls.getConstructor().newInstance() ;
+
+        MethodMonitorRegistry.register( AgentGroup.class, recorder ) ;
+        Object result = cls.getMethod( "twice", int.class ).invoke( obj, 21 ) ;
+        Assert.assertEquals( 42, result ) ;
+        Assert.assertEquals( 1, entered.size() ) ;
+        Assert.assertEquals( "twice", entered.get( 0 ) ) ;
+    }
+
+    @Test()
+    public void ignoresOtherClasses() throws Exception {
+        TraceClassFileTransformer transformer =
+            TraceAgent.makeTransformer( "verbose=0" ) ;
+        Assert.assertNull( transform( transformer, Plain.class ) ) ;
+
+        // A redefined class cannot have its schema changed.
+        Assert.assertNull( transformer.transform( Traced.class.getClassLoader(),
+            Traced.class.getName().replace( '.', '/' ), Traced.class, null,
+            ClassFiles.read( Traced.class ) ) ) ;
+
+        // Excluded by the include list.
+        TraceClassFileTransformer restricted =
+            TraceAgent.makeTransformer( "include=com.example" ) ;
+        Assert.assertNull( transform( restricted, Traced.class ) ) ;
+    }
+
+    @Test( expected=IllegalArgumentException.class )
+    public void rejectsUnknownOption() {
+        TraceAgent.makeTransformer( "colour=blue" ) ;
+    }
+}
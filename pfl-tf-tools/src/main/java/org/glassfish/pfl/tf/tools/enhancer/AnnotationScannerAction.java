@@ -1,6 +1,7 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020 Payara Services Ltd.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -14,9 +15,9 @@ package org.glassfish.pfl.tf.tools.enhancer;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.glassfish.pfl.basic.tools.file.FileWrapper;
 import org.glassfish.pfl.basic.tools.file.Scanner;
@@ -47,10 +48,10 @@ public class AnnotationScannerAction implements Scanner.Action {
     private final TimingInfoProcessor tip ;
 
     // NOTE: this is a set of annotation class names in INTERNAL format.
-    private Set<String> annotationNames = new HashSet<String>() ;
-    private String currentClass ;
+    // Classes may be scanned by several threads at once.
+    private final Set<String> annotationNames = ConcurrentHashMap.newKeySet() ;
 
-    AnnotationScannerAction(Util util, TimingInfoProcessor tip) {
+    public AnnotationScannerAction(Util util, TimingInfoProcessor tip) {
         this.util = util ;
         this.tip = tip ;
     }
@@ -61,6 +62,7 @@ public class AnnotationScannerAction implements Scanner.Action {
 
     private class ClassScanner extends ClassVisitor {
         
+        private String currentClass ;
         private boolean visitingAnnotation = false;
         private String timerGroupDescription ;
         private String timerGroupName ;
@@ -181,26 +183,36 @@ public class AnnotationScannerAction implements Scanner.Action {
             if (visitingAnnotation) {
                 visitingAnnotation = false ;
 
-                tip.addTimerGroup( timerGroupName, timerGroupDescription ) ;
-                for (Type type : timerGroupMembers) {
-                    String name = type.getClassName() ;
-                    final int index = name.lastIndexOf('.') ;
-                    if (index >= 0) {
-                        name = name.substring(index + 1) ;
+                // contains refers to the last group added.
+                synchronized (tip) {
+                    tip.addTimerGroup( timerGroupName, timerGroupDescription ) ;
+                    for (Type type : timerGroupMembers) {
+                        String name = type.getClassName() ;
+                        final int index = name.lastIndexOf('.') ;
+                        if (index >= 0) {
+                            name = name.substring(index + 1) ;
+                        }
+                        tip.contains( name ) ;
                     }
-                    tip.contains( name ) ;
                 }
             }
         }
     }
 
+    /** Scan a single class file.  If it is an annotation annotated with
+     * {@code @MethodMonitorGroup}, its name is added to getAnnotationNames().
+     * @param inputData The contents of the class file.
+     */
+    public void scan( byte[] inputData ) {
+        ClassReader cr = new ClassReader( inputData ) ;
+        ClassVisitor as = new ClassScanner();
+        cr.accept( as, 0 );
+    }
+
     @Override
     public boolean evaluate(FileWrapper fw) {
         try {
-            byte[] inputData = fw.readAll();
-            ClassReader cr = new ClassReader( inputData ) ;
-            ClassVisitor as = new ClassScanner();
-            cr.accept( as, 0 );
+            scan( fw.readAll() ) ;
         } catch (IOException ex) {
             return true ; // ignore things we can't read
         }
@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020 Payara Services Ltd.
- * Copyright (c) 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022, 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -12,7 +12,7 @@
 
 package org.glassfish.pfl.tf.tools.enhancer;
 
-import org.glassfish.pfl.basic.contain.SynchronizedHolder;
+import org.glassfish.pfl.basic.contain.VolatileHolder;
 import org.glassfish.pfl.tf.spi.EnhancedClassData;
 import org.glassfish.pfl.tf.spi.Util;
 import org.glassfish.pfl.tf.spi.annotation.TraceEnhanceLevel;
@@ -45,11 +45,11 @@ public class ClassEnhancer extends TFEnhanceAdapter {
         info( 2, "visitEnd") ;
         // Add the additional fields
         final String desc = Type.getDescriptor(
-            SynchronizedHolder.class ) ;
+            VolatileHolder.class ) ;
 
         final int acc = Opcodes.ACC_PRIVATE + Opcodes.ACC_STATIC ;
 
-        // Signature is actually L../SynchronizedHolder;<L.../MethodMonitor;>
+        // Signature is actually L../VolatileHolder;<L.../MethodMonitor;>
         // where the ... are replaced with appropriate packages.  Not
         // that we actually need a signature here.
         final String sig = null ;
@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020 Payara Services Ltd.
- * Copyright (c) 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022, 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -15,7 +15,7 @@ package org.glassfish.pfl.tf.tools.enhancer;
 import java.util.HashSet;
 import java.util.Set;
 
-import org.glassfish.pfl.basic.contain.SynchronizedHolder;
+import org.glassfish.pfl.basic.contain.VolatileHolder;
 import org.glassfish.pfl.tf.spi.EnhancedClassData;
 import org.glassfish.pfl.tf.spi.MethodMonitor;
 import org.glassfish.pfl.tf.spi.Util;
@@ -274,9 +274,9 @@ public class ClassTracer extends TFEnhanceAdapter {
             final String fname = ecd.getHolderName( fullDesc );
 
             lmv.visitFieldInsn( Opcodes.GETSTATIC, ecd.getClassName(),
-                fname, Type.getDescriptor( SynchronizedHolder.class ));
+                fname, Type.getDescriptor( VolatileHolder.class ));
             lmv.visitMethodInsn( Opcodes.INVOKEVIRTUAL,
-                EnhancedClassData.SH_NAME, "content",
+                EnhancedClassData.VH_NAME, "content",
                 "()Ljava/lang/Object;", false );
             lmv.visitTypeInsn( Opcodes.CHECKCAST,
                 EnhancedClassData.MM_NAME );
@@ -286,20 +286,89 @@ public class ClassTracer extends TFEnhanceAdapter {
             lmv.visitVarInsn( Opcodes.ALOAD, __mm.index ) ;
             lmv.visitJumpInsn( Opcodes.IFNULL, start );
 
-            // __mm.enter( __ident, <array of wrapped args> ) ;
-            lmv.visitVarInsn( Opcodes.ALOAD, __mm.index )  ;
-            util.emitIntConstant( lmv, identVal ) ;
+            final Type[] atypes = Type.getArgumentTypes( desc ) ;
+            final Label noArgs = new Label() ;
+            if (atypes.length > 0) {
+                //     if (__mm.wantsArgs()) {
+                lmv.visitVarInsn( Opcodes.ALOAD, __mm.index ) ;
+                lmv.visitMethodInsn( Opcodes.INVOKEINTERFACE,
+                    EnhancedClassData.MM_NAME, "wantsArgs", "()Z", true ) ;
+                lmv.visitJumpInsn( Opcodes.IFEQ, noArgs ) ;
 
-            util.wrapArgs( lmv, access, desc ) ;
+                //         __mm.enterX( __ident, <args> ) ;
+                lmv.visitVarInsn( Opcodes.ALOAD, __mm.index )  ;
+                util.emitIntConstant( lmv, identVal ) ;
+                emitEnterCall( atypes ) ;
+                lmv.visitJumpInsn( Opcodes.GOTO, start ) ;
 
+                //     } else {
+                lmv.visitLabel( noArgs ) ;
+            }
+
+            //         __mm.enter0( __ident ) ;
+            lmv.visitVarInsn( Opcodes.ALOAD, __mm.index )  ;
+            util.emitIntConstant( lmv, identVal ) ;
             lmv.visitMethodInsn( Opcodes.INVOKEINTERFACE,
-                EnhancedClassData.MM_NAME, "enter",
-                "(I[Ljava/lang/Object;)V", true ) ;
+                EnhancedClassData.MM_NAME, "enter0", "(I)V", true ) ;
 
+            //     }
             // }
             lmv.visitLabel( start ) ;
         }
 
+        // Push the arguments of this method for the most specific
+        // MethodMonitor.enter method and call it.  The monitor and the
+        // identifier are already on the stack.  Only methods with more than
+        // two arguments need the Object[] form of enter.
+        private void emitEnterCall( final Type[] atypes ) {
+            final int firstArg =
+                ((access & Opcodes.ACC_STATIC) == Opcodes.ACC_STATIC) ? 0 : 1 ;
+
+            String mname = null ;
+            String mdesc = null ;
+            if (atypes.length == 1) {
+                final Type atype = atypes[0] ;
+                switch (atype.getSort()) {
+                    case Type.INT :
+                        mname = "enterI" ;
+                        break ;
+                    case Type.LONG :
+                        mname = "enterJ" ;
+                        break ;
+                    case Type.BOOLEAN :
+                        mname = "enterZ" ;
+                        break ;
+                    case Type.DOUBLE :
+                        mname = "enterD" ;
+                        break ;
+                    default :
+                        break ;
+                }
+
+                if (mname == null) {
+                    util.wrapArg( lmv, firstArg, atype ) ;
+                    mname = "enter1" ;
+                    mdesc = "(ILjava/lang/Object;)V" ;
+                } else {
+                    lmv.visitVarInsn( atype.getOpcode( Opcodes.ILOAD ),
+                        firstArg ) ;
+                    mdesc = "(I" + atype.getDescriptor() + ")V" ;
+                }
+            } else if (atypes.length == 2) {
+                final int next = util.wrapArg( lmv, firstArg, atypes[0] ) ;
+                util.wrapArg( lmv, next, atypes[1] ) ;
+                mname = "enter2" ;
+                mdesc = "(ILjava/lang/Object;Ljava/lang/Object;)V" ;
+            } else {
+                util.wrapArgs( lmv, access, desc ) ;
+                mname = "enter" ;
+                mdesc = "(I[Ljava/lang/Object;)V" ;
+            }
+
+            lmv.visitMethodInsn( Opcodes.INVOKEINTERFACE,
+                EnhancedClassData.MM_NAME, mname, mdesc, true ) ;
+        }
+
         private void emitExceptionReport( final int excIndex ) {
             info( 2, "emitExceptionReport called" ) ;
             final Label skipLabel = new Label() ;
@@ -323,23 +392,35 @@ public class ClassTracer extends TFEnhanceAdapter {
             lmv.visitVarInsn( Opcodes.ALOAD, __mm.index ) ;
             lmv.visitJumpInsn( Opcodes.IFNULL, skipLabel ) ;
 
-            lmv.visitVarInsn( Opcodes.ALOAD, __mm.index ) ;
-            util.emitIntConstant(lmv, identVal ) ;
-
             final Type rtype = Type.getReturnType( desc ) ;
-            if (rtype.equals( Type.VOID_TYPE )) {
+            if (!rtype.equals( Type.VOID_TYPE )) {
+                // if (__mm.wantsArgs()) __mm.exit( __ident, <wrapped result> )
+                // else __mm.exit( __ident )
+                final Label noResult = new Label() ;
+                lmv.visitVarInsn( Opcodes.ALOAD, __mm.index ) ;
                 lmv.visitMethodInsn( Opcodes.INVOKEINTERFACE,
-                    EnhancedClassData.MM_NAME, "exit",
-                    "(I)V", true ) ;
-            } else {
+                    EnhancedClassData.MM_NAME, "wantsArgs", "()Z", true ) ;
+                lmv.visitJumpInsn( Opcodes.IFEQ, noResult ) ;
+
+                lmv.visitVarInsn( Opcodes.ALOAD, __mm.index ) ;
+                util.emitIntConstant(lmv, identVal ) ;
                 util.wrapArg( lmv, __result.index,
                     Type.getType( __result.desc ) ) ;
 
                 lmv.visitMethodInsn( Opcodes.INVOKEINTERFACE,
                     EnhancedClassData.MM_NAME, "exit",
                     "(ILjava/lang/Object;)V", true ) ;
+                lmv.visitJumpInsn( Opcodes.GOTO, skipLabel ) ;
+
+                lmv.visitLabel( noResult ) ;
             }
 
+            lmv.visitVarInsn( Opcodes.ALOAD, __mm.index ) ;
+            util.emitIntConstant(lmv, identVal ) ;
+            lmv.visitMethodInsn( Opcodes.INVOKEINTERFACE,
+                EnhancedClassData.MM_NAME, "exit",
+                "(I)V", true ) ;
+
             lmv.visitLabel( skipLabel ) ;
         }
 
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.tools.enhancer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** The SHA-256 digests of class files that EnhanceTool has already
+ * processed, and that need no more work: either classes that were left
+ * unchanged, or the output of an enhancement.  The cache is only valid
+ * for the same mode and the same set of @MethodMonitorGroup annotations,
+ * which together make up its version.  A cache with a different version
+ * is ignored.
+ * <p>
+ * The file is a text file.  The first line is "# version=" followed by the
+ * version, and each other line is a digest.  Only the digests that were
+ * seen in a run are saved at the end of it, so entries for deleted or
+ * changed classes do not accumulate.
+ */
+public final class EnhanceCache {
+    private static final String VERSION_PREFIX = "# version=" ;
+
+    private final File file ;
+    private final String version ;
+
+    private final Set<String> previous = ConcurrentHashMap.newKeySet() ;
+    private final Set<String> current = ConcurrentHashMap.newKeySet() ;
+
+    EnhanceCache( File file, String version ) throws IOException {
+        this.file = file ;
+        this.version = version ;
+
+        if (file.exists()) {
+            List<String> lines = Files.readAllLines( file.toPath(),
+                StandardCharsets.UTF_8 ) ;
+            if (!lines.isEmpty()
+                && lines.get( 0 ).equals( VERSION_PREFIX + version )) {
+                previous.addAll( lines.subList( 1, lines.size() ) ) ;
+            }
+        }
+    }
+
+    /** Return the digest under which a class file is kept in the cache.
+     * @param data The contents of the class file.
+     * @return The SHA-256 digest of data, in hex.
+     */
+    public static String digest( byte[] data ) {
+        MessageDigest md ;
+        try {
+            md = MessageDigest.getInstance( "SHA-256" ) ;
+        } catch (NoSuchAlgorithmException exc) {
+            // Every Java platform is required to support SHA-256.
+            throw new IllegalStateException( exc ) ;
+        }
+
+        StringBuilder sb = new StringBuilder() ;
+        for (byte b : md.digest( data )) {
+            sb.append( String.format( "%02x", b & 0xff ) ) ;
+        }
+
+        return sb.toString() ;
+    }
+
+    /** The version for a run in the given mode with the given annotations.
+     */
+    static String version( EnhanceTool.ProcessingMode mode,
+        Set<String> annotationNames ) {
+
+        StringBuilder sb = new StringBuilder( mode.name() ) ;
+        for (String name : new TreeSet<String>( annotationNames )) {
+            sb.append( ',' ).append( name ) ;
+        }
+
+        return digest( sb.toString().getBytes( StandardCharsets.UTF_8 ) ) ;
+    }
+
+    /** Return true if the class file with the given digest needs no work,
+     * and keep it in the cache.
+     */
+    boolean isDone( String digest ) {
+        if (previous.contains( digest )) {
+            current.add( digest ) ;
+            return true ;
+        }
+
+        return false ;
+    }
+
+    /** Record that a class file with the given digest needs no work.
+     */
+    void done( String digest ) {
+        current.add( digest ) ;
+    }
+
+    void save() throws IOException {
+        List<String> lines = new ArrayList<String>() ;
+        lines.add( VERSION_PREFIX + version ) ;
+        lines.addAll( new TreeSet<String>( current ) ) ;
+        Files.write( file.toPath(), lines, StandardCharsets.UTF_8 ) ;
+    }
+}
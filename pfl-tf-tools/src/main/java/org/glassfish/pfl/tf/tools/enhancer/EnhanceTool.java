@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -12,8 +13,20 @@ package org.glassfish.pfl.tf.tools.enhancer ;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.glassfish.pfl.basic.contain.Pair;
 import org.glassfish.pfl.basic.func.UnaryFunction;
@@ -26,6 +39,7 @@ import org.glassfish.pfl.basic.tools.file.Recognizer;
 import org.glassfish.pfl.basic.tools.file.Scanner;
 import org.glassfish.pfl.tf.spi.Util;
 import org.glassfish.pfl.tf.timer.spi.TimerFactory;
+import org.glassfish.pfl.tf.timer.spi.TimerFactoryBuilder;
 import org.glassfish.pfl.tf.timer.spi.TimerPointSourceGenerator;
 import org.glassfish.pfl.tf.timer.spi.TimingInfoProcessor;
 
@@ -44,10 +58,17 @@ import org.glassfish.pfl.tf.timer.spi.TimingInfoProcessor;
  * </ol>
  * This tool can do either phase 1, or phase 1 and 2, against ALL classes 
  * reachable from a starting directory.
+ * <p>
+ * The class files are processed in parallel in both passes, except when the
+ * TimingPoint file is generated: the timers and groups are then registered
+ * in the order of the class file names, so that the file is the same in
+ * every build.  If a cache file is given, classes whose contents are the
+ * same as a class that needed no work in the previous run are skipped in
+ * the second pass.
  * @author ken
  */
 public class EnhanceTool {
-    private static int errorCount = 0 ;
+    private static final AtomicInteger errorCount = new AtomicInteger() ;
     private Util util ;
 
     public enum ProcessingMode {
@@ -107,12 +128,56 @@ public class EnhanceTool {
         @DefaultValue( "" ) 
         @Help( "The directory in which to write the TimingPoint file")
         String timingPointDir() ;
+
+        @DefaultValue( "0" )
+        @Help( "The number of threads used to process classes: 0 means one "
+            + "per processor")
+        int threads() ;
+
+        @DefaultValue( "" )
+        @Help( "File that records the classes that need no work, so that "
+            + "they are skipped in the next run.  Not used when the "
+            + "TimingPoint file is generated.")
+        String cache() ;
     }
 
     private Arguments args ;
 
     private TimingInfoProcessor tip ;
 
+    // The SHA-256 of each class file, by absolute name.  Only filled in if
+    // the cache is used.
+    private final Map<String,String> digests =
+        new ConcurrentHashMap<String,String>() ;
+
+    // Null if not used.
+    private EnhanceCache cache ;
+
+    private class AnnotationFileAction implements Scanner.Action {
+        private final AnnotationScannerAction annoAct ;
+
+        public AnnotationFileAction( AnnotationScannerAction annoAct ) {
+            this.annoAct = annoAct ;
+        }
+
+        @Override
+        public boolean evaluate( FileWrapper fw ) {
+            try {
+                byte[] inputData = fw.readAll() ;
+                if (useCache()) {
+                    digests.put( fw.getAbsoluteName(),
+                        EnhanceCache.digest( inputData ) ) ;
+                }
+
+                annoAct.scan( inputData ) ;
+            } catch (IOException ex) {
+                // ignore things we can't read
+            }
+
+            return true ;
+        }
+    }
+
     private class EnhancerFileAction implements Scanner.Action {
         private UnaryFunction<byte[],byte[]> ea ;
 
@@ -122,11 +187,21 @@ public class EnhanceTool {
 
         @Override
         public boolean evaluate( FileWrapper fw ) {
+            final String digest = digests.get( fw.getAbsoluteName() ) ;
+            if (cache != null && digest != null && cache.isDone( digest )) {
+                util.info( 2, "Skipping unchanged class " + fw.getName() ) ;
+                return true ;
+            }
+
             try {
                 util.info( 2, "Processing class " + fw.getName() ) ;
                 byte[] inputData = fw.readAll() ;
                 byte[] outputData = ea.evaluate( inputData ) ;
-                if (outputData != null) {
+                if (outputData == null) {
+                    if (cache != null && digest != null) {
+                        cache.done( digest ) ;
+                    }
+                } else {
                     if (args.newout()) {
                         String fname = fw.getName() + ".new" ;
                         util.info( 1, "Writing to class file " + fname ) ;
@@ -135,12 +210,15 @@ public class EnhanceTool {
                     } else {
                         util.info( 1, "Writing to class file " + fw.getName() ) ;
                         fw.writeAll( outputData ) ;
+                        if (cache != null) {
+                            cache.done( EnhanceCache.digest( outputData ) ) ;
+                        }
                     }
                 }
             } catch (Exception exc) {
                 util.info( 1, "Exception " + exc + " while processing class "
                     + fw.getName() ) ;
-                errorCount++ ;
+                errorCount.incrementAndGet() ;
             }
 
             // Always succeed, so we keep processing files after the first
@@ -166,7 +244,8 @@ public class EnhanceTool {
             fw.writeLine( "org.glassfish.tf.annotations.size="
                 + anames.size() ) ;
             int ctr=1 ;
-            for (String str : anames) {
+            // Sorted, since the names were found in parallel.
+            for (String str : new TreeSet<String>( anames )) {
                 String cname = str.replace( '/', '.' ) ;
                 fw.writeLine( "org.glassfish.tf.annotation."
                     + ctr + "=" + cname ) ;
@@ -197,6 +276,12 @@ public class EnhanceTool {
         } ;
     }
 
+    private boolean useCache() {
+        // Every traced class must be processed to generate the TimingPoint
+        // file.
+        return !args.cache().equals( "" ) && args.timingPointDir().equals( "" ) ;
+    }
+
     private void doScan( Arguments args, ActionFactory af,
         Scanner scanner, Scanner.Action classAct ) throws IOException {
 
@@ -208,7 +293,74 @@ public class EnhanceTool {
         scanner.scan( classRecognizer ) ;
     }
 
+    // The class files under the scanned directory, sorted by name.
+    private List<FileWrapper> findClassFiles( Arguments args,
+        ActionFactory af, Scanner scanner ) throws IOException {
+
+        final List<FileWrapper> result = new ArrayList<FileWrapper>() ;
+        doScan( args, af, scanner, new Scanner.Action() {
+            @Override
+            public String toString() {
+                return "collect class files" ;
+            }
+
+            @Override
+            public boolean evaluate( FileWrapper arg ) {
+                result.add( arg ) ;
+                return true ;
+            }
+        } ) ;
+
+        Collections.sort( result, new Comparator<FileWrapper>() {
+            @Override
+            public int compare( FileWrapper fw1, FileWrapper fw2 ) {
+                return fw1.getAbsoluteName().compareTo(
+                    fw2.getAbsoluteName() ) ;
+            }
+        } ) ;
+
+        return result ;
+    }
+
+    // Apply act to all of the files, using a work-stealing pool.  Both
+    // passes add timers and groups to tip as they find them, so when the
+    // TimingPoint file is generated, the files are processed one at a time
+    // in order, which keeps the ids in the file the same from build to build.
+    private void process( List<FileWrapper> files, final Scanner.Action act )
+        throws InterruptedException, ExecutionException {
+
+        if (!args.timingPointDir().equals( "" )) {
+            for (FileWrapper fw : files) {
+                act.evaluate( fw ) ;
+            }
+
+            return ;
+        }
+
+        final int threads = (args.threads() > 0) ? args.threads()
+            : Runtime.getRuntime().availableProcessors() ;
+        final ForkJoinPool pool = new ForkJoinPool( threads ) ;
+        try {
+            final List<Callable<Boolean>> tasks =
+                new ArrayList<Callable<Boolean>>() ;
+            for (final FileWrapper fw : files) {
+                tasks.add( new Callable<Boolean>() {
+                    public Boolean call() {
+                        return act.evaluate( fw ) ;
+                    }
+                } ) ;
+            }
+
+            for (Future<Boolean> future : pool.invokeAll( tasks )) {
+                future.get() ;
+            }
+        } finally {
+            pool.shutdown() ;
+        }
+    }
+
     public void run( String[] strs ) {
+        Pair<String,TimerFactory> res = null ;
         try {
             final ArgParser ap = new ArgParser( Arguments.class ) ;
             args = ap.parse( strs, Arguments.class ) ;
@@ -237,7 +389,9 @@ public class EnhanceTool {
             AnnotationScannerAction annoAct = new AnnotationScannerAction( util,
                 tip ) ;
 
-            doScan( args, af, scanner, annoAct ) ;
+            final List<FileWrapper> files = findClassFiles( args, af,
+                scanner ) ;
+            process( files, new AnnotationFileAction( annoAct ) ) ;
 
             Set<String> anames = annoAct.getAnnotationNames() ;
 
@@ -250,11 +404,23 @@ public class EnhanceTool {
             Transformer ea = new Transformer( util, 
                 args.mode(), tip, anames ) ;
 
+            if (useCache()) {
+                cache = new EnhanceCache( new File( args.cache() ),
+                    EnhanceCache.version( args.mode(), anames ) ) ;
+            } else if (!args.cache().equals( "" )) {
+                util.info( 1, "Not using cache " + args.cache()
+                    + ": a TimingPoint file is generated" ) ;
+            }
+
             final Scanner.Action act = new EnhancerFileAction( ea ) ;
 
-            doScan( args, af, scanner, act ) ;
+            process( files, act ) ;
 
-            Pair<String,TimerFactory> res = tip.getResult() ;
+            if (cache != null) {
+                cache.save() ;
+            }
+
+            res = tip.getResult() ;
 
             if (!args.timingPointDir().equals( "" ) ) {
                 TimerPointSourceGenerator.generateFile(
@@ -269,13 +435,19 @@ public class EnhanceTool {
             if (args.debug()) {
                 exc.printStackTrace() ;
             }
+        } finally {
+            // The TimerFactory is registered by name, so remove it to allow
+            // another run in the same VM.
+            if (res != null) {
+                TimerFactoryBuilder.destroy( res.second() ) ;
+            }
         }
     }
 
     public static void main( String[] strs ) {
         (new EnhanceTool()).run( strs ) ;
-        if (errorCount > 0) {
-            System.exit(errorCount);
+        if (errorCount.get() > 0) {
+            System.exit(errorCount.get());
         }
     }
 }
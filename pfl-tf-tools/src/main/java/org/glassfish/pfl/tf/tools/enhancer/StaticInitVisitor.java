@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020 Payara Services Ltd.
- * Copyright (c) 2022 Contributors to the Eclipse Foundation
+ * Copyright (c) 2022, 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -17,7 +17,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.glassfish.pfl.basic.contain.SynchronizedHolder;
+import org.glassfish.pfl.basic.contain.VolatileHolder;
 import org.glassfish.pfl.tf.spi.EnhancedClassData;
 import org.glassfish.pfl.tf.spi.MethodMonitorRegistry;
 import org.glassfish.pfl.tf.spi.Util;
@@ -105,10 +105,10 @@ public class StaticInitVisitor extends LocalVariablesSorter {
 		generateTraceMsg( mv, "Generating to initialize holder " + str,
 		    line++ ) ;
 		util.info( 2, "Generating code to initialize holder " + str ) ;
-		util.newWithSimpleConstructor( mv, SynchronizedHolder.class );
+		util.newWithSimpleConstructor( mv, VolatileHolder.class );
 		mv.visitFieldInsn( Opcodes.PUTSTATIC,
 		    ecd.getClassName(), str,
-		    Type.getDescriptor(SynchronizedHolder.class ) ) ;
+		    Type.getDescriptor(VolatileHolder.class ) ) ;
 	    }
 
 	    generateTraceMsg( mv, "Store the Class of this class", line++ );
@@ -148,7 +148,7 @@ public class StaticInitVisitor extends LocalVariablesSorter {
 
 		mv.visitFieldInsn( Opcodes.GETSTATIC, ecd.getClassName(),
 		    entry.getValue(),
-		    Type.getDescriptor(SynchronizedHolder.class ) ) ;
+		    Type.getDescriptor(VolatileHolder.class ) ) ;
 
 		mv.visitMethodInsn( Opcodes.INVOKEINTERFACE,
 		    "java/util/Map", "put",
@@ -1,6 +1,7 @@
 /*
  * Copyright (c) 1997, 2019 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020 Payara Services Ltd.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -34,7 +35,7 @@ import org.objectweb.asm.tree.ClassNode;
  * This is split into two parts.  The first part modifies the schema
  * of the class as follows:
  * <ul>
- * <li>Adds static fields as required for the {@code SynchronizedHolder<MethodMonitor>}
+ * <li>Adds static fields as required for the {@code VolatileHolder<MethodMonitor>}
  * instances.
  * <li>Modifies the static initializer to set up the new fields, and register
  * the class with the MethodMonitorRegistry.  This also constructs the list
@@ -73,10 +74,16 @@ public class Transformer implements UnaryFunction<byte[],byte[]> {
     private final TimingInfoProcessor tip ;
     private final Set<String> annotationNames ;
 
-    // Initialized in the evaluate method.
-    private EnhancedClassData ecd = null ;
-
-    Transformer(Util util, EnhanceTool.ProcessingMode mode,
+    /** Create a Transformer.  evaluate may be called by several threads at
+     * once, provided that anames is safe to read concurrently.  Calls to
+     * tip are made while holding its lock.
+     * @param util Logging and helper methods.
+     * @param mode Which of the phases to apply.
+     * @param tip Collects the timers and timer groups found.
+     * @param anames The internal names of the annotations that are
+     * annotated with {@code @MethodMonitorGroup}.
+     */
+    public Transformer(Util util, EnhanceTool.ProcessingMode mode,
         TimingInfoProcessor tip, Set<String> anames ) {
 
         this.util = util ;
@@ -98,7 +105,7 @@ public class Transformer implements UnaryFunction<byte[],byte[]> {
         return result ;
     }
 
-    private void processTimers() {
+    private void processTimers( final EnhancedClassData ecd ) {
         final Iterator<String> descriptions =
             ecd.getDescriptions().iterator() ;
         final Iterator<String> names =
@@ -111,25 +118,27 @@ public class Transformer implements UnaryFunction<byte[],byte[]> {
         final Set<String> classAnnoNames =
             ecd.getAnnotationToHolderName().keySet() ;
 
-        while (descriptions.hasNext()) {
-            final String desc = descriptions.next() ;
-            final String name = names.next() ;
-            final TimingPointType tpt = tpts.next() ;
-            final String group = groups.next() ;
-
-            if (tpt != TimingPointType.NONE) {
-                final String cname = getSuffix( ecd.getClassName() ) ;
-                final String timerName = TimerFactoryBuilder.getTimerName( cname,
-                    name) ;
-
-                tip.addTimer( timerName, desc ) ;
-
-                if (group == null) {
-                    for (String str : classAnnoNames) {
-                        tip.containedIn( timerName, getSuffix( str ) ) ;
+        synchronized (tip) {
+            while (descriptions.hasNext()) {
+                final String desc = descriptions.next() ;
+                final String name = names.next() ;
+                final TimingPointType tpt = tpts.next() ;
+                final String group = groups.next() ;
+
+                if (tpt != TimingPointType.NONE) {
+                    final String cname = getSuffix( ecd.getClassName() ) ;
+                    final String timerName = TimerFactoryBuilder.getTimerName( cname,
+                        name) ;
+
+                    tip.addTimer( timerName, desc ) ;
+
+                    if (group == null) {
+                        for (String str : classAnnoNames) {
+                            tip.containedIn( timerName, getSuffix( str ) ) ;
+                        }
+                    } else {
+                        tip.containedIn( timerName, getSuffix( group ) ) ;
                     }
-                } else {
-                    tip.containedIn( timerName, getSuffix( group ) ) ;
                 }
             }
         }
@@ -147,14 +156,15 @@ public class Transformer implements UnaryFunction<byte[],byte[]> {
         }
 
         try {
-            ecd = new EnhancedClassDataASMImpl( util, annotationNames, cn ) ;
+            final EnhancedClassData ecd = new EnhancedClassDataASMImpl( util,
+                annotationNames, cn ) ;
 
             // If this class is not annotated as a traced class, ignore it.
             if (!ecd.isTracedClass()) {
                 return null ;
             }
 
-            processTimers() ;
+            processTimers( ecd ) ;
 
             byte[] phase1 = null ;
             if ((mode == EnhanceTool.ProcessingMode.UpdateSchemas) ||
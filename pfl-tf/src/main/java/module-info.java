@@ -17,6 +17,7 @@
 module org.glassfish.pfl.tf {
 
     requires java.logging;
+    requires static jdk.jfr;
 
     requires org.glassfish.pfl.basic;
     requires org.glassfish.pfl.dynamic;
@@ -29,4 +30,5 @@ module org.glassfish.pfl.tf {
     exports org.glassfish.pfl.tf.spi.annotation;
     exports org.glassfish.pfl.tf.timer.impl;
     exports org.glassfish.pfl.tf.timer.spi;
+    exports org.glassfish.pfl.tf.trace;
 }
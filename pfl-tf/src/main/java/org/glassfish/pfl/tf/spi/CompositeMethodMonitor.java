@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.util.List;
+
+/** MethodMonitors that pass each call on to a fixed list of other
+ * MethodMonitors.  Where the JDK can define hidden classes, each tuple of
+ * member classes gets its own generated subclass, which holds the members
+ * in final fields and calls each one from its own call site, so that the
+ * JIT sees one receiver class at each site and can inline the members of
+ * a stable stack of monitors (see CompositeMethodMonitorGenerator).
+ * Otherwise the members are called in a loop.  All members see the
+ * specialized enter methods, so that none of them pays for an argument
+ * array that only another member wants.
+ */
+abstract class CompositeMethodMonitor extends MethodMonitorBase {
+    private final boolean wantsArgs ;
+
+    // Also called by the generated subclasses.
+    CompositeMethodMonitor( String name, Class<?> cls,
+        MethodMonitorFactory mmf, List<MethodMonitor> mms ) {
+
+        super( name, cls, mmf ) ;
+
+        boolean anyWantsArgs = false ;
+        for (MethodMonitor mm : mms) {
+            anyWantsArgs |= mm.wantsArgs() ;
+        }
+        wantsArgs = anyWantsArgs ;
+    }
+
+    /** Create a composite of mms, which must have at least two members.
+     */
+    static MethodMonitor make( String name, Class<?> cls,
+        MethodMonitorFactory mmf, List<MethodMonitor> mms ) {
+
+        if (CompositeMethodMonitorGenerator.isAvailable()) {
+            return CompositeMethodMonitorGenerator.make( name, cls, mmf,
+                mms ) ;
+        }
+
+        return new Looped( name, cls, mmf, mms ) ;
+    }
+
+    @Override
+    public final boolean wantsArgs() {
+        return wantsArgs ;
+    }
+
+    private static final class Looped extends CompositeMethodMonitor {
+        private final MethodMonitor[] mms ;
+
+        Looped( String name, Class<?> cls, MethodMonitorFactory mmf,
+            List<MethodMonitor> mms ) {
+
+            super( name, cls, mmf, mms ) ;
+            this.mms = mms.toArray( new MethodMonitor[mms.size()] ) ;
+        }
+
+        public void enter( int ident, Object... args ) {
+            for (MethodMonitor mm : mms) {
+                mm.enter( ident, args ) ;
+            }
+        }
+
+        @Override
+        public void enter0( int ident ) {
+            for (MethodMonitor mm : mms) {
+                mm.enter0( ident ) ;
+            }
+        }
+
+        @Override
+        public void enter1( int ident, Object arg ) {
+            for (MethodMonitor mm : mms) {
+                mm.enter1( ident, arg ) ;
+            }
+        }
+
+        @Override
+        public void enter2( int ident, Object arg1, Object arg2 ) {
+            for (MethodMonitor mm : mms) {
+                mm.enter2( ident, arg1, arg2 ) ;
+            }
+        }
+
+        @Override
+        public void enterI( int ident, int arg ) {
+            for (MethodMonitor mm : mms) {
+                mm.enterI( ident, arg ) ;
+            }
+        }
+
+        @Override
+        public void enterJ( int ident, long arg ) {
+            for (MethodMonitor mm : mms) {
+                mm.enterJ( ident, arg ) ;
+            }
+        }
+
+        @Override
+        public void enterZ( int ident, boolean arg ) {
+            for (MethodMonitor mm : mms) {
+                mm.enterZ( ident, arg ) ;
+            }
+        }
+
+        @Override
+        public void enterD( int ident, double arg ) {
+            for (MethodMonitor mm : mms) {
+                mm.enterD( ident, arg ) ;
+            }
+        }
+
+        public void info( Object[] args, int callerId, int selfId ) {
+            for (MethodMonitor mm : mms) {
+                mm.info( args, callerId, selfId ) ;
+            }
+        }
+
+        public void exit( int ident ) {
+            for (MethodMonitor mm : mms) {
+                mm.exit( ident ) ;
+            }
+        }
+
+        public void exit( int ident, Object result ) {
+            for (MethodMonitor mm : mms) {
+                mm.exit( ident, result ) ;
+            }
+        }
+
+        public void exception( int ident, Throwable thr ) {
+            for (MethodMonitor mm : mms) {
+                mm.exception( ident, thr ) ;
+            }
+        }
+
+        public void clear() {
+            for (MethodMonitor mm : mms) {
+                mm.clear() ;
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/** Generates a subclass of CompositeMethodMonitor for each tuple of member
+ * MethodMonitor classes.  The generated class holds the members in final
+ * fields mm1 ... mmN, and each of its methods calls every member through
+ * the MethodMonitor interface.  Since the class is only used for one tuple,
+ * each of those call sites sees only one receiver class, which the JIT
+ * can inline, where a single shared class would make every site
+ * megamorphic as soon as a few different stacks of monitors are in use.
+ * <p>
+ * The classes are defined as hidden classes in this package by
+ * Lookup.defineHiddenClass, and cached by the tuple of member classes in
+ * a chain of ClassValues, one for each member.  The cache therefore holds
+ * no strong references to the member classes, and does not keep the
+ * class loader of an application alive after it is undeployed.  The
+ * generated classes only refer to MethodMonitor, so they do not keep the
+ * members' classes alive either.  defineHiddenClass
+ * needs JDK 15, while this library still runs on JDK 11, so it is looked up
+ * reflectively; on older JDKs isAvailable returns false, and
+ * CompositeMethodMonitor calls the members in a loop instead.
+ */
+final class CompositeMethodMonitorGenerator {
+    private CompositeMethodMonitorGenerator() {}
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup() ;
+
+    // (Lookup, byte[]) -> Lookup of the defined hidden class, or null
+    // if this JDK does not support hidden classes.
+    private static final MethodHandle DEFINE_HIDDEN_CLASS =
+        findDefineHiddenClass() ;
+
+    private static final String BASE_NAME =
+        Type.getInternalName( CompositeMethodMonitor.class ) ;
+    private static final String CLASS_NAME = BASE_NAME + "$Generated" ;
+    private static final String MM_NAME =
+        Type.getInternalName( MethodMonitor.class ) ;
+    private static final String MM_DESCRIPTOR =
+        Type.getDescriptor( MethodMonitor.class ) ;
+    private static final String LIST_NAME = Type.getInternalName( List.class ) ;
+    private static final String GET_DESCRIPTOR = Type.getMethodDescriptor(
+        Type.getType( Object.class ), Type.INT_TYPE ) ;
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(
+        void.class, String.class, Class.class, MethodMonitorFactory.class,
+        List.class ) ;
+    private static final String CONSTRUCTOR_DESCRIPTOR =
+        CONSTRUCTOR_TYPE.toMethodDescriptorString() ;
+
+    // The MethodMonitor methods that are passed on to every member.
+    private static final Method[] FORWARDED = {
+        method( "enter", int.class, Object[].class ),
+        method( "enter0", int.class ),
+        method( "enter1", int.class, Object.class ),
+        method( "enter2", int.class, Object.class, Object.class ),
+        method( "enterI", int.class, int.class ),
+        method( "enterJ", int.class, long.class ),
+        method( "enterZ", int.class, boolean.class ),
+        method( "enterD", int.class, double.class ),
+        method( "info", Object[].class, int.class, int.class ),
+        method( "exit", int.class ),
+        method( "exit", int.class, Object.class ),
+        method( "exception", int.class, Throwable.class ),
+        method( "clear" )
+    } ;
+
+    // A node in the cache of generated classes.  The node for a tuple of
+    // member classes is found by starting at root, and following next for
+    // each member class in turn.
+    private static final class Node {
+        final ClassValue<Node> next = new ClassValue<Node>() {
+            @Override
+            protected Node computeValue( Class<?> type ) {
+                return new Node() ;
+            }
+        } ;
+
+        // The constructor of the generated class for the tuple that ends
+        // at this node, or null if there is none yet.
+        MethodHandle constructor ;
+    }
+
+    private static final Node root = new Node() ;
+
+    private static Method method( String name, Class<?>... types ) {
+        try {
+            return MethodMonitor.class.getMethod( name, types ) ;
+        } catch (NoSuchMethodException exc) {
+            throw new IllegalStateException( exc ) ;
+        }
+    }
+
+    private static MethodHandle findDefineHiddenClass() {
+        try {
+            Class<?> optionClass = Class.forName(
+                "java.lang.invoke.MethodHandles$Lookup$ClassOption" ) ;
+            Object noOptions = Array.newInstance( optionClass, 0 ) ;
+            MethodHandle mh = MethodHandles.publicLookup().findVirtual(
+                MethodHandles.Lookup.class, "defineHiddenClass",
+                MethodType.methodType( MethodHandles.Lookup.class,
+                    byte[].class, boolean.class, noOptions.getClass() ) ) ;
+            return MethodHandles.insertArguments( mh, 2, true, noOptions ) ;
+        } catch (ReflectiveOperationException exc) {
+            return null ;
+        }
+    }
+
+    /** Return true if this JDK can define hidden classes.
+     */
+    static boolean isAvailable() {
+        return DEFINE_HIDDEN_CLASS != null ;
+    }
+
+    /** Return a composite of mms, an instance of the generated class for
+     * the classes of mms.
+     */
+    static MethodMonitor make( String name, Class<?> cls,
+        MethodMonitorFactory mmf, List<MethodMonitor> mms ) {
+
+        Node node = root ;
+        for (MethodMonitor mm : mms) {
+            node = node.next.get( mm.getClass() ) ;
+        }
+
+        try {
+            MethodHandle constructor ;
+            synchronized (node) {
+                constructor = node.constructor ;
+                if (constructor == null) {
+                    MethodHandles.Lookup lookup = (MethodHandles.Lookup)
+                        DEFINE_HIDDEN_CLASS.invoke( LOOKUP,
+                            generate( mms.size() ) ) ;
+                    constructor = lookup.findConstructor(
+                        lookup.lookupClass(), CONSTRUCTOR_TYPE ) ;
+                    node.constructor = constructor ;
+                }
+            }
+
+            return (MethodMonitor)constructor.invoke( name, cls, mmf, mms ) ;
+        } catch (Throwable thr) {
+            throw new IllegalStateException(
+                "Could not define composite MethodMonitor " + name, thr ) ;
+        }
+    }
+
+    private static byte[] generate( int size ) {
+        ClassWriter cw = new ClassWriter( ClassWriter.COMPUTE_MAXS ) ;
+        cw.visit( Opcodes.V11,
+            Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+            CLASS_NAME, null, BASE_NAME, null ) ;
+
+        for (int ctr=1; ctr<=size; ctr++) {
+            cw.visitField( Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL,
+                "mm" + ctr, MM_DESCRIPTOR, null, null ).visitEnd() ;
+        }
+
+        // <init>( String name, Class cls, MethodMonitorFactory mmf,
+        //     List mms ): super( name, cls, mmf, mms ), then mmN = mms.get( N-1 )
+        MethodVisitor mv = cw.visitMethod( 0, "<init>",
+            CONSTRUCTOR_DESCRIPTOR, null, null ) ;
+        mv.visitCode() ;
+        mv.visitVarInsn( Opcodes.ALOAD, 0 ) ;
+        mv.visitVarInsn( Opcodes.ALOAD, 1 ) ;
+        mv.visitVarInsn( Opcodes.ALOAD, 2 ) ;
+        mv.visitVarInsn( Opcodes.ALOAD, 3 ) ;
+        mv.visitVarInsn( Opcodes.ALOAD, 4 ) ;
+        mv.visitMethodInsn( Opcodes.INVOKESPECIAL, BASE_NAME, "<init>",
+            CONSTRUCTOR_DESCRIPTOR, false ) ;
+        for (int ctr=1; ctr<=size; ctr++) {
+            mv.visitVarInsn( Opcodes.ALOAD, 0 ) ;
+            mv.visitVarInsn( Opcodes.ALOAD, 4 ) ;
+            mv.visitLdcInsn( ctr - 1 ) ;
+            mv.visitMethodInsn( Opcodes.INVOKEINTERFACE, LIST_NAME, "get",
+                GET_DESCRIPTOR, true ) ;
+            mv.visitTypeInsn( Opcodes.CHECKCAST, MM_NAME ) ;
+            mv.visitFieldInsn( Opcodes.PUTFIELD, CLASS_NAME, "mm" + ctr,
+                MM_DESCRIPTOR ) ;
+        }
+        mv.visitInsn( Opcodes.RETURN ) ;
+        mv.visitMaxs( 0, 0 ) ;
+        mv.visitEnd() ;
+
+        // Each method calls mm1 ... mmN in order with its own arguments.
+        for (Method method : FORWARDED) {
+            String descriptor = Type.getMethodDescriptor( method ) ;
+            int access = Opcodes.ACC_PUBLIC ;
+            if (method.isVarArgs()) {
+                access |= Opcodes.ACC_VARARGS ;
+            }
+
+            mv = cw.visitMethod( access, method.getName(), descriptor, null,
+                null ) ;
+            mv.visitCode() ;
+            for (int ctr=1; ctr<=size; ctr++) {
+                mv.visitVarInsn( Opcodes.ALOAD, 0 ) ;
+                mv.visitFieldInsn( Opcodes.GETFIELD, CLASS_NAME, "mm" + ctr,
+                    MM_DESCRIPTOR ) ;
+                int local = 1 ;
+                for (Type type : Type.getArgumentTypes( descriptor )) {
+                    mv.visitVarInsn( type.getOpcode( Opcodes.ILOAD ), local ) ;
+                    local += type.getSize() ;
+                }
+                mv.visitMethodInsn( Opcodes.INVOKEINTERFACE, MM_NAME,
+                    method.getName(), descriptor, true ) ;
+            }
+            mv.visitInsn( Opcodes.RETURN ) ;
+            mv.visitMaxs( 0, 0 ) ;
+            mv.visitEnd() ;
+        }
+
+        cw.visitEnd() ;
+        return cw.toByteArray() ;
+    }
+}
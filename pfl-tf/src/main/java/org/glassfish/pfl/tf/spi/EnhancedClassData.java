@@ -1,6 +1,7 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
  * Copyright (c) 2020 Payara Services Ltd.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -15,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.glassfish.pfl.basic.contain.SynchronizedHolder;
+import org.glassfish.pfl.basic.contain.VolatileHolder;
 import org.glassfish.pfl.tf.spi.annotation.Description;
 import org.glassfish.pfl.tf.spi.annotation.InfoMethod;
 import org.objectweb.asm.Type;
@@ -27,9 +29,14 @@ public interface EnhancedClassData {
     Type OBJECT_TYPE = Type.getType( Object.class ) ;
     String OBJECT_NAME = OBJECT_TYPE.getInternalName() ;
 
+    // The holder type used by classes enhanced before VolatileHolder
+    // was introduced.
     Type SH_TYPE = Type.getType( SynchronizedHolder.class ) ;
     String SH_NAME = SH_TYPE.getInternalName() ;
 
+    Type VH_TYPE = Type.getType( VolatileHolder.class ) ;
+    String VH_NAME = VH_TYPE.getInternalName() ;
+
     Type MM_TYPE = Type.getType( MethodMonitor.class ) ;
     String MM_NAME = MM_TYPE.getInternalName() ;
 
@@ -49,7 +56,7 @@ public interface EnhancedClassData {
     boolean isTracedClass() ;
 
     /** Map from MM annotation name to the name of the holder 
-     * field that contains the SynchronizedHolder for the
+     * field that contains the VolatileHolder for the
      * corresponding MethodMonitor.  The domain of this map is the set of
      * MM annotations on this class.
      *
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -36,7 +37,7 @@ public abstract class EnhancedClassDataBase implements EnhancedClassData {
         new HashSet<String>() ;
 
     // Map from MM annotation internal name to
-    // SynchronizedHolder<MethodMonitor> field
+    // VolatileHolder<MethodMonitor> field
     // name.  Use something like __$mm$__nnn that is unlikely to collide with
     // another field name that is already in use.
     protected final Map<String,String> annoToHolderName =
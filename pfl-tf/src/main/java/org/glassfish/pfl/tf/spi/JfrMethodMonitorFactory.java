@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.util.Arrays;
+
+import jdk.jfr.EventType;
+
+/** A MethodMonitorFactory that records each traced call as a JFR
+ * MethodSpanEvent, so that tracing can be left on all the time and
+ * analyzed with the standard JFR tools.  While no recording has the event
+ * enabled, a call costs a thread local lookup and a check of the event
+ * type.
+ * <p>
+ * Use MethodMonitorFactoryDefaults.jfr to get the instance.
+ */
+class JfrMethodMonitorFactory extends MethodMonitorFactoryBase {
+    static final JfrMethodMonitorFactory INSTANCE =
+        new JfrMethodMonitorFactory() ;
+
+    private static final EventType EVENT_TYPE =
+        EventType.getEventType( MethodSpanEvent.class ) ;
+
+    // The calls in progress on one thread, with their events, shared by
+    // the MethodMonitors of all classes.  A call that started while the
+    // event was disabled has a null event, so that its exit still pops the
+    // right entry.
+    private static final class Spans {
+        Class<?>[] classes = new Class<?>[16] ;
+        int[] idents = new int[16] ;
+        MethodSpanEvent[] events = new MethodSpanEvent[16] ;
+        int depth ;
+
+        void push( Class<?> cls, int ident, MethodSpanEvent event ) {
+            if (depth == events.length) {
+                classes = Arrays.copyOf( classes, 2 * depth ) ;
+                idents = Arrays.copyOf( idents, 2 * depth ) ;
+                events = Arrays.copyOf( events, 2 * depth ) ;
+            }
+
+            classes[depth] = cls ;
+            idents[depth] = ident ;
+            events[depth++] = event ;
+        }
+
+        // Return true if the innermost call is ident of cls.  It is not if
+        // the monitor was registered in the middle of a call.
+        boolean topIs( Class<?> cls, int ident ) {
+            int index = depth - 1 ;
+            return index >= 0 && classes[index] == cls
+                && idents[index] == ident ;
+        }
+
+        MethodSpanEvent top() {
+            return events[depth - 1] ;
+        }
+
+        MethodSpanEvent pop() {
+            MethodSpanEvent result = events[--depth] ;
+            classes[depth] = null ;
+            events[depth] = null ;
+            return result ;
+        }
+    }
+
+    private final ThreadLocal<Spans> spans = new ThreadLocal<Spans>() {
+        @Override
+        protected Spans initialValue() {
+            return new Spans() ;
+        }
+    } ;
+
+    private JfrMethodMonitorFactory() {
+        super( "JFR" ) ;
+    }
+
+    public MethodMonitor create( final Class<?> cls ) {
+        final String className = cls.getName() ;
+
+        return new MethodMonitorBase( name(), cls, this ) {
+            // The method names of cls, looked up as they are first needed.
+            // Races only repeat the lookup.
+            private volatile String[] methodNames = new String[0] ;
+
+            private String methodName( int ident ) {
+                String[] names = methodNames ;
+                if (ident >= names.length) {
+                    names = Arrays.copyOf( names, ident + 1 ) ;
+                    methodNames = names ;
+                }
+
+                String result = names[ident] ;
+                if (result == null) {
+                    result = MethodMonitorRegistry.getMethodName( cls, ident ) ;
+                    names[ident] = result ;
+                }
+
+                return result ;
+            }
+
+            @Override
+            public boolean wantsArgs() {
+                return false ;
+            }
+
+            public void enter( int ident, Object... args ) {
+                enter0( ident ) ;
+            }
+
+            @Override
+            public void enter0( int ident ) {
+                MethodSpanEvent event = null ;
+                if (EVENT_TYPE.isEnabled()) {
+                    event = new MethodSpanEvent() ;
+                    event.begin() ;
+                }
+
+                spans.get().push( cls, ident, event ) ;
+            }
+
+            public void info( Object[] args, int callerIdent,
+                int selfIdent ) { }
+
+            public void exit( int ident ) {
+                // Ignore an exit whose enter came before this monitor was
+                // registered.
+                final Spans stack = spans.get() ;
+                if (!stack.topIs( cls, ident )) {
+                    return ;
+                }
+
+                MethodSpanEvent event = stack.pop() ;
+                if (event != null) {
+                    event.end() ;
+                    if (event.shouldCommit()) {
+                        event.className = className ;
+                        event.methodName = methodName( ident ) ;
+                        event.commit() ;
+                    }
+                }
+            }
+
+            public void exit( int ident, Object result ) {
+                exit( ident ) ;
+            }
+
+            public void exception( int ident, Throwable thr ) {
+                final Spans stack = spans.get() ;
+                if (!stack.topIs( cls, ident )) {
+                    return ;
+                }
+
+                MethodSpanEvent event = stack.top() ;
+                if (event != null) {
+                    event.exceptionThrown = true ;
+                }
+            }
+
+            public void clear() { }
+        } ;
+    }
+}
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -32,6 +33,85 @@ public interface MethodMonitor {
      */
     void enter( int ident, Object... args ) ;
 
+    /** Returns true if this MethodMonitor makes use of the arguments passed
+     * to enter and the result passed to exit.  If this returns false, the
+     * enhanced code calls enter0 instead of enter, and exit( int ) instead
+     * of exit( int, Object ), so that no argument array or wrappers for
+     * primitive values are created on each call.
+     *
+     * @return true if the arguments and result are needed.
+     */
+    default boolean wantsArgs() {
+        return true ;
+    }
+
+    /** Invoked in place of enter for a method that has no arguments,
+     * or for any method if wantsArgs() is false.
+     *
+     * @param ident The method identifier.
+     */
+    default void enter0( int ident ) {
+        enter( ident ) ;
+    }
+
+    /** Invoked in place of enter for a method with a single reference
+     * argument, or a single primitive argument with no more specific
+     * enter method.
+     *
+     * @param ident The method identifier.
+     * @param arg The argument passed into the method.
+     */
+    default void enter1( int ident, Object arg ) {
+        enter( ident, arg ) ;
+    }
+
+    /** Invoked in place of enter for a method with two arguments.
+     * Primitive arguments are wrapped.
+     *
+     * @param ident The method identifier.
+     * @param arg1 The first argument passed into the method.
+     * @param arg2 The second argument passed into the method.
+     */
+    default void enter2( int ident, Object arg1, Object arg2 ) {
+        enter( ident, arg1, arg2 ) ;
+    }
+
+    /** Invoked in place of enter for a method with a single int argument.
+     *
+     * @param ident The method identifier.
+     * @param arg The argument passed into the method.
+     */
+    default void enterI( int ident, int arg ) {
+        enter1( ident, arg ) ;
+    }
+
+    /** Invoked in place of enter for a method with a single long argument.
+     *
+     * @param ident The method identifier.
+     * @param arg The argument passed into the method.
+     */
+    default void enterJ( int ident, long arg ) {
+        enter1( ident, arg ) ;
+    }
+
+    /** Invoked in place of enter for a method with a single boolean argument.
+     *
+     * @param ident The method identifier.
+     * @param arg The argument passed into the method.
+     */
+    default void enterZ( int ident, boolean arg ) {
+        enter1( ident, arg ) ;
+    }
+
+    /** Invoked in place of enter for a method with a single double argument.
+     *
+     * @param ident The method identifier.
+     * @param arg The argument passed into the method.
+     */
+    default void enterD( int ident, double arg ) {
+        enter1( ident, arg ) ;
+    }
+
     /** Invoked anywhere in the method after enter and before exit, to indicate
      * some useful tracing information in the method.
      * 
@@ -41,7 +121,8 @@ public interface MethodMonitor {
      */
     void info( Object[] args, int callerIdent, int selfIdent ) ;
 
-    /** An exit from a method that has a void return type.  Called as the last
+    /** An exit from a method that has a void return type, or from any
+     * method if wantsArgs() is false.  Called as the last
      * operation in the method.
      *
      * @param ident The method identifier.
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -17,6 +18,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -195,8 +197,16 @@ public class MethodMonitorFactoryDefaults {
         new MethodMonitorFactoryBase( "NoOp" ) {
             public MethodMonitor create(final Class<?> cls) {
                 return new MethodMonitorBase( "NoOp", cls, this ) {
+                    @Override
+                    public boolean wantsArgs() {
+                        return false ;
+                    }
+
                     public void enter(int ident, Object... args) { }
 
+                    @Override
+                    public void enter0(int ident) { }
+
                     public void info(Object[] args, int callerId,
                         int selfId ) { }
 
@@ -227,7 +237,18 @@ public class MethodMonitorFactoryDefaults {
                     private final List<TimingPointType> timerTypes =
                         MethodMonitorRegistry.getTimerTypes( cls ) ;
 
+                    // Timers only need the method identifier.
+                    @Override
+                    public boolean wantsArgs() {
+                        return false ;
+                    }
+
                     public void enter(int ident, Object... args) { 
+                        enter0( ident ) ;
+                    }
+
+                    @Override
+                    public void enter0(int ident) {
                         Timer tp = timers.get( ident ) ;
                         tec.enter( tp ) ;
                     }
@@ -279,15 +300,66 @@ public class MethodMonitorFactoryDefaults {
         return dprintImpl ;
     }
 
-    static MethodMonitor composeMM( final List<MethodMonitor> mms ) {
+    /** Return a MethodMonitorFactory that records each traced call as a
+     * JFR event named org.glassfish.pfl.tf.MethodSpan, with the class and
+     * method names.  Calls cost little while no recording has the event
+     * enabled.
+     * @return The JFR factory.
+     * @throws IllegalStateException if the jdk.jfr module is not present.
+     */
+    public static MethodMonitorFactory jfr() {
+        try {
+            return JfrMethodMonitorFactory.INSTANCE ;
+        } catch (NoClassDefFoundError exc) {
+            throw new IllegalStateException(
+                "The jdk.jfr module is not present", exc ) ;
+        }
+    }
+
+    /** Return a MethodMonitorFactory that passes one call in rate, together
+     * with all of the monitored calls made inside it, to the MethodMonitors
+     * created by mmf.  Other calls cost a thread local decrement and a
+     * branch.
+     * @param mmf The factory for the MethodMonitors that see the samples.
+     * @param rate How many calls there are for each sampled call.
+     * @return The sampling factory.
+     */
+    public static MethodMonitorFactory sampling( MethodMonitorFactory mmf,
+        int rate ) {
+
+        return SamplingMethodMonitorFactory.makeFixed( mmf, rate ) ;
+    }
+
+    /** Like sampling( MethodMonitorFactory, int ), but the rate on each
+     * thread is adjusted at each sample so that about one call tree is
+     * sampled per interval.
+     * @param mmf The factory for the MethodMonitors that see the samples.
+     * @param interval The wanted time between samples on a thread.
+     * @param unit The unit of interval.
+     * @return The sampling factory.
+     */
+    public static MethodMonitorFactory sampling( MethodMonitorFactory mmf,
+        long interval, TimeUnit unit ) {
+
+        return SamplingMethodMonitorFactory.makeTimed( mmf,
+            unit.toNanos( interval ) ) ;
+    }
+
+    static MethodMonitor composeMM( final List<MethodMonitor> members ) {
+        // NoOp members add nothing but calls.
+        final List<MethodMonitor> mms = new ArrayList<MethodMonitor>() ;
+        for (MethodMonitor mm : members) {
+            if (mm.factory() != noOpImpl) {
+                mms.add( mm ) ;
+            }
+        }
+
         if (mms.isEmpty()) {
             return noOpImpl.create( null ) ;
         }
 
         if (mms.size() == 1) {
-            for (MethodMonitor mm : mms) {
-                return mm ;
-            }
+            return mms.get( 0 ) ;
         }
 
         final Set<MethodMonitorFactory> factories = new HashSet<MethodMonitorFactory>() ;
@@ -318,45 +390,7 @@ public class MethodMonitorFactoryDefaults {
 
         final String name = sb.toString() ;
 
-        return new MethodMonitorBase( name, cls, mmf ) {
-            public void enter(int ident, Object... args) {
-                for (MethodMonitor mm : mms) {
-                    mm.enter( ident, args ) ;
-                }
-            }
-
-            public void info( Object[] args, int callerId,
-                int selfId ) {
-
-                for (MethodMonitor mm : mms) {
-                    mm.info( args, callerId, selfId ) ;
-                }
-            }
-
-            public void exit(int ident) {
-                for (MethodMonitor mm : mms) {
-                    mm.exit( ident ) ;
-                }
-            }
-
-            public void exit(int ident, Object result) {
-                for (MethodMonitor mm : mms) {
-                    mm.exit( ident, result ) ;
-                }
-            }
-
-            public void exception(int ident, Throwable thr) {
-                for (MethodMonitor mm : mms) {
-                    mm.exception( ident, thr ) ;
-                }
-            }
-
-            public void clear() {
-                for (MethodMonitor mm : mms) {
-                    mm.clear() ;
-                }
-            }
-        } ;
+        return CompositeMethodMonitor.make( name, cls, mmf, mms ) ;
     }
 
     public static MethodMonitorFactory compose(
@@ -377,6 +411,17 @@ public class MethodMonitorFactoryDefaults {
         for (MethodMonitorFactory mmf : factories ) {
             mmfs.addAll( mmf.contents() ) ;
         }
+        mmfs.remove( noOpImpl ) ;
+
+        if (mmfs.isEmpty()) {
+            return noOpImpl ;
+        }
+
+        if (mmfs.size() == 1) {
+            for (MethodMonitorFactory mmf : mmfs) {
+                return mmf ;
+            }
+        }
 
         final StringBuilder sb = new StringBuilder( "compose(" ) ;
         boolean first = true ;
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -12,19 +13,29 @@ package org.glassfish.pfl.tf.spi;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.glassfish.pfl.basic.contain.SynchronizedHolder;
+import org.glassfish.pfl.basic.contain.VolatileHolder;
 import org.glassfish.pfl.tf.spi.annotation.MethodMonitorGroup;
 
 /** Main class for registering MethodMonitorFactories against particular
  * annotation classes that represent method monitor groups.  This
+ * <p>
+ * All updates are synchronized on this class.  The methods that only read
+ * the data for a registered class (such as getMethodName, which is called
+ * on every event by some MethodMonitors) take no lock: each class's data
+ * is an immutable snapshot that is replaced when the class is registered.
  *
  * @author ken
  */
@@ -62,32 +73,54 @@ public class MethodMonitorRegistry {
 	}
     }
 
-    // Maps traceables class to the list of TimingPointTypes corresponding to
-    // the method name (as in classToMNames).  The type for all MM names is
-    // NONE, while the type for info maethods InfoMethods is taken from the 
-    // @InfoMethod annotation.
-    private static final Map<Class<?>,List<TimingPointType>> classToTimerTypes =
-        new HashMap<Class<?>,List<TimingPointType>>() ;
-
-    private static final Map<Class<?>,List<String>> classToTimerNames =
-        new HashMap<Class<?>,List<String>>() ;
-
-    // Maps traceable classes to the list of method names (which is in the order
-    // used in the generated code, so the index of a method name is the number
-    // used in the generated code).
-    private static final Map<Class<?>,List<String>> classToMNames =
-        new HashMap<Class<?>,List<String>>() ;
-    
-    // Maps traceable classes to a Map from Annotation class to the 
-    // MethodMonitor Holder, which allows easy and safe updates to the
-    // MethodMonitor.
-    private static final Map<Class<?>,
-        Map<Class<? extends Annotation>,
-            SynchronizedHolder<MethodMonitor>>> classToAnnoMM =
+    // The data registered for a traceable class.  This is never modified
+    // after construction (only the contents of the holders change), so it
+    // can be read without the registry lock.
+    private static final class TracedClass {
+        // The method names, in the order used in the generated code, so the
+        // index of a method name is the number used in the generated code.
+        final String[] methodNames ;
+        final List<String> methodNameList ;
+
+        // The TimingPointTypes corresponding to the method names.  The type
+        // for all MM names is NONE, while the type for info methods is taken
+        // from the @InfoMethod annotation.  Null if the class was registered
+        // with the holders created by the enhanced code.
+        final List<TimingPointType> timerTypes ;
+
+        final List<String> timerNames ;
+
+        // Map from Annotation class to the MethodMonitor Holder, which allows
+        // easy and safe updates to the MethodMonitor.  Classes enhanced by
+        // older versions of the enhancer use SynchronizedHolder, which is
+        // also a VolatileHolder.
+        final Map<Class<? extends Annotation>,
+            VolatileHolder<MethodMonitor>> annoMM ;
+
+        TracedClass( final List<String> methodNames,
+            final List<TimingPointType> timerTypes,
+            final List<String> timerNames,
+            final Map<Class<? extends Annotation>,
+                ? extends VolatileHolder<MethodMonitor>> annoMM ) {
+
+            this.methodNames = methodNames.toArray(
+                new String[methodNames.size()] ) ;
+            this.methodNameList = Collections.unmodifiableList(
+                Arrays.asList( this.methodNames ) ) ;
+            this.timerTypes = (timerTypes == null) ? null
+                : Collections.unmodifiableList(
+                    new ArrayList<TimingPointType>( timerTypes ) ) ;
+            this.timerNames = (timerNames == null) ? null
+                : Collections.unmodifiableList(
+                    new ArrayList<String>( timerNames ) ) ;
+            this.annoMM = Collections.unmodifiableMap(
+                new HashMap<Class<? extends Annotation>,
+                    VolatileHolder<MethodMonitor>>( annoMM ) ) ;
+        }
+    }
 
-            new HashMap<Class<?>,
-                Map<Class<? extends Annotation>,
-                    SynchronizedHolder<MethodMonitor>>>() ;
+    private static final ConcurrentMap<Class<?>,TracedClass> tracedClasses =
+        new ConcurrentHashMap<Class<?>,TracedClass>() ;
 
     // For each MM Annotation, lists all of the immediate subgroups.
     private static final Map<Class<? extends Annotation>,
@@ -96,11 +129,11 @@ public class MethodMonitorRegistry {
             Set<Class<? extends Annotation>>>() ;
 
     // For each MM Annotation, lists all MM annotations reachable via subgroups.
-    // This is the reflexive, transitive closure of subgroups.
-    private static final Map<Class<? extends Annotation>,
+    // This is the reflexive, transitive closure of subgroups.  It is an
+    // unmodifiable snapshot that is replaced whenever subgroups changes.
+    private static volatile Map<Class<? extends Annotation>,
         Set<Class<? extends Annotation>>> subgroupsTC =
-        new HashMap<Class<? extends Annotation>,
-            Set<Class<? extends Annotation>>>() ;
+        Collections.emptyMap() ;
     
     // For each MM Annotation, lists all traceable Classes that
     // have that annotation.
@@ -125,11 +158,11 @@ public class MethodMonitorRegistry {
         new HashMap<Class<? extends Annotation>,MethodMonitorFactory>() ;
 
     private static void updateTracedClass( Class<?> cls ) {
-        Map<Class<? extends Annotation>,SynchronizedHolder<MethodMonitor>> map =
-            classToAnnoMM.get( cls ) ; 
+        Map<Class<? extends Annotation>,VolatileHolder<MethodMonitor>> map =
+            tracedClasses.get( cls ).annoMM ; 
 
         for (Map.Entry<Class<? extends Annotation>, 
-            SynchronizedHolder<MethodMonitor>> entry : map.entrySet() ) {
+            VolatileHolder<MethodMonitor>> entry : map.entrySet() ) {
 
             MethodMonitorFactory mmf =
                 annotationToMMFComposition.get( entry.getKey() ) ;
@@ -179,7 +212,7 @@ public class MethodMonitorRegistry {
             updateAnnotation( annot ) ;
         }
 
-        for (Class<?> key : classToAnnoMM.keySet()) {
+        for (Class<?> key : tracedClasses.keySet()) {
             updateTracedClass( key ) ;
         }
     }
@@ -235,29 +268,31 @@ public class MethodMonitorRegistry {
     }
 
     private static void computeTransitiveClosure() {
-        subgroupsTC.clear() ;
+        final Map<Class<? extends Annotation>,
+            Set<Class<? extends Annotation>>> result =
+            new HashMap<Class<? extends Annotation>,
+                Set<Class<? extends Annotation>>>() ;
+
         for (Class<? extends Annotation> anno : subgroups.keySet()) {
-            Set<Class<? extends Annotation>> memset =
+            Set<Class<? extends Annotation>> images =
                 new HashSet<Class<? extends Annotation>>() ;
-            subgroupsTC.put( anno, memset ) ;
+            dfs( images, anno ) ;
+            result.put( anno, Collections.unmodifiableSet( images ) ) ;
         }
 
-        for (Class<? extends Annotation> anno : subgroupsTC.keySet()) {
-            dfs( anno, anno ) ;
-        }
+        subgroupsTC = Collections.unmodifiableMap( result ) ;
     }
 
-    private static void dfs( Class<? extends Annotation> src,
+    private static void dfs( Set<Class<? extends Annotation>> images,
         Class<? extends Annotation> dest ) {
 
-        Set<Class<? extends Annotation>> images = subgroupsTC.get( src ) ;
         images.add( dest ) ;
 
         Set<Class<? extends Annotation>> temp = subgroups.get(dest) ;
         if (temp != null) {
             for (Class<? extends Annotation> anno : temp) {
                 if (!images.contains( anno )) {
-                    dfs( src, anno ) ;
+                    dfs( images, anno ) ;
                 }
             }
         }
@@ -294,12 +329,12 @@ public class MethodMonitorRegistry {
     public synchronized static void registerClass( final Class<?> cls,
         final List<String> methodNames,
         final Map<Class<? extends Annotation>,
-            SynchronizedHolder<MethodMonitor>> annoMM ) {
+            ? extends VolatileHolder<MethodMonitor>> annoMM ) {
 
         final boolean fullUpdate = scanClassAnnotations( cls ) ;
 
-        classToMNames.put( cls, methodNames ) ;
-        classToAnnoMM.put( cls, annoMM ) ;
+        tracedClasses.put( cls,
+            new TracedClass( methodNames, null, null, annoMM ) ) ;
 
         if (fullUpdate) {
             doFullUpdate() ;
@@ -322,14 +357,10 @@ public class MethodMonitorRegistry {
 
         final boolean fullUpdate = scanClassAnnotations( cls ) ;
 
-	classToMNames.put( cls, ecd.getMethodNames() ) ;
-        classToTimerTypes.put( cls, ecd.getTimingPointTypes() ) ;
-        classToTimerNames.put( cls, ecd.getTimingPointNames() ) ;
-
         final Map<Class<? extends Annotation>,
-            SynchronizedHolder<MethodMonitor>> annoMM =
+            VolatileHolder<MethodMonitor>> annoMM =
 	    new HashMap<Class<? extends Annotation>,
-	        SynchronizedHolder<MethodMonitor>>() ;
+	        VolatileHolder<MethodMonitor>>() ;
 
 	for (Map.Entry<String,String> entry :
 	    ecd.getAnnotationToHolderName().entrySet() ) {
@@ -343,8 +374,12 @@ public class MethodMonitorRegistry {
                 // XXX needs doPrivileged if non-null SecurityManager
 		fld.setAccessible(true) ;
 
-		final SynchronizedHolder<MethodMonitor> sh =
-		    new SynchronizedHolder<MethodMonitor>() ;
+                // A field declared by an older enhancer can only hold
+                // a SynchronizedHolder.
+		final VolatileHolder<MethodMonitor> sh =
+                    fld.getType().isAssignableFrom( VolatileHolder.class )
+                        ? new VolatileHolder<MethodMonitor>()
+                        : new SynchronizedHolder<MethodMonitor>() ;
 
 	        fld.set( null, sh) ;
 
@@ -364,7 +399,8 @@ public class MethodMonitorRegistry {
 	    }
 	}
 
-        classToAnnoMM.put( cls, annoMM ) ;
+        tracedClasses.put( cls, new TracedClass( ecd.getMethodNames(),
+            ecd.getTimingPointTypes(), ecd.getTimingPointNames(), annoMM ) ) ;
 
         if (fullUpdate) {
             doFullUpdate() ;
@@ -373,8 +409,19 @@ public class MethodMonitorRegistry {
         }
     }
 
-    public synchronized static List<String> getMethodNames( Class<?> cls ) {
-        return classToMNames.get( cls ) ;    
+    private static TracedClass getTracedClass( Class<?> cls ) {
+        TracedClass result = tracedClasses.get( cls ) ;
+
+        if (result == null) {
+            throw new RuntimeException( "Class " + cls + " not found in map" ) ;
+        }
+
+        return result ;
+    }
+
+    public static List<String> getMethodNames( Class<?> cls ) {
+        TracedClass tc = tracedClasses.get( cls ) ;
+        return (tc == null) ? null : tc.methodNameList ;
     }
 
     /** Provided so that implementation of the MethodMonitor interface can
@@ -384,30 +431,21 @@ public class MethodMonitorRegistry {
      * @param identifier An Integer representing the method name.
      * @return The name of the method corresponding to the identifier.
      */
-    public synchronized static String getMethodName( Class<?> cls, int identifier ) {
-        List<String> names = classToMNames.get( cls ) ;
+    public static String getMethodName( Class<?> cls, int identifier ) {
+        final String[] names = getTracedClass( cls ).methodNames ;
 
-        if (names == null) {
-            throw new RuntimeException( "Class " + cls + " not found in map" ) ;
-        }
-
-        if (identifier < 0 || identifier >= names.size()) {
+        if (identifier < 0 || identifier >= names.length) {
             throw new RuntimeException( "identifier is out of range" ) ;
         }
 
-        return names.get( identifier ) ;
+        return names[identifier] ;
     }
 
-    public synchronized static int getMethodIdentifier( Class<?> cls, String mname ) {
-        List<String> names = classToMNames.get( cls ) ;
-
-        if (names == null) {
-            throw new RuntimeException( "Class " + cls + " not found in map" ) ;
-        }
+    public static int getMethodIdentifier( Class<?> cls, String mname ) {
+        final String[] names = getTracedClass( cls ).methodNames ;
 
-        for (int ctr=0; ctr<names.size(); ctr++) {
-            String str = names.get(ctr) ;
-            if (str.equals( mname )) {
+        for (int ctr=0; ctr<names.length; ctr++) {
+            if (names[ctr].equals( mname )) {
                 return ctr ;
             }
         }
@@ -486,17 +524,16 @@ public class MethodMonitorRegistry {
      * @param annot A trace annotation on cls.
      * @return The MethodMonitor, if any.
      */
-    public synchronized static MethodMonitor getMethodMonitorForClass( final Class<?> cls,
+    public static MethodMonitor getMethodMonitorForClass( final Class<?> cls,
         final Class<? extends Annotation> annot ) {
-        Map<Class<? extends Annotation>,SynchronizedHolder<MethodMonitor>> map =
-            classToAnnoMM.get( cls ) ;
+        TracedClass tc = tracedClasses.get( cls ) ;
 
-        if (map == null) {
+        if (tc == null) {
             throw new RuntimeException( "Class "
                 + cls + " is not a traced class.") ;
         }
 
-        SynchronizedHolder<MethodMonitor> holder = map.get( annot ) ;
+        VolatileHolder<MethodMonitor> holder = tc.annoMM.get( annot ) ;
 
         if (holder == null) {
             throw new RuntimeException( "Annotation " + annot
@@ -507,15 +544,17 @@ public class MethodMonitorRegistry {
     }
 
     /** Return a list of all timer types defined for cls.  This is in the same
-     * order as classToMNames.get(cls).
+     * order as getMethodNames(cls).
      * @param cls The monitored class to use.
      * @return A list of timer types in the same order as the method names.
      */
-    public synchronized static List<TimingPointType> getTimerTypes( final Class<?> cls ) {
-        return classToTimerTypes.get( cls ) ;
+    public static List<TimingPointType> getTimerTypes( final Class<?> cls ) {
+        TracedClass tc = tracedClasses.get( cls ) ;
+        return (tc == null) ? null : tc.timerTypes ;
     }
 
-    public synchronized static List<String> getTimerNames( final Class<?> cls ) {
-        return classToTimerNames.get( cls ) ;
+    public static List<String> getTimerNames( final Class<?> cls ) {
+        TracedClass tc = tracedClasses.get( cls ) ;
+        return (tc == null) ? null : tc.timerNames ;
     }
 }
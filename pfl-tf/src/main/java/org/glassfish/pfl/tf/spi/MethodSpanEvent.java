@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** The JFR event for one call to a traced method.  The thread, start time
+ * and duration are recorded by JFR.
+ */
+@Name( "org.glassfish.pfl.tf.MethodSpan" )
+@Label( "Method Span" )
+@Category( { "GlassFish PFL", "Tracing" } )
+@Description( "A call to a method traced by a MethodMonitor" )
+class MethodSpanEvent extends Event {
+    @Label( "Class" )
+    String className ;
+
+    @Label( "Method" )
+    String methodName ;
+
+    @Label( "Exception Thrown" )
+    boolean exceptionThrown ;
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/** A MethodMonitorFactory that passes only a sample of the calls on to the
+ * MethodMonitors of another factory.  Each thread counts down its
+ * outermost monitored calls.  When the count reaches zero, that call is
+ * sampled: it, and every monitored call made inside it, is passed on, so
+ * the sampled call trees are always complete and always start at an
+ * outermost call.  Calls that are not sampled cost a thread local lookup,
+ * an increment or decrement and a branch.
+ * <p>
+ * The count is either fixed, so that one call in N is sampled, or adapted
+ * at each sample from the rate of calls seen on the thread, so that about
+ * one call tree is sampled per interval.
+ * <p>
+ * Use MethodMonitorFactoryDefaults.sampling to create instances.
+ */
+class SamplingMethodMonitorFactory extends MethodMonitorFactoryBase {
+    private static final int MAX_STRIDE = 1 << 24 ;
+
+    private final MethodMonitorFactory mmf ;
+    private final int rate ;
+    private final long intervalNanos ;
+
+    // The sampling state of one thread, shared by the MethodMonitors of all
+    // classes, so that a sampled call tree may span classes.
+    private final class State {
+        // Calls left until the next sample.
+        int countdown ;
+        // The value countdown was last set to.
+        int stride ;
+        // The depth of the current sampled call tree, 0 if none.
+        int depth ;
+        // The depth of the current call tree that is not sampled, 0 if none.
+        // Only a call made at depth 0 in both trees may start a sample.
+        int unsampled ;
+        long lastSample ;
+
+        State() {
+            if (intervalNanos == 0) {
+                // Start at a random point, so that threads that run the
+                // same code do not all sample the same calls.
+                stride = rate ;
+                countdown = ThreadLocalRandom.current().nextInt( rate ) + 1 ;
+            } else {
+                stride = 1 ;
+                countdown = 1 ;
+                lastSample = System.nanoTime() ;
+            }
+        }
+
+        void restart() {
+            if (intervalNanos == 0) {
+                countdown = rate ;
+                return ;
+            }
+
+            long now = System.nanoTime() ;
+            long elapsed = Math.max( 1, now - lastSample ) ;
+            lastSample = now ;
+
+            // The stride that would have taken one interval at the rate of
+            // calls since the last sample, averaged with the last stride
+            // so that a burst of calls does not swing it too far.
+            double wanted = (double)stride * intervalNanos / elapsed ;
+            long next = (stride + (long)Math.min( wanted, MAX_STRIDE )) / 2 ;
+            stride = (int)Math.max( 1, Math.min( next, MAX_STRIDE ) ) ;
+            countdown = stride ;
+        }
+    }
+
+    private final ThreadLocal<State> state = new ThreadLocal<State>() {
+        @Override
+        protected State initialValue() {
+            return new State() ;
+        }
+    } ;
+
+    private SamplingMethodMonitorFactory( String name,
+        MethodMonitorFactory mmf, int rate, long intervalNanos ) {
+
+        super( name ) ;
+        this.mmf = mmf ;
+        this.rate = rate ;
+        this.intervalNanos = intervalNanos ;
+    }
+
+    static MethodMonitorFactory makeFixed( MethodMonitorFactory mmf,
+        int rate ) {
+
+        if (rate < 1) {
+            throw new IllegalArgumentException( "rate must be at least 1" ) ;
+        }
+
+        return new SamplingMethodMonitorFactory( "Sampling[" + mmf.name()
+            + ",1/" + rate + "]", mmf, rate, 0 ) ;
+    }
+
+    static MethodMonitorFactory makeTimed( MethodMonitorFactory mmf,
+        long intervalNanos ) {
+
+        if (intervalNanos < 1) {
+            throw new IllegalArgumentException(
+                "interval must be at least 1 nanosecond" ) ;
+        }
+
+        return new SamplingMethodMonitorFactory( "Sampling[" + mmf.name()
+            + "," + intervalNanos + "ns]", mmf, 0, intervalNanos ) ;
+    }
+
+    // Called on each enter: returns true if the call is sampled.
+    private boolean enterSampled() {
+        final State st = state.get() ;
+        if (st.depth > 0) {
+            st.depth++ ;
+            return true ;
+        }
+
+        if (st.unsampled > 0) {
+            st.unsampled++ ;
+            return false ;
+        }
+
+        if (--st.countdown > 0) {
+            st.unsampled = 1 ;
+            return false ;
+        }
+
+        st.restart() ;
+        st.depth = 1 ;
+        return true ;
+    }
+
+    private boolean inSample() {
+        return state.get().depth > 0 ;
+    }
+
+    // Called on each exit: returns true if the call was sampled.
+    private boolean exitSampled() {
+        final State st = state.get() ;
+        if (st.depth > 0) {
+            st.depth-- ;
+            return true ;
+        }
+
+        // An exit without an enter, from a monitor that was added in the
+        // middle of a call, leaves unsampled at 0.
+        if (st.unsampled > 0) {
+            st.unsampled-- ;
+        }
+
+        return false ;
+    }
+
+    public MethodMonitor create( final Class<?> cls ) {
+        final MethodMonitor mm = mmf.create( cls ) ;
+
+        return new MethodMonitorBase( name(), cls, this ) {
+            @Override
+            public boolean wantsArgs() {
+                return mm.wantsArgs() ;
+            }
+
+            public void enter( int ident, Object... args ) {
+                if (enterSampled()) {
+                    mm.enter( ident, args ) ;
+                }
+            }
+
+            @Override
+            public void enter0( int ident ) {
+                if (enterSampled()) {
+                    mm.enter0( ident ) ;
+                }
+            }
+
+            @Override
+            public void enter1( int ident, Object arg ) {
+                if (enterSampled()) {
+                    mm.enter1( ident, arg ) ;
+                }
+            }
+
+            @Override
+            public void enter2( int ident, Object arg1, Object arg2 ) {
+                if (enterSampled()) {
+                    mm.enter2( ident, arg1, arg2 ) ;
+                }
+            }
+
+            @Override
+            public void enterI( int ident, int arg ) {
+                if (enterSampled()) {
+                    mm.enterI( ident, arg ) ;
+                }
+            }
+
+            @Override
+            public void enterJ( int ident, long arg ) {
+                if (enterSampled()) {
+                    mm.enterJ( ident, arg ) ;
+                }
+            }
+
+            @Override
+            public void enterZ( int ident, boolean arg ) {
+                if (enterSampled()) {
+                    mm.enterZ( ident, arg ) ;
+                }
+            }
+
+            @Override
+            public void enterD( int ident, double arg ) {
+                if (enterSampled()) {
+                    mm.enterD( ident, arg ) ;
+                }
+            }
+
+            public void info( Object[] args, int callerIdent,
+                int selfIdent ) {
+                if (inSample()) {
+                    mm.info( args, callerIdent, selfIdent ) ;
+                }
+            }
+
+            public void exit( int ident ) {
+                if (exitSampled()) {
+                    mm.exit( ident ) ;
+                }
+            }
+
+            public void exit( int ident, Object result ) {
+                if (exitSampled()) {
+                    mm.exit( ident, result ) ;
+                }
+            }
+
+            public void exception( int ident, Throwable thr ) {
+                if (inSample()) {
+                    mm.exception( ident, thr ) ;
+                }
+            }
+
+            public void clear() {
+                mm.clear() ;
+            }
+        } ;
+    }
+}
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -25,12 +26,17 @@ public abstract class ControllableBase extends NamedBaseImpl
     private String description ;
     private boolean isEnabled ;
 
+    // The TimerGroups that directly contain this Controllable: the
+    // reverse of TimerGroupImpl.contents().  Guarded by the factory lock.
+    private Set<TimerGroupImpl> containers ;
+
     protected ControllableBase( int id, String name, String description, 
 	TimerFactoryImpl factory ) {
 	super( factory, name ) ;
 	this.id = id ;
 	this.description = description ;
 	isEnabled = false ;
+	containers = new HashSet<TimerGroupImpl>() ;
     }
 
     @Override
@@ -63,12 +69,16 @@ public abstract class ControllableBase extends NamedBaseImpl
 	return emptyContent ;
     }
 
+    Set<TimerGroupImpl> containers() {
+	return containers ;
+    }
+
     @Override
     public void enable() {
 	synchronized( factory() ) {
 	    if (!isEnabled()) {
 		isEnabled = true ;
-		factory().updateActivation() ;
+		factory().updateActivation( this ) ;
 	    }
 	}
     }
@@ -78,15 +88,14 @@ public abstract class ControllableBase extends NamedBaseImpl
 	synchronized( factory() ) {
 	    if (isEnabled()) {
 		isEnabled = false ;
-		factory().updateActivation() ;
+		factory().updateActivation( this ) ;
 	    }
 	}
     }
 
-    // This is only called from TimerGroupImpl.tcContents, which is only 
-    // called from TimerFactoryImpl.updateActiation, which in turn
-    // is only called from enable and disable.  Therefore this does
-    // not need any additional synchronization.
+    // This is only called from TimerGroupImpl.tcTimers, which is only 
+    // called from TimerFactoryImpl with the factory lock held.
+    // Therefore this does not need any additional synchronization.
     void transitiveClosure( Set<ControllableBase> result ) {
 	result.add( this ) ;
 	for (ControllableBase c : contents() ) {
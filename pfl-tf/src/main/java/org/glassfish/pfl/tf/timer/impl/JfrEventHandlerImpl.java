@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.impl;
+
+import java.util.Arrays;
+
+import jdk.jfr.EventType;
+
+import org.glassfish.pfl.tf.timer.spi.NamedBase;
+import org.glassfish.pfl.tf.timer.spi.Timer;
+import org.glassfish.pfl.tf.timer.spi.TimerEvent;
+import org.glassfish.pfl.tf.timer.spi.TimerEventHandler;
+import org.glassfish.pfl.tf.timer.spi.TimerFactory;
+
+/** A TimerEventHandler that records each enter/exit pair as a JFR
+ * TimerSpanEvent.  JFR takes its own times, so the times of the timer
+ * events are not used.  While no recording has the event enabled, an
+ * event costs a thread local lookup and a check of the event type.
+ * May be used from many threads at once.
+ */
+public class JfrEventHandlerImpl extends NamedBase
+    implements TimerEventHandler {
+
+    private static final EventType EVENT_TYPE =
+        EventType.getEventType( TimerSpanEvent.class ) ;
+
+    // The timers that have been entered on one thread, with their events.
+    // The event is null if it was disabled at the enter.
+    private static final class Spans {
+        Timer[] timers = new Timer[8] ;
+        TimerSpanEvent[] events = new TimerSpanEvent[8] ;
+        int depth ;
+
+        void push( Timer timer, TimerSpanEvent event ) {
+            if (depth == timers.length) {
+                timers = Arrays.copyOf( timers, 2 * depth ) ;
+                events = Arrays.copyOf( events, 2 * depth ) ;
+            }
+
+            timers[depth] = timer ;
+            events[depth++] = event ;
+        }
+    }
+
+    private final ThreadLocal<Spans> spans = new ThreadLocal<Spans>() {
+        @Override
+        protected Spans initialValue() {
+            return new Spans() ;
+        }
+    } ;
+
+    public JfrEventHandlerImpl( TimerFactory factory, String name ) {
+        super( factory, name ) ;
+    }
+
+    @Override
+    public void notify( TimerEvent event ) {
+        notify( event.timer(),
+            event.type() == TimerEvent.TimerEventType.ENTER, event.time() ) ;
+    }
+
+    @Override
+    public void notify( Timer timer, boolean enter, long time ) {
+        final Spans stack = spans.get() ;
+
+        if (enter) {
+            TimerSpanEvent event = null ;
+            if (EVENT_TYPE.isEnabled()) {
+                event = new TimerSpanEvent() ;
+                event.begin() ;
+            }
+
+            stack.push( timer, event ) ;
+            return ;
+        }
+
+        // Ignore an exit whose enter came before this handler was added.
+        int index = stack.depth - 1 ;
+        if (index < 0 || stack.timers[index] != timer) {
+            return ;
+        }
+
+        TimerSpanEvent event = stack.events[index] ;
+        stack.timers[index] = null ;
+        stack.events[index] = null ;
+        stack.depth = index ;
+        if (event != null) {
+            event.end() ;
+            if (event.shouldCommit()) {
+                event.factoryName = timer.factory().name() ;
+                event.timerName = timer.name() ;
+                event.commit() ;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -16,10 +17,12 @@ import java.util.Stack;
 
 import org.glassfish.pfl.tf.timer.spi.LogEventHandler;
 import org.glassfish.pfl.tf.timer.spi.NamedBase;
+import org.glassfish.pfl.tf.timer.spi.Timer;
 import org.glassfish.pfl.tf.timer.spi.TimerEvent;
 import org.glassfish.pfl.tf.timer.spi.TimerFactory;
 
 // XXX This needs to be able to properly handle multiple reporting threads!
+// Use MultiThreadedLogEventHandlerImpl for events from several threads.
 public class LogEventHandlerImpl extends NamedBase
     implements LogEventHandler {
     // Default number of entries in data
@@ -62,6 +65,11 @@ public class LogEventHandlerImpl extends NamedBase
 	log( id, event.time() ) ;
     }
 
+    @Override
+    public void notify( Timer timer, boolean enter, long time ) {
+	log( 2*timer.id() + (enter ? 0 : 1), time ) ;
+    }
+
     // XXX ignore old compensation idea; do we need it here?
     private synchronized void log( int id, long time ) {
         if (data.length - nextFree < 2) {
@@ -125,10 +133,17 @@ public class LogEventHandlerImpl extends NamedBase
 
     public void display( PrintStream arg, String msg ) {
         arg.println( "Displaying contents of " + this + ": " + msg ) ;
+	display( arg, this ) ;
+    }
+
+    // Display events, which must all come from the same thread, as a tree
+    // of nested calls.  An EXIT with no matching ENTER (which happens if the
+    // ENTER was dropped from a log) is shown at the outermost level.
+    static void display( PrintStream arg, Iterable<TimerEvent> events ) {
 	final Stack<TimerEvent> stack = new Stack<TimerEvent>() ;
 	long startTime = -1 ;
 	Indent indent = new Indent( ENTER_REP.length() ) ;
-	for (TimerEvent te : this) {
+	for (TimerEvent te : events) {
 	    if (startTime == -1) {
 		startTime = te.time() ;
 	    }
@@ -144,6 +159,9 @@ public class LogEventHandlerImpl extends NamedBase
 		// Copy te, otherwise the iterator will overwrite it!
 		stack.push( new TimerEvent(te) ) ;
 		indent.in() ;
+	    } else if (stack.empty()) {
+		arg.printf( "%8d: %s%s%s[ENTER NOT LOGGED]\n", relativeTime,
+		    indent, EXIT_REP, te.timer().name() ) ;
 	    } else {
 		TimerEvent enterEvent = stack.pop() ;
 		indent.out() ;
@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.impl ;
+
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.glassfish.pfl.tf.timer.spi.LogEventHandler;
+import org.glassfish.pfl.tf.timer.spi.NamedBase;
+import org.glassfish.pfl.tf.timer.spi.Timer;
+import org.glassfish.pfl.tf.timer.spi.TimerEvent;
+import org.glassfish.pfl.tf.timer.spi.TimerFactory;
+
+/** A LogEventHandler that many threads may notify at once.  Each thread
+ * logs into its own fixed size ring buffer, so logging takes no lock and
+ * the memory used is bounded.  When a thread's buffer is full, its oldest
+ * events are overwritten.
+ * <p>
+ * Iterating over the handler returns the events from all threads merged
+ * in order of time.  display() shows the events of each thread as a
+ * separate tree of nested calls.
+ */
+public class MultiThreadedLogEventHandlerImpl extends NamedBase
+    implements LogEventHandler {
+
+    private static final VarHandle DATA =
+        MethodHandles.arrayElementVarHandle( long[].class ) ;
+    private static final VarHandle WRITTEN ;
+
+    static {
+        try {
+            WRITTEN = MethodHandles.lookup().findVarHandle( ThreadLog.class,
+                "written", long.class ) ;
+        } catch (ReflectiveOperationException exc) {
+            throw new ExceptionInInitializerError( exc ) ;
+        }
+    }
+
+    // The log of one thread.  Only that thread writes to it.  The data is
+    // interleaved as in LogEventHandlerImpl: the event with sequence
+    // number n is at data[2*(n & mask)] (the id) and data[2*(n & mask)+1]
+    // (the timestamp).
+    private static final class ThreadLog {
+        final String threadName ;
+        final long[] data ;
+        final int mask ;
+
+        // The number of events ever written.  Only set with release
+        // semantics after the event's data is written.
+        private long written ;
+
+        ThreadLog( String threadName, int capacity ) {
+            this.threadName = threadName ;
+            this.data = new long[2*capacity] ;
+            this.mask = capacity - 1 ;
+        }
+
+        void log( long id, long time ) {
+            final long seq = (long)WRITTEN.getOpaque( this ) ;
+            final int index = 2*(int)(seq & mask) ;
+            DATA.setOpaque( data, index, id ) ;
+            DATA.setOpaque( data, index + 1, time ) ;
+            WRITTEN.setRelease( this, seq + 1 ) ;
+        }
+
+        // Copy out the events that are still in the buffer, oldest first.
+        Snapshot snapshot() {
+            final long end = (long)WRITTEN.getAcquire( this ) ;
+            final long start = Math.max( 0, end - (mask + 1) ) ;
+            final long[] copy = new long[2*(int)(end - start)] ;
+            for (long seq=start; seq<end; seq++) {
+                final int from = 2*(int)(seq & mask) ;
+                final int to = 2*(int)(seq - start) ;
+                copy[to] = (long)DATA.getOpaque( data, from ) ;
+                copy[to + 1] = (long)DATA.getOpaque( data, from + 1 ) ;
+            }
+
+            // The writer may have overwritten the oldest events while they
+            // were copied.  An event may also be half written when written
+            // is read again, so the slot it overwrites is dropped as well.
+            // Once the buffer has wrapped, this always drops the oldest
+            // event.
+            VarHandle.acquireFence() ;
+            final long after = (long)WRITTEN.getAcquire( this ) ;
+            final long firstValid = Math.max( start, after + 1 - (mask + 1) ) ;
+            final int skip = (int)Math.min( end - start,
+                Math.max( 0, firstValid - start ) ) ;
+
+            final long[] events = new long[copy.length - 2*skip] ;
+            System.arraycopy( copy, 2*skip, events, 0, events.length ) ;
+            return new Snapshot( threadName, events, start + skip ) ;
+        }
+    }
+
+    private static final class Snapshot {
+        final String threadName ;
+        final long[] data ;
+        final long dropped ;
+
+        Snapshot( String threadName, long[] data, long dropped ) {
+            this.threadName = threadName ;
+            this.data = data ;
+            this.dropped = dropped ;
+        }
+
+        int size() { return data.length / 2 ; }
+
+        long time( int index ) { return data[2*index + 1] ; }
+    }
+
+    // The logs of all threads that have logged since the last clear().
+    // clear() replaces this with a new instance.
+    private static final class Logs {
+        final int capacity ;
+        final List<ThreadLog> all = new CopyOnWriteArrayList<ThreadLog>() ;
+        final ThreadLocal<ThreadLog> local = new ThreadLocal<ThreadLog>() {
+            @Override
+            protected ThreadLog initialValue() {
+                ThreadLog result = new ThreadLog(
+                    Thread.currentThread().getName(), capacity ) ;
+                all.add( result ) ;
+                return result ;
+            }
+        } ;
+
+        Logs( int capacity ) {
+            this.capacity = capacity ;
+        }
+    }
+
+    private volatile Logs logs ;
+
+    /** Create a log that keeps the most recent eventsPerThread events for
+     * each thread.  eventsPerThread is rounded up to a power of two.
+     */
+    MultiThreadedLogEventHandlerImpl( TimerFactory factory, String name,
+        int eventsPerThread ) {
+
+	super( factory, name ) ;
+        if (eventsPerThread < 1 || eventsPerThread > (1 << 29)) {
+            throw new IllegalArgumentException(
+                "eventsPerThread must be from 1 to 2^29" ) ;
+        }
+
+        final int capacity = (eventsPerThread == 1) ? 1
+            : Integer.highestOneBit( eventsPerThread - 1 ) << 1 ;
+        logs = new Logs( capacity ) ;
+    }
+
+    public void notify( TimerEvent event ) {
+	final int id = 2*event.timer().id() +
+	    ((event.type() == TimerEvent.TimerEventType.ENTER) ? 0 : 1) ;
+        logs.local.get().log( id, event.time() ) ;
+    }
+
+    @Override
+    public void notify( Timer timer, boolean enter, long time ) {
+        logs.local.get().log( 2*timer.id() + (enter ? 0 : 1), time ) ;
+    }
+
+    public void clear() {
+        logs = new Logs( logs.capacity ) ;
+    }
+
+    private Snapshot[] snapshots() {
+        final List<Snapshot> result = new ArrayList<Snapshot>() ;
+        for (ThreadLog log : logs.all) {
+            result.add( log.snapshot() ) ;
+        }
+
+        return result.toArray( new Snapshot[result.size()] ) ;
+    }
+
+    // Merge the snapshots into one array in the LogEventHandlerImpl
+    // format, ordered by time.  Events with the same time are taken
+    // from the earlier snapshot first.
+    private static long[] merge( Snapshot[] snaps ) {
+        int total = 0 ;
+        for (Snapshot snap : snaps) {
+            total += snap.size() ;
+        }
+
+        final long[] result = new long[2*total] ;
+        final int[] next = new int[snaps.length] ;
+        for (int to=0; to<total; to++) {
+            int best = -1 ;
+            for (int ctr=0; ctr<snaps.length; ctr++) {
+                if (next[ctr] < snaps[ctr].size() && (best < 0
+                    || snaps[ctr].time( next[ctr] )
+                        < snaps[best].time( next[best] ))) {
+                    best = ctr ;
+                }
+            }
+
+            System.arraycopy( snaps[best].data, 2*next[best], result, 2*to, 2 ) ;
+            next[best]++ ;
+        }
+
+        return result ;
+    }
+
+    public Iterator<TimerEvent> iterator() {
+        final long[] data = merge( snapshots() ) ;
+	return new LogEventHandlerIterator( factory(), data, data.length ) ;
+    }
+
+    public void display( PrintStream arg, String msg ) {
+        arg.println( "Displaying contents of " + this + ": " + msg ) ;
+        for (final Snapshot snap : snapshots()) {
+            arg.println( "Thread " + snap.threadName
+                + ((snap.dropped == 0) ? ""
+                    : " (" + snap.dropped + " earlier events dropped)" )
+                + ":" ) ;
+
+            LogEventHandlerImpl.display( arg, new Iterable<TimerEvent>() {
+                public Iterator<TimerEvent> iterator() {
+                    return new LogEventHandlerIterator( factory(), snap.data,
+                        snap.data.length ) ;
+                }
+            } ) ;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -11,60 +12,67 @@
 package org.glassfish.pfl.tf.timer.impl ;
 
 import java.util.ArrayList;
-import java.util.Stack;
 
+import org.glassfish.pfl.tf.timer.spi.ConcurrentStatisticsAccumulator;
 import org.glassfish.pfl.tf.timer.spi.StatisticsAccumulator;
 import org.glassfish.pfl.tf.timer.spi.Timer;
 import org.glassfish.pfl.tf.timer.spi.TimerEvent;
 import org.glassfish.pfl.tf.timer.spi.TimerFactory;
 
+// The accumulators are ConcurrentStatisticsAccumulators, so recording a
+// duration takes no lock, and each thread keeps its own TimerStacks.
 public class MultiThreadedStatsEventHandlerImpl extends StatsEventHandlerBase {
-    private Object saListLock ;
-    
     // ArrayList indexed by Timer.id 
-    private ThreadLocal<ArrayList<Stack<TimerEvent>>> tlsteList ; 
+    private ThreadLocal<ArrayList<TimerStack>> tlsteList ; 
 
-    MultiThreadedStatsEventHandlerImpl( TimerFactory factory, String name ) {
-	super( factory, name ) ;
+    MultiThreadedStatsEventHandlerImpl( TimerFactory factory, String name,
+	boolean keepHistograms ) {
+
+	super( factory, name, keepHistograms ) ;
 	final int size = factory.numberOfIds() ;
 
-	saListLock = new Object() ;
-	tlsteList = new ThreadLocal<ArrayList<Stack<TimerEvent>>>() {
-	    public ArrayList<Stack<TimerEvent>> initialValue() {
-		ArrayList<Stack<TimerEvent>> result = new ArrayList<Stack<TimerEvent>>( size ) ;
+	tlsteList = new ThreadLocal<ArrayList<TimerStack>>() {
+	    public ArrayList<TimerStack> initialValue() {
+		ArrayList<TimerStack> result = new ArrayList<TimerStack>( size ) ;
 		for (int ctr=0; ctr<size; ctr++) {
-		    result.add( new Stack<TimerEvent>() ) ;
+		    result.add( new TimerStack() ) ;
 		}
 		return result ;
 	    }
 	} ;
     }
 
-    private Stack<TimerEvent> getSteElement( int id ) {
-	ArrayList<Stack<TimerEvent>> ste = tlsteList.get() ;
+    private TimerStack getSteElement( int id ) {
+	ArrayList<TimerStack> ste = tlsteList.get() ;
 	ste.ensureCapacity( id + 1 ) ;
 	for (int ctr=ste.size(); ctr<=id; ctr++)
-	    ste.add( new Stack<TimerEvent>() ) ;
+	    ste.add( new TimerStack() ) ;
 	return ste.get( id ) ;
     }
 
-    public void clear() {
-	synchronized (saListLock) {
-	    super.clear() ;
+    @Override
+    protected StatisticsAccumulator makeAccumulator() {
+	if (keepHistograms()) {
+	    return new ConcurrentStatisticsAccumulator( UNITS, HISTOGRAM_MAX,
+		HISTOGRAM_DIGITS ) ;
 	}
+
+	return new ConcurrentStatisticsAccumulator( UNITS ) ;
     }
 
     protected void recordDuration( int id, long duration ) {
-	synchronized (saListLock) {
-	    StatisticsAccumulator acc = saList.get( id ) ;
-	    acc.sample( duration ) ;
-	}
+	StatisticsAccumulator acc = accumulator( id ) ;
+	acc.sample( duration ) ;
     }
 
     public void notify( TimerEvent event ) {
-	Timer timer = event.timer() ;
-	int id = timer.id() ;
-	notify( getSteElement( id ), event ) ;
+	notify( event.timer(),
+	    event.type() == TimerEvent.TimerEventType.ENTER, event.time() ) ;
+    }
+
+    @Override
+    public void notify( Timer timer, boolean enter, long time ) {
+	notify( getSteElement( timer.id() ), timer, enter, time ) ;
     }
 }
 
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -10,12 +11,15 @@
 
 package org.glassfish.pfl.tf.timer.impl ;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.glassfish.pfl.tf.timer.spi.Controllable;
+import org.glassfish.pfl.tf.timer.spi.LatencyHistogram;
 import org.glassfish.pfl.tf.timer.spi.NamedBase;
 import org.glassfish.pfl.tf.timer.spi.Statistics;
 import org.glassfish.pfl.tf.timer.spi.StatisticsAccumulator;
@@ -27,31 +31,172 @@ import org.glassfish.pfl.tf.timer.spi.TimerFactory;
 public abstract class StatsEventHandlerBase extends NamedBase
     implements StatsEventHandler {
     protected static final String UNITS = "nanoseconds" ;
+
+    // If wanted, durations are kept in a histogram for percentiles.
+    // Durations over an hour are all counted as an hour.  Each histogram
+    // takes about 36 KB, so they are only kept when asked for.
+    protected static final long HISTOGRAM_MAX = TimeUnit.HOURS.toNanos( 1 ) ;
+    protected static final int HISTOGRAM_DIGITS = 2 ;
     
-    // indexed by Timer.id()
-    protected ArrayList<StatisticsAccumulator> saList ; 
+    // The Statistics reported for a Timer that has recorded nothing.
+    private static final Statistics EMPTY_STATS =
+	new StatisticsAccumulator( UNITS ).getStats() ;
+
+    // Indexed by Timer.id().  An accumulator is only created when the
+    // first duration for its Timer is recorded, so Timers may be created
+    // after this handler, and unused Timers cost nothing.  Entries are
+    // only set (and the array only replaced by a larger copy) while
+    // holding the lock on this, so reads need no lock.
+    private volatile AtomicReferenceArray<StatisticsAccumulator> accumulators ;
+
+    private final boolean keepHistograms ;
     
     protected StatsEventHandlerBase( TimerFactory factory, String name ) {
+	this( factory, name, false ) ;
+    } 
+
+    protected StatsEventHandlerBase( TimerFactory factory, String name,
+	boolean keepHistograms ) {
+
 	super( factory, name ) ;
+	this.keepHistograms = keepHistograms ;
+	accumulators = new AtomicReferenceArray<StatisticsAccumulator>(
+	    factory.numberOfIds() ) ;
+    } 
 
-	// Note that this implies that no timers or timergroups are created
-	// after the StatsEventHandler is created.  We should probably fix this.
-	int size = factory.numberOfIds() ;
-	saList = new ArrayList<StatisticsAccumulator>( size ) ;
-	for (int ctr=0; ctr<size; ctr++) {
-	    saList.add( new StatisticsAccumulator(UNITS) ) ;
+    // True if the Statistics of this handler report percentiles.
+    protected final boolean keepHistograms() {
+	return keepHistograms ;
+    }
+
+    // Override this to use a different kind of StatisticsAccumulator.
+    protected StatisticsAccumulator makeAccumulator() {
+	return new StatisticsAccumulator( UNITS, keepHistograms
+	    ? new LatencyHistogram( HISTOGRAM_MAX, HISTOGRAM_DIGITS ) : null ) ;
+    }
+
+    /** Return the accumulator for the Timer with the given id, creating
+     * it if needed.
+     */
+    protected final StatisticsAccumulator accumulator( int id ) {
+	AtomicReferenceArray<StatisticsAccumulator> current = accumulators ;
+	if (id < current.length()) {
+	    StatisticsAccumulator result = current.get( id ) ;
+	    if (result != null) {
+		return result ;
+	    }
 	}
-    } 
+
+	return addAccumulator( id ) ;
+    }
+
+    private synchronized StatisticsAccumulator addAccumulator( int id ) {
+	AtomicReferenceArray<StatisticsAccumulator> current = accumulators ;
+	if (id >= current.length()) {
+	    AtomicReferenceArray<StatisticsAccumulator> larger =
+		new AtomicReferenceArray<StatisticsAccumulator>(
+		    Math.max( id + 1, 2*current.length() ) ) ;
+	    for (int ctr=0; ctr<current.length(); ctr++) {
+		larger.set( ctr, current.get( ctr ) ) ;
+	    }
+	    accumulators = larger ;
+	    current = larger ;
+	}
+
+	StatisticsAccumulator result = current.get( id ) ;
+	if (result == null) {
+	    result = makeAccumulator() ;
+	    current.set( id, result ) ;
+	}
+
+	return result ;
+    }
 
     public void clear() {
-	for (StatisticsAccumulator sa : saList) 
-	    sa.clearState() ;
+	AtomicReferenceArray<StatisticsAccumulator> current = accumulators ;
+	for (int ctr=0; ctr<current.length(); ctr++) {
+	    StatisticsAccumulator sa = current.get( ctr ) ;
+	    if (sa != null)
+		sa.clearState() ;
+	}
     }
 
     // Override this as required to record a duraction for an enter/exit
     // pair.  Called from notify().
     protected abstract void recordDuration( int id, long duration ) ;
 
+    // A stack of ENTER events, kept as timer ids and times so that
+    // recording an event does not allocate.
+    protected static final class TimerStack {
+	private int[] ids = new int[8] ;
+	private long[] times = new long[8] ;
+	private int size = 0 ;
+
+	public boolean empty() {
+	    return size == 0 ;
+	}
+
+	public void clear() {
+	    size = 0 ;
+	}
+
+	void push( int id, long time ) {
+	    if (size == ids.length) {
+		ids = Arrays.copyOf( ids, 2*size ) ;
+		times = Arrays.copyOf( times, 2*size ) ;
+	    }
+
+	    ids[size] = id ;
+	    times[size] = time ;
+	    size++ ;
+	}
+    }
+
+    // Record an ENTER or EXIT of timer at time on stack.  On EXIT, the
+    // duration of the enter/exit pair is passed to recordDuration, and
+    // removed from the times of all enclosing ENTERs.
+    protected final void notify( TimerStack stack, Timer timer,
+	boolean enter, long time ) {
+
+	int id = timer.id() ;
+
+	if (enter) {
+	    stack.push( id, time ) ;
+	} else {
+	    // pop off the ENTER event, record duration
+	    if (stack.empty()) {
+		throw new IllegalStateException( 
+		    "Unexpected empty stack for EXIT event on timer " + timer ) ;
+	    } else {
+		stack.size-- ;
+		int enterId = stack.ids[stack.size] ;
+		if (enterId != id)
+		    throw new IllegalStateException(
+			"Expected timer " + timer + " but found timer "
+			    + factory().getControllable( enterId )
+			    + " on the TimerEvent stack" ) ;
+
+		long duration = time - stack.times[stack.size] ;
+
+		// Remove the contribution of nested calls from
+		// the time for all outer calls.
+		for (int ctr=0; ctr<stack.size; ctr++) {
+		    stack.times[ctr] += duration ;
+		}
+
+		recordDuration( id, duration ) ;
+	    }
+	}
+    }
+
+    /** Record event on a stack of TimerEvents.
+     * @param teStack The stack of ENTER events.
+     * @param event The event to record.
+     * @deprecated Keep the ENTER events in a TimerStack and use
+     * notify( TimerStack, Timer, boolean, long ), which does not allocate
+     * a TimerEvent for each event.
+     */
+    @Deprecated
     protected final void notify( Stack<TimerEvent> teStack, TimerEvent event ) {
 	Timer timer = event.timer() ;
 	int id = timer.id() ;
@@ -86,14 +231,17 @@ public abstract class StatsEventHandlerBase extends NamedBase
 
     public Map<Timer,Statistics> stats() {
 	Map<Timer,Statistics> result = new HashMap<Timer,Statistics>() ;
-	for (int ctr=0; ctr<saList.size(); ctr++) {
+	AtomicReferenceArray<StatisticsAccumulator> current = accumulators ;
+	int size = factory().numberOfIds() ;
+	for (int ctr=0; ctr<size; ctr++) {
 	    Controllable con = factory().getControllable( ctr ) ;
 
 	    // ignore IDs of TimerGroups	
 	    if (con instanceof Timer) {
 		Timer timer = Timer.class.cast( con ) ;
-		StatisticsAccumulator sa = saList.get(ctr) ; 
-		result.put( timer, sa.getStats() ) ;
+		StatisticsAccumulator sa = (ctr < current.length()) 
+		    ? current.get( ctr ) : null ; 
+		result.put( timer, (sa == null) ? EMPTY_STATS : sa.getStats() ) ;
 	    }
 	}
 
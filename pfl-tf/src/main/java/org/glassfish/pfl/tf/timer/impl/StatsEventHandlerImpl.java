@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -10,34 +11,40 @@
 
 package org.glassfish.pfl.tf.timer.impl ;
 
-import java.util.Stack;
-
 import org.glassfish.pfl.tf.timer.spi.StatisticsAccumulator;
+import org.glassfish.pfl.tf.timer.spi.Timer;
 import org.glassfish.pfl.tf.timer.spi.TimerEvent;
 import org.glassfish.pfl.tf.timer.spi.TimerFactory;
 
 // This is a single threaded version of the stats event handler.  It will not
 // work correctly if multiple threads are generating timer events!
 public class StatsEventHandlerImpl extends StatsEventHandlerBase {
-    private Stack<TimerEvent> teStack ; 
+    private TimerStack teStack ; 
+
+    StatsEventHandlerImpl( TimerFactory factory, String name,
+	boolean keepHistograms ) {
 
-    StatsEventHandlerImpl( TimerFactory factory, String name ) {
-	super( factory, name ) ;
-	teStack = new Stack<TimerEvent>() ;
+	super( factory, name, keepHistograms ) ;
+	teStack = new TimerStack() ;
     }
 
     public void clear() {
 	super.clear() ;
-	while (!teStack.empty())
-	    teStack.pop() ;
+	teStack.clear() ;
     }
 
     protected void recordDuration( int id, long duration ) {
-	StatisticsAccumulator acc = saList.get( id ) ;
+	StatisticsAccumulator acc = accumulator( id ) ;
 	acc.sample( duration ) ;
     }
 
     public void notify( TimerEvent event ) {
-	notify( teStack, event ) ;
+	notify( event.timer(),
+	    event.type() == TimerEvent.TimerEventType.ENTER, event.time() ) ;
+    }
+
+    @Override
+    public void notify( Timer timer, boolean enter, long time ) {
+	notify( teStack, timer, enter, time ) ;
     }
 }
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -10,10 +11,12 @@
 
 package org.glassfish.pfl.tf.timer.impl ;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -43,6 +46,12 @@ import org.glassfish.pfl.tf.timer.spi.TimerGroup;
 // which is used for all enable/disable/TimerGroup contents changes.
 // A lock will also be used in Timer to control access to the
 // activation state of a Timer.
+//
+// Activation is updated incrementally.  Each Timer counts the reasons it
+// is activated (its own enabled flag, and each enabled TimerGroup that
+// reaches it), and each enabled TimerGroup remembers the Timers it
+// counts towards.  A change only visits the Timers whose count changes,
+// and the groups that contain (directly or not) a changed group.
 public class TimerFactoryImpl extends TimerGroupImpl implements TimerFactory {
     private ObjectRegistrationManager orm ;
 
@@ -156,6 +165,26 @@ public class TimerFactoryImpl extends TimerGroupImpl implements TimerFactory {
 	return result ;
     }
 
+    @Override
+    public synchronized TimerEventHandler makeJfrEventHandler( String name ) {
+	if (timerEventHandlers.keySet().contains( name )) {
+            throw new IllegalArgumentException("Name " + name +
+                " is already in use.");
+        }
+
+	TimerEventHandler result ;
+	try {
+	    result = new JfrEventHandlerImpl( factory(), name ) ;
+	} catch (NoClassDefFoundError exc) {
+	    throw new IllegalStateException(
+		"The jdk.jfr module is not present", exc ) ;
+	}
+
+        orm.manage( this, result ) ;
+	timerEventHandlers.put( name, result ) ;
+	return result ;
+    }
+
     @Override
     public synchronized LogEventHandler makeLogEventHandler( String name ) {
 	if (timerEventHandlers.keySet().contains( name )) {
@@ -170,30 +199,60 @@ public class TimerFactoryImpl extends TimerGroupImpl implements TimerFactory {
     }
 
     @Override
-    public synchronized StatsEventHandler makeStatsEventHandler( String name ) {
+    public synchronized LogEventHandler makeMultiThreadedLogEventHandler(
+	String name, int eventsPerThread ) {
+
+	if (timerEventHandlers.keySet().contains( name )) {
+            throw new IllegalArgumentException("Name " + name +
+                " is already in use.");
+        }
+
+	LogEventHandler result = new MultiThreadedLogEventHandlerImpl(
+	    factory(), name, eventsPerThread ) ;
+        orm.manage( this, result ) ;
+	timerEventHandlers.put( name, result ) ;
+	return result ;
+    }
+
+    @Override
+    public StatsEventHandler makeStatsEventHandler( String name ) {
+	return makeStatsEventHandler( name, false ) ;
+    }
+
+    @Override
+    public synchronized StatsEventHandler makeStatsEventHandler( String name,
+	boolean keepHistograms ) {
+
 	if (timerEventHandlers.keySet().contains( name )) {
             throw new IllegalArgumentException("Name " + name +
                 " is already in use.");
         }
 
 	StatsEventHandler result = new StatsEventHandlerImpl( factory(), 
-	    name ) ;
+	    name, keepHistograms ) ;
         orm.manage( this, result ) ;
 	timerEventHandlers.put( name, result ) ;
 	return result ;
     }
 
     @Override
-    public synchronized StatsEventHandler makeMultiThreadedStatsEventHandler( 
+    public StatsEventHandler makeMultiThreadedStatsEventHandler( 
 	String name ) {
 
+	return makeMultiThreadedStatsEventHandler( name, false ) ;
+    }
+
+    @Override
+    public synchronized StatsEventHandler makeMultiThreadedStatsEventHandler( 
+	String name, boolean keepHistograms ) {
+
 	if (timerEventHandlers.keySet().contains( name )) {
             throw new IllegalArgumentException("Name " + name +
                 " is already in use.");
         }
 
 	StatsEventHandler result = new MultiThreadedStatsEventHandlerImpl( 
-	    factory(), name ) ;
+	    factory(), name, keepHistograms ) ;
         orm.manage( this, result ) ;
 	timerEventHandlers.put( name, result ) ;
 	return result ;
@@ -306,28 +365,82 @@ public class TimerFactoryImpl extends TimerGroupImpl implements TimerFactory {
 	return result ;    
     }
 
-    void updateActivation() {
-	// First, set all timers to their enabled state.
-	// Enabled timers are always activated, but disabled
-	// timers may be enabled later because of enabled
-	// timer groups.
-	for (TimerImpl timer : timers.values()) {
-	    timer.setActivated( timer.isEnabled() ) ;
-	}
-	
-	// Now, iterate over the tcContents of the TimerGroups.
-	// Activate each Timer contained in the transitive closure
-	// of an enabled TimerGroup.
-	for (TimerGroupImpl tg : timerGroups.values()) {
+    // Called with the factory lock held after con is enabled or disabled.
+    void updateActivation( ControllableBase con ) {
+	if (con instanceof TimerImpl) {
+	    TimerImpl.class.cast( con ).adjustActivation( 
+		con.isEnabled() ? 1 : -1 ) ;
+	} else if (con instanceof TimerGroupImpl) {
+	    TimerGroupImpl tg = TimerGroupImpl.class.cast( con ) ;
 	    if (tg.isEnabled()) {
-		Set<ControllableBase> tcc = tg.tcContents() ;
-		for (ControllableBase c : tcc) {
-		    if (c instanceof Timer) {
-			TimerImpl ti = TimerImpl.class.cast( c ) ;
-			ti.setActivated( true ) ;
-		    }
+		Set<TimerImpl> tcTimers = TimerGroupImpl.tcTimers( tg ) ;
+		for (TimerImpl timer : tcTimers) {
+		    timer.adjustActivation( 1 ) ;
+		}
+		tg.activatedTimers( tcTimers ) ;
+	    } else {
+		for (TimerImpl timer : tg.activatedTimers()) {
+		    timer.adjustActivation( -1 ) ;
+		}
+		tg.activatedTimers( null ) ;
+	    }
+	}
+    }
+
+    // Return the enabled groups among tg and all groups that contain it,
+    // directly or through other groups.
+    private List<TimerGroupImpl> enabledContainers( TimerGroupImpl tg ) {
+	final List<TimerGroupImpl> result = new ArrayList<TimerGroupImpl>() ;
+	final Set<TimerGroupImpl> visited = new HashSet<TimerGroupImpl>() ;
+	final List<TimerGroupImpl> work = new ArrayList<TimerGroupImpl>() ;
+	work.add( tg ) ;
+	visited.add( tg ) ;
+	while (!work.isEmpty()) {
+	    TimerGroupImpl current = work.remove( work.size() - 1 ) ;
+	    if (current.isEnabled()) {
+		result.add( current ) ;
+	    }
+
+	    for (TimerGroupImpl container : current.containers()) {
+		if (visited.add( container )) {
+		    work.add( container ) ;
+		}
+	    }
+	}
+
+	return result ;
+    }
+
+    // Called with the factory lock held after con is added to tg.
+    // Everything reachable from con is now reachable from every group
+    // that reaches tg.
+    void contentAdded( TimerGroupImpl tg, ControllableBase con ) {
+	Set<TimerImpl> added = null ;
+	for (TimerGroupImpl group : enabledContainers( tg )) {
+	    if (added == null) {
+		added = TimerGroupImpl.tcTimers( con ) ;
+	    }
+
+	    for (TimerImpl timer : added) {
+		if (group.activatedTimers().add( timer )) {
+		    timer.adjustActivation( 1 ) ;
+		}
+	    }
+	}
+    }
+
+    // Called with the factory lock held after something is removed from
+    // tg.  The removed Controllable may still be reachable by another
+    // path, so recompute the Timers for each enabled group that reaches tg.
+    void contentRemoved( TimerGroupImpl tg ) {
+	for (TimerGroupImpl group : enabledContainers( tg )) {
+	    Set<TimerImpl> current = TimerGroupImpl.tcTimers( group ) ;
+	    for (TimerImpl timer : group.activatedTimers()) {
+		if (!current.contains( timer )) {
+		    timer.adjustActivation( -1 ) ;
 		}
 	    }
+	    group.activatedTimers( current ) ;
 	}
     }
 
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -25,11 +26,10 @@ public class TimerGroupImpl extends ControllableBase implements TimerGroup {
     private Set<ControllableBase> roContents ;
     private long contentVersion ;
 
-    private Set<ControllableBase> tcContents ;	// the transitive closure for this element
-						// of the relation created by contents.
-    private Set<ControllableBase> roTcContents ;
-
-    private long tcContentVersion ;
+    // While this group is enabled, the Timers in the transitive closure
+    // of contents, each of which this group counts towards activating.
+    // Null while this group is disabled.  Guarded by the factory lock.
+    private Set<TimerImpl> activatedTimers ;
 
     TimerGroupImpl( int id, TimerFactoryImpl factory, String name, String description ) {
 	super( id, name, description, factory ) ;
@@ -37,10 +37,7 @@ public class TimerGroupImpl extends ControllableBase implements TimerGroup {
 	contents = new HashSet<ControllableBase>() ;
 	roContents = Collections.unmodifiableSet( contents ) ;
 	contentVersion = 0 ;
-
-	tcContents = new HashSet<ControllableBase>() ;
-	roTcContents = Collections.unmodifiableSet( tcContents ) ;
-	tcContentVersion = -1 ;
+	activatedTimers = null ;
     }
 
     public Set<ControllableBase> contents() {
@@ -49,31 +46,52 @@ public class TimerGroupImpl extends ControllableBase implements TimerGroup {
 
     public boolean add( Controllable con ) {
 	synchronized (factory()) {
-	    boolean result = contents.add( ControllableBase.class.cast( con ) ) ;
-	    if (result)
+	    ControllableBase cb = ControllableBase.class.cast( con ) ;
+	    boolean result = contents.add( cb ) ;
+	    if (result) {
 		contentVersion++ ;
+		cb.containers().add( this ) ;
+		factory().contentAdded( this, cb ) ;
+	    }
 	    return result ;
 	}
     }
 
     public boolean remove( Controllable con ) {
 	synchronized (factory()) {
-	    boolean result = contents.remove( ControllableBase.class.cast( con ) ) ;
-	    if (result)
+	    ControllableBase cb = ControllableBase.class.cast( con ) ;
+	    boolean result = contents.remove( cb ) ;
+	    if (result) {
 		contentVersion++ ;
+		cb.containers().remove( this ) ;
+		factory().contentRemoved( this ) ;
+	    }
 	    return result ;
 	}
     }
 
-    // Get the transitive closure.  This is cached, and updated if the
-    // contents have changed since the last access to tcContents.
-    Set<ControllableBase> tcContents() {
-	if (contentVersion != tcContentVersion) {
-	    tcContents.clear() ;
-	    transitiveClosure( tcContents ) ;
+    Set<TimerImpl> activatedTimers() {
+	return activatedTimers ;
+    }
+
+    void activatedTimers( Set<TimerImpl> timers ) {
+	activatedTimers = timers ;
+    }
+
+    // Return the Timers in the transitive closure of con under the
+    // contents relation.
+    static Set<TimerImpl> tcTimers( ControllableBase con ) {
+	Set<ControllableBase> tc = new HashSet<ControllableBase>() ;
+	con.transitiveClosure( tc ) ;
+
+	Set<TimerImpl> result = new HashSet<TimerImpl>() ;
+	for (ControllableBase c : tc) {
+	    if (c instanceof TimerImpl) {
+		result.add( TimerImpl.class.cast( c ) ) ;
+	    }
 	}
 
-	return roTcContents ;
+	return result ;
     }
 }
 
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -26,6 +27,11 @@ public class TimerImpl extends ControllableBase implements Timer {
     // to access an AtomicBoolean than a Boolean in the most common cases.
     private AtomicBoolean isActivated ;
 
+    // The number of reasons this Timer is activated: 1 if it is enabled,
+    // plus 1 for each enabled TimerGroup whose transitive closure contains
+    // it.  Guarded by the factory lock.
+    private int activationCount ;
+
     TimerImpl( int id, TimerFactoryImpl factory, String name, String description) {
 	super( id, name, description, factory ) ;
 	isActivated = new AtomicBoolean( false ) ;
@@ -38,4 +44,14 @@ public class TimerImpl extends ControllableBase implements Timer {
     void setActivated( boolean flag ) {
 	isActivated.set( flag ) ;
     }
+
+    // Add delta to activationCount, and update isActivated if that
+    // changed whether the count is 0.
+    void adjustActivation( int delta ) {
+	int old = activationCount ;
+	activationCount += delta ;
+	if ((old == 0) != (activationCount == 0)) {
+	    setActivated( activationCount > 0 ) ;
+	}
+    }
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.impl;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** The JFR event for one enter/exit pair of a Timer.  The thread, start
+ * time and duration are recorded by JFR.
+ */
+@Name( "org.glassfish.pfl.tf.TimerSpan" )
+@Label( "Timer Span" )
+@Category( { "GlassFish PFL", "Timers" } )
+@Description( "The interval between the enter and exit of a Timer" )
+class TimerSpanEvent extends Event {
+    @Label( "Timer Factory" )
+    String factoryName ;
+
+    @Label( "Timer" )
+    String timerName ;
+}
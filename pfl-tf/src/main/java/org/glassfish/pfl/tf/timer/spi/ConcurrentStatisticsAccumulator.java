@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.spi;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A StatisticsAccumulator that many threads may sample at once without
+ * locking.  The count and the sums are kept in LongAdder and DoubleAdder
+ * cells, which spread contending updates over several cells.  The minimum
+ * and maximum are updated by compare and set, which only happens while
+ * the value is actually changing.
+ * <p>
+ * A sample is added to the sums before it is counted, and getStats()
+ * reads the count before the sums, so every counted sample is included in
+ * the Statistics it returns.  A sample that is being recorded while the
+ * snapshot is taken may add to the sums without being counted; getStats()
+ * retries a few times when the count changes while it reads.
+ * <p>
+ * When percentiles are wanted, all threads record into one
+ * LatencyHistogram, whose counts are updated atomically, so its size is
+ * fixed however many threads sample.
+ */
+public class ConcurrentStatisticsAccumulator extends StatisticsAccumulator {
+    private static final int SNAPSHOT_ATTEMPTS = 4 ;
+
+    private final LongAdder count = new LongAdder() ;
+    private final DoubleAdder sum = new DoubleAdder() ;
+    private final DoubleAdder squareSum = new DoubleAdder() ;
+
+    // Doubles held as their raw long bits so that they can be CASed.
+    private final AtomicLong minBits = new AtomicLong(
+        Double.doubleToRawLongBits( Double.MAX_VALUE ) ) ;
+    private final AtomicLong maxBits = new AtomicLong(
+        Double.doubleToRawLongBits( Double.MIN_VALUE ) ) ;
+
+    // Null if no percentiles are wanted.
+    private final LatencyHistogram histogram ;
+
+    public ConcurrentStatisticsAccumulator( String unit ) {
+        super( unit ) ;
+        histogram = null ;
+    }
+
+    /** Create an accumulator that also keeps histograms of the samples, so
+     * that its Statistics can report percentiles.
+     * @param unit a String representing the units for the samples collected
+     * @param highestTrackableValue the highest value kept in the histograms
+     * @param significantDigits the precision of the histograms
+     * @see LatencyHistogram
+     */
+    public ConcurrentStatisticsAccumulator( String unit,
+        long highestTrackableValue, int significantDigits ) {
+        super( unit ) ;
+        histogram = new LatencyHistogram( highestTrackableValue,
+            significantDigits ) ;
+    }
+
+    @Override
+    public long count() { return count.sum() ; }
+
+    @Override
+    public double min() { return Double.longBitsToDouble( minBits.get() ) ; }
+
+    @Override
+    public double max() { return Double.longBitsToDouble( maxBits.get() ) ; }
+
+    @Override
+    double sampleSum() { return sum.sum() ; }
+
+    @Override
+    double sampleSquareSum() { return squareSum.sum() ; }
+
+    @Override
+    LatencyHistogram histogram() { return histogram ; }
+
+    private void updateMin( double value ) {
+        long current = minBits.get() ;
+        while (value < Double.longBitsToDouble( current )
+            && !minBits.compareAndSet( current,
+                Double.doubleToRawLongBits( value ) )) {
+            current = minBits.get() ;
+        }
+    }
+
+    private void updateMax( double value ) {
+        long current = maxBits.get() ;
+        while (value > Double.longBitsToDouble( current )
+            && !maxBits.compareAndSet( current,
+                Double.doubleToRawLongBits( value ) )) {
+            current = maxBits.get() ;
+        }
+    }
+
+    @Override
+    public void sample( double value ) {
+        sum.add( value ) ;
+        squareSum.add( value * value ) ;
+        updateMin( value ) ;
+        updateMax( value ) ;
+
+        if (histogram != null) {
+            histogram.record( (long)value ) ;
+        }
+
+        count.increment() ;
+    }
+
+    @Override
+    public Statistics getStats() {
+        long cnt = count.sum() ;
+        double s = sum.sum() ;
+        double sq = squareSum.sum() ;
+        double mn = min() ;
+        double mx = max() ;
+
+        for (int ctr=1; ctr<SNAPSHOT_ATTEMPTS && cnt != count.sum(); ctr++) {
+            cnt = count.sum() ;
+            s = sum.sum() ;
+            sq = squareSum.sum() ;
+            mn = min() ;
+            mx = max() ;
+        }
+
+        return new Statistics( cnt, mn, mx, s/cnt,
+            standardDeviation( cnt, s, sq ),
+            (histogram == null) ? null : histogram.copy() ) ;
+    }
+
+    @Override
+    public void augment( StatisticsAccumulator acc ) {
+        if (!unit().equals( acc.unit() )) {
+            throw new IllegalArgumentException( "Units must match: this = "
+                + unit() + " other = " + acc.unit() ) ;
+        }
+
+        sum.add( acc.sampleSum() ) ;
+        squareSum.add( acc.sampleSquareSum() ) ;
+        updateMin( acc.min() ) ;
+        updateMax( acc.max() ) ;
+
+        LatencyHistogram other = acc.histogram() ;
+        if (histogram != null && other != null) {
+            histogram.add( other ) ;
+        }
+
+        count.add( acc.count() ) ;
+    }
+
+    /**
+     *  Clears the samples and starts fresh on new samples.  Samples that
+     *  are recorded while this runs may be partly lost.
+     */
+    @Override
+    public void clearState() {
+        // Called from the StatisticsAccumulator constructor, before the
+        // cells of this class are initialized.
+        if (count == null) {
+            return ;
+        }
+
+        count.reset() ;
+        sum.reset() ;
+        squareSum.reset() ;
+        minBits.set( Double.doubleToRawLongBits( Double.MAX_VALUE ) ) ;
+        maxBits.set( Double.doubleToRawLongBits( Double.MIN_VALUE ) ) ;
+
+        if (histogram != null) {
+            histogram.clear() ;
+        }
+    }
+}
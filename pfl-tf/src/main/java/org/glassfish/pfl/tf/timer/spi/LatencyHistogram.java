@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.spi;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A fixed size histogram of non-negative long values, such as durations in
+ * nanoseconds, from which percentiles can be read.  The buckets are
+ * log-linear, in the same way as in HdrHistogram: each power of two range
+ * of values is split into the same number of equal sub-buckets, so the
+ * value reported for a bucket is within 10^-significantDigits of any value
+ * recorded in it.  Values above the highest trackable value are recorded
+ * as the highest trackable value, and negative values as 0.
+ * <p>
+ * record() takes constant time and allocates nothing.  The counts are
+ * updated atomically, so many threads may record into the same histogram
+ * at once, and other threads may read it, copy it or add it to another
+ * histogram at any time, though what they read may not include the most
+ * recent samples.
+ */
+public class LatencyHistogram {
+    private static final VarHandle COUNTS =
+        MethodHandles.arrayElementVarHandle( long[].class ) ;
+    private static final VarHandle TOTAL ;
+
+    static {
+        try {
+            TOTAL = MethodHandles.lookup().findVarHandle(
+                LatencyHistogram.class, "totalCount", long.class ) ;
+        } catch (ReflectiveOperationException exc) {
+            throw new ExceptionInInitializerError( exc ) ;
+        }
+    }
+
+    private final long highestTrackableValue ;
+    private final int significantDigits ;
+
+    private final int subBucketHalfCountMagnitude ;
+    private final int subBucketHalfCount ;
+    private final long subBucketMask ;
+    private final int leadingZeroCountBase ;
+
+    private final long[] counts ;
+    private long totalCount ;
+
+    /** Create a histogram that can track values from 0 to
+     * highestTrackableValue.
+     * @param highestTrackableValue The highest value that is recorded
+     * exactly (to the given number of significant digits).  Must be at
+     * least 2.
+     * @param significantDigits The number of significant decimal digits to
+     * which recorded values are kept, from 1 to 5.
+     */
+    public LatencyHistogram( long highestTrackableValue, int significantDigits ) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException(
+                "significantDigits must be from 1 to 5" ) ;
+        }
+
+        if (highestTrackableValue < 2) {
+            throw new IllegalArgumentException(
+                "highestTrackableValue must be at least 2" ) ;
+        }
+
+        this.highestTrackableValue = highestTrackableValue ;
+        this.significantDigits = significantDigits ;
+
+        // The smallest power of two sub-bucket count that can tell apart
+        // all values with the given number of significant digits.
+        long largestSingleUnitValue = 2 * (long)Math.pow( 10,
+            significantDigits ) ;
+        int subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(
+            largestSingleUnitValue - 1 ) ;
+        int subBucketCount = 1 << subBucketCountMagnitude ;
+
+        subBucketHalfCountMagnitude = subBucketCountMagnitude - 1 ;
+        subBucketHalfCount = subBucketCount / 2 ;
+        subBucketMask = subBucketCount - 1 ;
+        leadingZeroCountBase = 64 - subBucketCountMagnitude ;
+
+        counts = new long[countsIndex( highestTrackableValue ) + 1] ;
+    }
+
+    private LatencyHistogram( LatencyHistogram other ) {
+        this( other.highestTrackableValue, other.significantDigits ) ;
+    }
+
+    private int countsIndex( long value ) {
+        int bucketIndex = leadingZeroCountBase
+            - Long.numberOfLeadingZeros( value | subBucketMask ) ;
+        int subBucketIndex = (int)(value >>> bucketIndex) ;
+        return ((bucketIndex + 1) << subBucketHalfCountMagnitude)
+            + (subBucketIndex - subBucketHalfCount) ;
+    }
+
+    // The highest value that is recorded in the bucket at index.
+    private long highestValueAt( int index ) {
+        int bucketIndex = (index >> subBucketHalfCountMagnitude) - 1 ;
+        int subBucketIndex = (index & (subBucketHalfCount - 1))
+            + subBucketHalfCount ;
+        if (bucketIndex < 0) {
+            subBucketIndex -= subBucketHalfCount ;
+            bucketIndex = 0 ;
+        }
+
+        long lowest = ((long)subBucketIndex) << bucketIndex ;
+        return lowest + (1L << bucketIndex) - 1 ;
+    }
+
+    private long countAt( int index ) {
+        return (long)COUNTS.getOpaque( counts, index ) ;
+    }
+
+    public long highestTrackableValue() { return highestTrackableValue ; }
+
+    public int significantDigits() { return significantDigits ; }
+
+    /** Record a single value.
+     * @param value The value to record.
+     */
+    public void record( long value ) {
+        if (value < 0) {
+            value = 0 ;
+        } else if (value > highestTrackableValue) {
+            value = highestTrackableValue ;
+        }
+
+        COUNTS.getAndAdd( counts, countsIndex( value ), 1L ) ;
+        TOTAL.getAndAdd( this, 1L ) ;
+    }
+
+    /** Return the number of values recorded.
+     */
+    public long count() {
+        return (long)TOTAL.getOpaque( this ) ;
+    }
+
+    /** Add all of the values recorded in other to this histogram.  other
+     * must have the same highest trackable value and significant digits.
+     * @param other The histogram to add.
+     */
+    public void add( LatencyHistogram other ) {
+        if (other.highestTrackableValue != highestTrackableValue
+            || other.significantDigits != significantDigits) {
+            throw new IllegalArgumentException(
+                "Histograms must have the same range and precision" ) ;
+        }
+
+        long added = 0 ;
+        for (int ctr=0; ctr<counts.length; ctr++) {
+            long count = other.countAt( ctr ) ;
+            if (count != 0) {
+                COUNTS.getAndAdd( counts, ctr, count ) ;
+                added += count ;
+            }
+        }
+
+        TOTAL.getAndAdd( this, added ) ;
+    }
+
+    /** Return a new histogram holding the values recorded so far.
+     */
+    public LatencyHistogram copy() {
+        LatencyHistogram result = new LatencyHistogram( this ) ;
+        result.add( this ) ;
+        return result ;
+    }
+
+    /** Return the value below which the given percentage of the recorded
+     * values fall, or -1 if there is no data.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The highest value of the bucket that holds the percentile.
+     */
+    public long valueAtPercentile( double percentile ) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(
+                "percentile must be from 0 to 100" ) ;
+        }
+
+        // Sum the buckets rather than using totalCount, so that the result
+        // is consistent with the counts read.
+        long total = 0 ;
+        for (int ctr=0; ctr<counts.length; ctr++) {
+            total += countAt( ctr ) ;
+        }
+
+        if (total == 0) {
+            return -1 ;
+        }
+
+        long target = Math.max( 1,
+            (long)Math.ceil( percentile / 100 * total ) ) ;
+        long seen = 0 ;
+        for (int ctr=0; ctr<counts.length; ctr++) {
+            seen += countAt( ctr ) ;
+            if (seen >= target) {
+                return Math.min( highestValueAt( ctr ),
+                    highestTrackableValue ) ;
+            }
+        }
+
+        // Only reached if counts changed during the second pass.
+        return highestTrackableValue ;
+    }
+
+    /** Discard all recorded values.  Values that other threads record
+     * while this runs may be partly lost.
+     */
+    public void clear() {
+        for (int ctr=0; ctr<counts.length; ctr++) {
+            COUNTS.setOpaque( counts, ctr, 0L ) ;
+        }
+
+        TOTAL.setOpaque( this, 0L ) ;
+    }
+}
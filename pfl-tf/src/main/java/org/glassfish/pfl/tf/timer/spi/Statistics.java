@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -18,15 +19,26 @@ public class Statistics {
     private final double max ;
     private final double average ;
     private final double standardDeviation ;
+    private final LatencyHistogram histogram ;
 
     public Statistics( long count, double min, double max,
 	double average, double standardDeviation ) {
 
+	this( count, min, max, average, standardDeviation, null ) ;
+    }
+
+    /** Create statistics that can also report percentiles.  histogram
+     * must not be changed after it is passed here.
+     */
+    public Statistics( long count, double min, double max,
+	double average, double standardDeviation, LatencyHistogram histogram ) {
+
 	this.count = count ;
 	this.min = min ;
 	this.max = max ;
 	this.average = average ;
 	this.standardDeviation = standardDeviation ;
+	this.histogram = histogram ;
     }
 
     /** Return the number of data points recorded.
@@ -51,6 +63,19 @@ public class Statistics {
      */
     public double standardDeviation() { return standardDeviation ; }
 
+    /** Return the value below which the given percentage of the data
+     * falls, to the precision of the histogram it was recorded in, or -1
+     * if there is no data or no histogram was kept.  For example,
+     * percentile( 99 ) is the 99th percentile.
+     */
+    public double percentile( double percentile ) {
+	if (histogram == null) {
+	    return -1 ;
+	}
+
+	return histogram.valueAtPercentile( percentile ) ;
+    }
+
     @Override
     public boolean equals( Object obj ) {
 	if (obj == this) {
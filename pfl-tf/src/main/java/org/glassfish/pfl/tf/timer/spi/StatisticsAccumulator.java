@@ -22,6 +22,10 @@ package org.glassfish.pfl.tf.timer.spi;
  * Users can easily extend this class and provide the implementation of
  * toString() method to format the stats as desired. By default all the stats
  * are printed in a single line.
+ * <p>
+ * If the accumulator is created with a LatencyHistogram, each sample is
+ * also recorded in the histogram, and the Statistics returned by
+ * getStats() can report percentiles.
  *
  * @author Hemanth Puttaswamy
  */
@@ -36,6 +40,7 @@ public class StatisticsAccumulator {
     private long sampleCount; 
     private String unit;
     private Statistics stats ;
+    private final LatencyHistogram histogram ;
 
     public String unit() { return unit ; }
 
@@ -45,12 +50,23 @@ public class StatisticsAccumulator {
 
     public double max() { return max ; }
 
-    public double average( ) { return sampleSum/sampleCount ; }
+    double sampleSum() { return sampleSum ; }
+
+    double sampleSquareSum() { return sampleSquareSum ; }
+
+    // The values sampled so far, or null if there is no histogram.
+    LatencyHistogram histogram() { return histogram ; }
+
+    public double average( ) { return sampleSum()/count() ; }
 
     public double standardDeviation( ) {
-        double sampleSumSquare = sampleSum * sampleSum;
+        return standardDeviation( count(), sampleSum(), sampleSquareSum() ) ;
+    }
+
+    static double standardDeviation( long count, double sum, double squareSum ) {
+        double sampleSumSquare = sum * sum;
         return Math.sqrt( 
-            (sampleSquareSum-((sampleSumSquare)/sampleCount))/(sampleCount-1));
+            (squareSum-((sampleSumSquare)/count))/(count-1));
     }
 
     public void sample(double value) {        
@@ -61,11 +77,14 @@ public class StatisticsAccumulator {
 	    max = value;
         sampleSum += value;
         sampleSquareSum += (value * value);
+        if (histogram != null)
+            histogram.record( (long)value ) ;
     }
 
     public synchronized Statistics getStats() {
 	if ((stats == null) || (stats.count() != sampleCount)) {
-	    stats = new Statistics( sampleCount, min, max, average(), standardDeviation() ) ; 
+	    stats = new Statistics( sampleCount, min, max, average(), standardDeviation(),
+		(histogram == null) ? null : histogram.copy() ) ; 
 	}
 
 	return stats ;
@@ -77,12 +96,16 @@ public class StatisticsAccumulator {
 		+ unit + " other = " + acc.unit ) ;
 
 	sampleCount += acc.count() ;
-	if (acc.min < min)
-	    min = acc.min ;
+	if (acc.min() < min)
+	    min = acc.min() ;
 	if (acc.max() > max) 
-	    max = acc.max ;
-	sampleSum += acc.sampleSum ;
-	sampleSquareSum += acc.sampleSquareSum ;
+	    max = acc.max() ;
+	sampleSum += acc.sampleSum() ;
+	sampleSquareSum += acc.sampleSquareSum() ;
+
+	LatencyHistogram other = acc.histogram() ;
+	if (histogram != null && other != null)
+	    histogram.add( other ) ;
     }
 
     /**
@@ -98,11 +121,11 @@ public class StatisticsAccumulator {
      *  Stats in the format they prefer, if the default format doesn't suffice.
      */
     public String toString( ) {
-        return "Minimum Value = " + min + " " + unit + " " +
-            "Maximum Value = " + max + " " + unit + " " +
+        return "Minimum Value = " + min() + " " + unit + " " +
+            "Maximum Value = " + max() + " " + unit + " " +
             "Average Value = " + average() + " " +  unit + " " +
             "Standard Deviation = " + standardDeviation() + " " + unit + 
-            " " + "Samples Collected = " + sampleCount;
+            " " + "Samples Collected = " + count();
     }
 
 
@@ -114,7 +137,17 @@ public class StatisticsAccumulator {
  * @param unit a String representing the units for the samples collected
  */
     public StatisticsAccumulator( String unit ) {
+        this( unit, null ) ;
+    }
+
+    /** Construct a Statistics Accumulator that also records every sample
+     * in histogram, so that percentiles can be reported.
+     * @param unit a String representing the units for the samples collected
+     * @param histogram the histogram to record into, or null for none
+     */
+    public StatisticsAccumulator( String unit, LatencyHistogram histogram ) {
         this.unit = unit;
+        this.histogram = histogram ;
 	clearState() ;
     }
 
@@ -128,6 +161,8 @@ public class StatisticsAccumulator {
         sampleCount = 0;
         sampleSum = 0;
         sampleSquareSum = 0;
+        if (histogram != null)
+            histogram.clear() ;
 
 	synchronized (this) {
 	    stats = null ;
@@ -146,20 +181,20 @@ public class StatisticsAccumulator {
                 "Unit is not same as expected Unit" +
                 "\nUnit = " + unit + "ExpectedUnit = " + expectedUnit );
         } 
-        if( min != expectedMin ) {
+        if( min() != expectedMin ) {
             throw new RuntimeException( 
                 "Minimum value is not same as expected minimum value" +
-                "\nMin Value = " + min + "Expected Min Value = " + expectedMin);
+                "\nMin Value = " + min() + "Expected Min Value = " + expectedMin);
         } 
-        if( max != expectedMax ) {
+        if( max() != expectedMax ) {
             throw new RuntimeException( 
                 "Maximum value is not same as expected maximum value" + 
-                "\nMax Value = " + max + "Expected Max Value = " + expectedMax);
+                "\nMax Value = " + max() + "Expected Max Value = " + expectedMax);
         } 
-        if( sampleCount != expectedSampleCount ) {
+        if( count() != expectedSampleCount ) {
             throw new RuntimeException( 
                 "Sample count is not same as expected Sample Count" + 
-                "\nSampleCount = " + sampleCount + "Expected Sample Count = " + 
+                "\nSampleCount = " + count() + "Expected Sample Count = " + 
                 expectedSampleCount);
         } 
         if( average() != expectedAverage ) {
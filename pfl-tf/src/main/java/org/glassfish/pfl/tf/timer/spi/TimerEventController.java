@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -26,7 +27,7 @@ public class TimerEventController extends TimerEventControllerBase {
      * case timer.isActivated() is true.
      */
     public void enter( Timer timer ) {
-	handle( timer, TimerEvent.TimerEventType.ENTER ) ;
+	handle( timer, true ) ;
     }
 
     /** Generate a TimerEvent representing the exit from a 
@@ -35,13 +36,14 @@ public class TimerEventController extends TimerEventControllerBase {
      * case timer.isActivated() is true.
      */
     public void exit( Timer timer ) {
-	handle( timer, TimerEvent.TimerEventType.EXIT ) ;
+	handle( timer, false ) ;
     }
    
-    private void handle( Timer timer, TimerEvent.TimerEventType type ) {
+    // The clock is read once, and the same time is passed to every
+    // handler.  No TimerEvent is created unless a handler needs one.
+    private void handle( Timer timer, boolean enter ) {
 	if (timer.isActivated()) {
-	    TimerEvent te = new TimerEvent( timer, type ) ;
-	    propagate( te ) ;
+	    propagate( timer, enter, System.nanoTime() ) ;
 	}
     }
 }
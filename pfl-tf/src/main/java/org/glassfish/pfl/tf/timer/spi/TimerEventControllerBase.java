@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -24,11 +25,15 @@ import org.glassfish.pfl.tf.timer.impl.TimerFactoryImpl;
  * extra data to the extended event.
  */
 public abstract class TimerEventControllerBase extends NamedBase {
-    // XXX We will need to explore the efficiency and synchronization
-    // here.  Should we use read/write locks around handlers?
-    // 
+    private static final TimerEventHandler[] NO_HANDLERS =
+	new TimerEventHandler[0] ;
+
+    // Updates are synchronized on this.  Events are sent to the
+    // handlers in handlerArray, which is replaced (never modified) on
+    // every update, so propagating an event takes no lock.
     private Set<TimerEventHandler> handlers ;
     private Set<TimerEventHandler> roHandlers ;
+    private volatile TimerEventHandler[] handlerArray = NO_HANDLERS ;
 
     public TimerEventControllerBase( TimerFactory factory, String name ) {
 	super( factory, name ) ;
@@ -41,15 +46,19 @@ public abstract class TimerEventControllerBase extends NamedBase {
     /** Register the handler to start receiving events from this
      * controller.
      */
-    public void register( TimerEventHandler handler ) {
-	handlers.add( handler ) ;
+    public synchronized void register( TimerEventHandler handler ) {
+	if (handlers.add( handler )) {
+	    handlerArray = handlers.toArray( NO_HANDLERS ) ;
+	}
     }	
 
     /** Deregister the handler to stop receiving events from this
      * controller.
      */
-    public void deregister( TimerEventHandler handler ) {
-	handlers.remove( handler ) ;
+    public synchronized void deregister( TimerEventHandler handler ) {
+	if (handlers.remove( handler )) {
+	    handlerArray = handlers.toArray( NO_HANDLERS ) ;
+	}
     }
 
     /** Read-only image of the set of Handlers.
@@ -61,9 +70,18 @@ public abstract class TimerEventControllerBase extends NamedBase {
     /** Send the event to all registered handlers.
      */
     protected void propagate( TimerEvent ev ) {
-	for (TimerEventHandler handler : handlers) {
+	for (TimerEventHandler handler : handlerArray) {
 	    handler.notify( ev ) ;
 	}
     }
+
+    /** Send an event to all registered handlers without creating a
+     * TimerEvent.
+     */
+    protected void propagate( Timer timer, boolean enter, long time ) {
+	for (TimerEventHandler handler : handlerArray) {
+	    handler.notify( timer, enter, time ) ;
+	}
+    }
 }
 
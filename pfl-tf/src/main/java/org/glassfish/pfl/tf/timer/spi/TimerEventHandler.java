@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -17,4 +18,17 @@ package org.glassfish.pfl.tf.timer.spi ;
  */
 public interface TimerEventHandler extends Named {
     void notify( TimerEvent event ) ;
+
+    /** Handle an event without a TimerEvent instance.  This is what
+     * TimerEventController calls for each event, so handlers that are
+     * used on hot paths should override it to avoid allocating.  The
+     * default creates a TimerEvent and passes it to notify( TimerEvent ).
+     * @param timer The timer for the event.
+     * @param enter True for an ENTER event, false for an EXIT event.
+     * @param time The time of the event, from System.nanoTime().
+     */
+    default void notify( Timer timer, boolean enter, long time ) {
+	notify( new TimerEvent( timer, enter ? TimerEvent.TimerEventType.ENTER
+	    : TimerEvent.TimerEventType.EXIT, time ) ) ;
+    }
 }
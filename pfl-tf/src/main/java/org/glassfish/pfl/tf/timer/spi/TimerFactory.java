@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -35,8 +36,30 @@ public interface TimerFactory extends TimerGroup {
      */
     LogEventHandler makeLogEventHandler( String name ) ;
 
+    /** Create a new LogEventHandler that may be used from many threads
+     * at once.  Each thread keeps its own log of the most recent
+     * eventsPerThread events (rounded up to a power of two), so logging
+     * takes no lock, and older events are dropped when a log is full.
+     * Iterating over the handler returns the events of all threads in
+     * order of time.
+     * All LogEventHandler names
+     * must be unique within the same TimerFactory.
+     */
+    LogEventHandler makeMultiThreadedLogEventHandler( String name,
+        int eventsPerThread ) ;
+
     TimerEventHandler makeTracingEventHandler( String name ) ;
 
+    /** Create a new TimerEventHandler that records each enter/exit pair
+     * as a JFR event named org.glassfish.pfl.tf.TimerSpan, which costs
+     * little while no recording has the event enabled.
+     * All TimerEventHandler names
+     * must be unique within the same TimerFactory.
+     * This TimerEventHandler is multi-thread safe.
+     * Throws IllegalStateException if the jdk.jfr module is not present.
+     */
+    TimerEventHandler makeJfrEventHandler( String name ) ;
+
     /** Create a new StatsEventHandler.  A StatsEventHandler records 
      * running statistics for all enter/exit pairs until it is cleared,
      * at which point it starts over.  It will keep data separated for
@@ -47,6 +70,14 @@ public interface TimerFactory extends TimerGroup {
      */
     StatsEventHandler makeStatsEventHandler( String name ) ;
 
+    /** Create a new StatsEventHandler as makeStatsEventHandler( String )
+     * does.  If keepHistograms is true, the handler also keeps a histogram
+     * of the durations of each Timer, so that its Statistics can report
+     * percentiles.  Each histogram takes about 36 KB.
+     */
+    StatsEventHandler makeStatsEventHandler( String name,
+        boolean keepHistograms ) ;
+
     /** Create a new StatsEventHandler.  A StatsEventHandler records 
      * running statistics for all enter/exit pairs until it is cleared,
      * at which point it starts over.  It will keep data separated for
@@ -57,6 +88,15 @@ public interface TimerFactory extends TimerGroup {
      */
     StatsEventHandler makeMultiThreadedStatsEventHandler( String name ) ;
 
+    /** Create a new multi-thread safe StatsEventHandler as
+     * makeMultiThreadedStatsEventHandler( String ) does.  If
+     * keepHistograms is true, the handler also keeps one histogram of the
+     * durations of each Timer, shared by all threads, so that its
+     * Statistics can report percentiles.  Each histogram takes about 36 KB.
+     */
+    StatsEventHandler makeMultiThreadedStatsEventHandler( String name,
+        boolean keepHistograms ) ;
+
     /** Remove the handler from this TimerFactory.  The handler
      * should not be used after this call.
      */
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.trace;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/** A method call or timer interval read from a trace by TraceFileReader,
+ * with the calls made inside it.  An info event is a TraceCall with no
+ * children whose enter and exit times are the same.
+ */
+public final class TraceCall {
+    private final String className ;
+    private final String methodName ;
+    private final long threadId ;
+    private final boolean info ;
+    private final List<TraceCall> children = new ArrayList<TraceCall>() ;
+
+    // Set by TraceFileReader while it builds the tree.
+    final int classId ;
+    final int ident ;
+    long enterTime = -1 ;
+    long exitTime = -1 ;
+    boolean exceptionThrown ;
+
+    TraceCall( int classId, int ident, String className, String methodName,
+        long threadId, boolean info ) {
+
+        this.classId = classId ;
+        this.ident = ident ;
+        this.className = className ;
+        this.methodName = methodName ;
+        this.threadId = threadId ;
+        this.info = info ;
+    }
+
+    void add( TraceCall child ) {
+        children.add( child ) ;
+    }
+
+    /** The name of the class, or of the TimerFactory for a timer.
+     */
+    public String className() { return className ; }
+
+    /** The name of the method, timer, or InfoMethod.
+     */
+    public String methodName() { return methodName ; }
+
+    public long threadId() { return threadId ; }
+
+    public boolean isInfo() { return info ; }
+
+    /** The System.nanoTime() of the enter event, or -1 if it is no longer
+     * in the trace.
+     */
+    public long enterTime() { return enterTime ; }
+
+    /** The System.nanoTime() of the exit event, or -1 if the call had not
+     * returned when the trace was read, or its exit was not recorded.
+     */
+    public long exitTime() { return exitTime ; }
+
+    /** The duration of the call in nanoseconds, or -1 if it is unknown.
+     */
+    public long duration() {
+        if (enterTime < 0 || exitTime < 0) {
+            return -1 ;
+        }
+
+        return exitTime - enterTime ;
+    }
+
+    /** True if an exception was reported by the call.
+     */
+    public boolean exceptionThrown() { return exceptionThrown ; }
+
+    public List<TraceCall> children() {
+        return Collections.unmodifiableList( children ) ;
+    }
+
+    @Override
+    public String toString() {
+        return className + "." + methodName
+            + (info ? "(info)" : "[" + duration() + "ns]")
+            + (exceptionThrown ? ":throw" : "") ;
+    }
+}
@@ -0,0 +1,458 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.trace;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.glassfish.pfl.tf.spi.MethodMonitor;
+import org.glassfish.pfl.tf.spi.MethodMonitorBase;
+import org.glassfish.pfl.tf.spi.MethodMonitorFactory;
+import org.glassfish.pfl.tf.spi.MethodMonitorFactoryBase;
+import org.glassfish.pfl.tf.spi.MethodMonitorRegistry;
+import org.glassfish.pfl.tf.timer.spi.Controllable;
+import org.glassfish.pfl.tf.timer.spi.NamedBase;
+import org.glassfish.pfl.tf.timer.spi.Timer;
+import org.glassfish.pfl.tf.timer.spi.TimerEvent;
+import org.glassfish.pfl.tf.timer.spi.TimerEventHandler;
+import org.glassfish.pfl.tf.timer.spi.TimerFactory;
+
+/**
+ * A trace of MethodMonitor and Timer events, kept in a set of memory
+ * mapped files that are reused in rotation.  Each event is a fixed size
+ * binary record, written without locking and without any I/O call, so
+ * that tracing can be left on in production.  Use TraceFileReader to read
+ * the files back.
+ * <p>
+ * The files are named prefix-N.trace, for N from 0 to maxFiles-1.  Each
+ * file starts with a header record, followed by the names of all classes
+ * and methods (or timers) traced so far, followed by events.  When a file
+ * is full, tracing continues in the next one, overwriting the oldest file
+ * once maxFiles have been used.
+ * <p>
+ * Every record is RECORD_SIZE bytes, big-endian:
+ * <pre>
+ *   0  int  type (one of the record type constants)
+ *   4  int  class id
+ *   8  int  method identifier, or timer id
+ *  12  int  extra: the caller identifier of an INFO record, or the
+ *           length of the UTF-8 name that follows a NAME record
+ *  16  long thread id
+ *  24  long System.nanoTime()
+ * </pre>
+ * The bytes of a name follow its NAME record, padded to a whole number of
+ * records.  A NAME record with identifier -1 names the class itself.
+ * Timers are traced with class id TIMER_CLASS_ID, and the class name is
+ * the name of the TimerFactory.  The header record has type HEADER, the
+ * file's sequence number as its class id, and System.nanoTime() and
+ * System.currentTimeMillis() when the file was started in place of the
+ * thread id and time.  Its identifier is RECORD_SIZE and its extra field
+ * is the size of the file; a file may be longer than that if it was left
+ * by an earlier trace with larger files.
+ * <p>
+ * The type of a record is written last, with release semantics, so a
+ * record with type 0 has not been completely written yet.
+ */
+public class TraceFile implements Closeable {
+    public static final int RECORD_SIZE = 32 ;
+    public static final int MAGIC = 0x50464c54 ; // "PFLT"
+
+    public static final int HEADER = MAGIC ;
+    public static final int ENTER = 1 ;
+    public static final int EXIT = 2 ;
+    public static final int EXCEPTION = 3 ;
+    public static final int INFO = 4 ;
+    public static final int NAME = 5 ;
+
+    public static final int TIMER_CLASS_ID = 0 ;
+
+    private static final int MAX_NAME_LENGTH = 1024 ;
+
+    private static final VarHandle INT_VIEW =
+        MethodHandles.byteBufferViewVarHandle( int[].class,
+            ByteOrder.BIG_ENDIAN ) ;
+
+    // One mapped file.  next is the offset of the first free record.
+    private static final class Segment {
+        final MappedByteBuffer buffer ;
+        final AtomicLong next = new AtomicLong() ;
+
+        Segment( MappedByteBuffer buffer ) {
+            this.buffer = buffer ;
+        }
+    }
+
+    private final File directory ;
+    private final String prefix ;
+    private final int fileSize ;
+    private final int maxFiles ;
+
+    // Classes traced so far, with their ids.  Ids start after
+    // TIMER_CLASS_ID.  Only changed while holding the lock on this.
+    private final Map<Class<?>,Integer> classIds =
+        new ConcurrentHashMap<Class<?>,Integer>() ;
+    private final AtomicInteger nextClassId =
+        new AtomicInteger( TIMER_CLASS_ID + 1 ) ;
+
+    // The names written at the start of every file, in the order in which
+    // they were registered.  Each entry is {classId, ident, name}.
+    private final List<Object[]> names = new ArrayList<Object[]>() ;
+
+    private int sequence = -1 ;
+    private volatile Segment current ;
+    private volatile boolean closed ;
+
+    /** Create a trace and open its first file.
+     * @param directory The directory that holds the files.
+     * @param prefix The start of the name of each file.
+     * @param fileSize The size of each file in bytes.  Rounded down to a
+     * multiple of RECORD_SIZE.
+     * @param maxFiles The number of files used in rotation, at least 2.
+     * @throws IOException if the first file cannot be created.
+     */
+    public TraceFile( File directory, String prefix, int fileSize,
+        int maxFiles ) throws IOException {
+
+        if (fileSize < 64 * RECORD_SIZE) {
+            throw new IllegalArgumentException(
+                "fileSize must be at least " + 64 * RECORD_SIZE ) ;
+        }
+
+        if (maxFiles < 2) {
+            throw new IllegalArgumentException(
+                "maxFiles must be at least 2" ) ;
+        }
+
+        this.directory = directory ;
+        this.prefix = prefix ;
+        this.fileSize = fileSize - fileSize % RECORD_SIZE ;
+        this.maxFiles = maxFiles ;
+
+        synchronized (this) {
+            current = openSegment() ;
+        }
+    }
+
+    /** Return the file with the given index, from 0 to maxFiles-1.
+     */
+    public static File fileFor( File directory, String prefix, int index ) {
+        return new File( directory, prefix + "-" + index + ".trace" ) ;
+    }
+
+    // Must be called while holding the lock on this.
+    private Segment openSegment() throws IOException {
+        sequence++ ;
+        File file = fileFor( directory, prefix, sequence % maxFiles ) ;
+        MappedByteBuffer buffer ;
+        // The file is not truncated, since a thread that is late in
+        // writing its last event may still have an older mapping of it.
+        // Instead, the records are cleared.
+        try (FileChannel channel = FileChannel.open( file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE )) {
+
+            buffer = channel.map( FileChannel.MapMode.READ_WRITE, 0,
+                fileSize ) ;
+        }
+
+        for (int ctr=0; ctr<fileSize; ctr+=8) {
+            buffer.putLong( ctr, 0 ) ;
+        }
+
+        Segment result = new Segment( buffer ) ;
+        int offset = reserve( result, 1 ) ;
+        write( result.buffer, offset, HEADER, sequence, RECORD_SIZE,
+            fileSize, System.nanoTime(), System.currentTimeMillis() ) ;
+
+        for (Object[] name : names) {
+            writeName( result, (Integer)name[0], (Integer)name[1],
+                (byte[])name[2] ) ;
+        }
+
+        return result ;
+    }
+
+    // Return the offset of count free records in segment, or -1 if it is
+    // full.
+    private static int reserve( Segment segment, int count ) {
+        int size = count * RECORD_SIZE ;
+        long offset = segment.next.getAndAdd( size ) ;
+        if (offset + size > segment.buffer.capacity()) {
+            return -1 ;
+        }
+
+        return (int)offset ;
+    }
+
+    private static void write( MappedByteBuffer buffer, int offset, int type,
+        int classId, int ident, int extra, long threadId, long time ) {
+
+        buffer.putInt( offset + 4, classId ) ;
+        buffer.putInt( offset + 8, ident ) ;
+        buffer.putInt( offset + 12, extra ) ;
+        buffer.putLong( offset + 16, threadId ) ;
+        buffer.putLong( offset + 24, time ) ;
+        INT_VIEW.setRelease( buffer, offset, type ) ;
+    }
+
+    // Must be called while holding the lock on this, or on a segment that
+    // is not yet visible to other threads.  Returns false if segment is
+    // full.
+    private static boolean writeName( Segment segment, int classId, int ident,
+        byte[] bytes ) {
+
+        int count = 1 + (bytes.length + RECORD_SIZE - 1) / RECORD_SIZE ;
+        int offset = reserve( segment, count ) ;
+        if (offset < 0) {
+            return false ;
+        }
+
+        for (int ctr=0; ctr<bytes.length; ctr++) {
+            segment.buffer.put( offset + RECORD_SIZE + ctr, bytes[ctr] ) ;
+        }
+
+        write( segment.buffer, offset, NAME, classId, ident, bytes.length,
+            0, 0 ) ;
+        return true ;
+    }
+
+    private static byte[] encode( String name ) {
+        byte[] bytes = name.getBytes( StandardCharsets.UTF_8 ) ;
+        if (bytes.length > MAX_NAME_LENGTH) {
+            byte[] result = new byte[MAX_NAME_LENGTH] ;
+            System.arraycopy( bytes, 0, result, 0, MAX_NAME_LENGTH ) ;
+            return result ;
+        }
+
+        return bytes ;
+    }
+
+    // Start the next file, unless another thread already has.
+    private synchronized Segment rotate( Segment full ) {
+        if (current == full && !closed) {
+            try {
+                current = openSegment() ;
+
+                // If the names fill a whole file, no event can be recorded.
+                if (current.next.get() + RECORD_SIZE > fileSize) {
+                    closed = true ;
+                }
+            } catch (IOException exc) {
+                // Stop tracing rather than failing the traced code.
+                closed = true ;
+            }
+        }
+
+        return current ;
+    }
+
+    // Add a name to those written at the start of every file, and to the
+    // current file.
+    private synchronized void addName( int classId, int ident, String name ) {
+        byte[] bytes = encode( name ) ;
+        names.add( new Object[] { classId, ident, bytes } ) ;
+        if (!closed && !writeName( current, classId, ident, bytes )) {
+            // A new file starts with all of the names, including this one.
+            rotate( current ) ;
+        }
+    }
+
+    /** Record an event.
+     * @param type ENTER, EXIT, EXCEPTION, or INFO.
+     * @param classId The class id, or TIMER_CLASS_ID.
+     * @param ident The method identifier or timer id.
+     * @param extra The caller identifier for INFO, otherwise 0.
+     * @param time The time of the event, from System.nanoTime().
+     */
+    void record( int type, int classId, int ident, int extra, long time ) {
+        if (closed) {
+            return ;
+        }
+
+        final long threadId = Thread.currentThread().getId() ;
+        Segment segment = current ;
+        int offset = reserve( segment, 1 ) ;
+        while (offset < 0) {
+            segment = rotate( segment ) ;
+            if (closed) {
+                return ;
+            }
+
+            offset = reserve( segment, 1 ) ;
+        }
+
+        write( segment.buffer, offset, type, classId, ident, extra,
+            threadId, time ) ;
+    }
+
+    // Return the id of cls, writing its names the first time.
+    int classId( Class<?> cls ) {
+        Integer result = classIds.get( cls ) ;
+        if (result != null) {
+            return result ;
+        }
+
+        synchronized (this) {
+            result = classIds.get( cls ) ;
+            if (result == null) {
+                List<String> methodNames =
+                    MethodMonitorRegistry.getMethodNames( cls ) ;
+                if (methodNames == null) {
+                    // Not a registered class: the reader shows identifiers.
+                    methodNames = Collections.emptyList() ;
+                }
+
+                result = nextClassId.getAndIncrement() ;
+                addName( result, -1, cls.getName() ) ;
+
+                for (int ctr=0; ctr<methodNames.size(); ctr++) {
+                    addName( result, ctr, methodNames.get( ctr ) ) ;
+                }
+
+                classIds.put( cls, result ) ;
+            }
+
+            return result ;
+        }
+    }
+
+    /** Flush the current file to disk and stop tracing.  Events recorded
+     * after this are ignored.
+     */
+    public synchronized void close() {
+        if (!closed) {
+            closed = true ;
+            current.buffer.force() ;
+        }
+    }
+
+    /** Return a MethodMonitorFactory whose MethodMonitors record enter,
+     * exit, exception, and info events in this trace.  The arguments and
+     * results of methods are not recorded.
+     */
+    public MethodMonitorFactory methodMonitorFactory() {
+        final String name = "Trace[" + prefix + "]" ;
+
+        return new MethodMonitorFactoryBase( name ) {
+            public MethodMonitor create( final Class<?> cls ) {
+                final int classId = classId( cls ) ;
+
+                return new MethodMonitorBase( name, cls, this ) {
+                    @Override
+                    public boolean wantsArgs() {
+                        return false ;
+                    }
+
+                    public void enter( int ident, Object... args ) {
+                        record( ENTER, classId, ident, 0,
+                            System.nanoTime() ) ;
+                    }
+
+                    @Override
+                    public void enter0( int ident ) {
+                        record( ENTER, classId, ident, 0,
+                            System.nanoTime() ) ;
+                    }
+
+                    public void info( Object[] args, int callerId,
+                        int selfId ) {
+                        record( INFO, classId, selfId, callerId,
+                            System.nanoTime() ) ;
+                    }
+
+                    public void exit( int ident ) {
+                        record( EXIT, classId, ident, 0,
+                            System.nanoTime() ) ;
+                    }
+
+                    public void exit( int ident, Object result ) {
+                        record( EXIT, classId, ident, 0,
+                            System.nanoTime() ) ;
+                    }
+
+                    public void exception( int ident, Throwable thr ) {
+                        record( EXCEPTION, classId, ident, 0,
+                            System.nanoTime() ) ;
+                    }
+
+                    public void clear() { }
+                } ;
+            }
+        } ;
+    }
+
+    private final class TraceEventHandler extends NamedBase
+        implements TimerEventHandler {
+
+        // The names of ids below this have been written.
+        private volatile int namedIds ;
+
+        TraceEventHandler( TimerFactory factory, String name ) {
+            super( factory, name ) ;
+            synchronized (TraceFile.this) {
+                addName( TIMER_CLASS_ID, -1, factory.name() ) ;
+            }
+        }
+
+        private void addNames( int id ) {
+            synchronized (TraceFile.this) {
+                int size = Math.max( id + 1, factory().numberOfIds() ) ;
+                for (int ctr=namedIds; ctr<size; ctr++) {
+                    Controllable con = factory().getControllable( ctr ) ;
+                    addName( TIMER_CLASS_ID, ctr, con.name() ) ;
+                }
+
+                namedIds = Math.max( namedIds, size ) ;
+            }
+        }
+
+        public void notify( TimerEvent event ) {
+            notify( event.timer(),
+                event.type() == TimerEvent.TimerEventType.ENTER,
+                event.time() ) ;
+        }
+
+        @Override
+        public void notify( Timer timer, boolean enter, long time ) {
+            final int id = timer.id() ;
+            if (id >= namedIds) {
+                addNames( id ) ;
+            }
+
+            record( enter ? ENTER : EXIT, TIMER_CLASS_ID, id, 0, time ) ;
+        }
+    }
+
+    /** Return a TimerEventHandler that records the events of the timers
+     * of factory in this trace.  Only one handler should be made for each
+     * trace, since all timers share TIMER_CLASS_ID.
+     */
+    public TimerEventHandler makeTimerEventHandler( TimerFactory factory,
+        String name ) {
+
+        return new TraceEventHandler( factory, name ) ;
+    }
+}
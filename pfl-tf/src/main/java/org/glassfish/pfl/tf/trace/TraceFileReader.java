@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Reads the files written by a TraceFile, and rebuilds the tree of calls
+ * made on each thread.  Calls whose enter or exit events have been
+ * overwritten, or were not yet written, are still included, with -1 for
+ * the missing time.
+ */
+public class TraceFileReader {
+    private final Map<Long,String> names = new HashMap<Long,String>() ;
+    private final Map<Long,List<TraceCall>> roots =
+        new LinkedHashMap<Long,List<TraceCall>>() ;
+    private final Map<Long,List<TraceCall>> stacks =
+        new HashMap<Long,List<TraceCall>>() ;
+
+    private static final class Segment {
+        final int sequence ;
+        final ByteBuffer buffer ;
+
+        Segment( int sequence, ByteBuffer buffer ) {
+            this.sequence = sequence ;
+            this.buffer = buffer ;
+        }
+    }
+
+    /** Read all of the files of the trace with the given prefix.
+     * @param directory The directory that holds the files.
+     * @param prefix The prefix given to the TraceFile.
+     * @throws IOException if a file cannot be read, or is not a trace file.
+     */
+    public TraceFileReader( File directory, String prefix ) throws IOException {
+        List<Segment> segments = new ArrayList<Segment>() ;
+        for (int index=0; ; index++) {
+            File file = TraceFile.fileFor( directory, prefix, index ) ;
+            if (!file.exists()) {
+                break ;
+            }
+
+            segments.add( map( file ) ) ;
+        }
+
+        Collections.sort( segments, new Comparator<Segment>() {
+            public int compare( Segment s1, Segment s2 ) {
+                return Integer.compare( s1.sequence, s2.sequence ) ;
+            }
+        } ) ;
+
+        for (Segment segment : segments) {
+            read( segment.buffer ) ;
+        }
+
+        stacks.clear() ;
+    }
+
+    private static Segment map( File file ) throws IOException {
+        ByteBuffer buffer ;
+        try (FileChannel channel = FileChannel.open( file.toPath(),
+            StandardOpenOption.READ )) {
+
+            buffer = channel.map( FileChannel.MapMode.READ_ONLY, 0,
+                channel.size() ) ;
+        }
+
+        if (buffer.capacity() < TraceFile.RECORD_SIZE
+            || buffer.getInt( 0 ) != TraceFile.HEADER
+            || buffer.getInt( 8 ) != TraceFile.RECORD_SIZE) {
+            throw new IOException( file + " is not a trace file" ) ;
+        }
+
+        int size = Math.min( buffer.getInt( 12 ), buffer.capacity() ) ;
+        buffer.limit( size ) ;
+        return new Segment( buffer.getInt( 4 ), buffer ) ;
+    }
+
+    private static long key( int classId, int ident ) {
+        return ((long)classId << 32) | (ident & 0xffffffffL) ;
+    }
+
+    private void read( ByteBuffer buffer ) {
+        final int size = TraceFile.RECORD_SIZE ;
+        for (int offset=size; offset+size<=buffer.limit(); offset+=size) {
+            int type = buffer.getInt( offset ) ;
+            int classId = buffer.getInt( offset + 4 ) ;
+            int ident = buffer.getInt( offset + 8 ) ;
+            int extra = buffer.getInt( offset + 12 ) ;
+            long threadId = buffer.getLong( offset + 16 ) ;
+            long time = buffer.getLong( offset + 24 ) ;
+
+            switch (type) {
+                case TraceFile.NAME :
+                    if (extra < 0 || offset + size + extra > buffer.limit()) {
+                        return ;
+                    }
+
+                    byte[] bytes = new byte[extra] ;
+                    for (int ctr=0; ctr<extra; ctr++) {
+                        bytes[ctr] = buffer.get( offset + size + ctr ) ;
+                    }
+
+                    names.put( key( classId, ident ),
+                        new String( bytes, StandardCharsets.UTF_8 ) ) ;
+                    offset += size * ((extra + size - 1) / size) ;
+                    break ;
+
+                case TraceFile.ENTER :
+                case TraceFile.EXIT :
+                case TraceFile.EXCEPTION :
+                case TraceFile.INFO :
+                    event( type, classId, ident, threadId, time ) ;
+                    break ;
+
+                default :
+                    // Not yet written when the file was read.
+                    break ;
+            }
+        }
+    }
+
+    private String name( int classId, int ident ) {
+        String result = names.get( key( classId, ident ) ) ;
+        if (result == null) {
+            return (ident < 0) ? "class#" + classId : "#" + ident ;
+        }
+
+        return result ;
+    }
+
+    private TraceCall makeCall( int classId, int ident, long threadId,
+        boolean info ) {
+
+        return new TraceCall( classId, ident, name( classId, -1 ),
+            name( classId, ident ), threadId, info ) ;
+    }
+
+    // The index in stack of the innermost open call that matches, or -1.
+    private static int find( List<TraceCall> stack, int classId, int ident ) {
+        for (int index=stack.size()-1; index>=0; index--) {
+            TraceCall call = stack.get( index ) ;
+            if (call.classId == classId && call.ident == ident) {
+                return index ;
+            }
+        }
+
+        return -1 ;
+    }
+
+    private void event( int type, int classId, int ident, long threadId,
+        long time ) {
+
+        List<TraceCall> stack = stacks.get( threadId ) ;
+        List<TraceCall> threadRoots = roots.get( threadId ) ;
+        if (stack == null) {
+            stack = new ArrayList<TraceCall>() ;
+            stacks.put( threadId, stack ) ;
+            threadRoots = new ArrayList<TraceCall>() ;
+            roots.put( threadId, threadRoots ) ;
+        }
+
+        TraceCall parent = stack.isEmpty() ? null
+            : stack.get( stack.size() - 1 ) ;
+        int index ;
+        TraceCall call ;
+
+        switch (type) {
+            case TraceFile.ENTER :
+                call = makeCall( classId, ident, threadId, false ) ;
+                call.enterTime = time ;
+                add( threadRoots, parent, call ) ;
+                stack.add( call ) ;
+                break ;
+
+            case TraceFile.INFO :
+                call = makeCall( classId, ident, threadId, true ) ;
+                call.enterTime = time ;
+                call.exitTime = time ;
+                add( threadRoots, parent, call ) ;
+                break ;
+
+            case TraceFile.EXCEPTION :
+                index = find( stack, classId, ident ) ;
+                if (index >= 0) {
+                    stack.get( index ).exceptionThrown = true ;
+                }
+                break ;
+
+            case TraceFile.EXIT :
+                index = find( stack, classId, ident ) ;
+                if (index >= 0) {
+                    // Calls above the match lost their exit events.
+                    stack.get( index ).exitTime = time ;
+                    while (stack.size() > index) {
+                        stack.remove( stack.size() - 1 ) ;
+                    }
+                } else {
+                    // The enter event was overwritten.
+                    call = makeCall( classId, ident, threadId, false ) ;
+                    call.exitTime = time ;
+                    add( threadRoots, parent, call ) ;
+                }
+                break ;
+        }
+    }
+
+    private static void add( List<TraceCall> threadRoots, TraceCall parent,
+        TraceCall call ) {
+
+        if (parent == null) {
+            threadRoots.add( call ) ;
+        } else {
+            parent.add( call ) ;
+        }
+    }
+
+    /** Return the outermost calls made on each thread, keyed by thread id,
+     * in the order in which the threads first appear in the trace.
+     */
+    public Map<Long,List<TraceCall>> callTrees() {
+        return Collections.unmodifiableMap( roots ) ;
+    }
+
+    private static void display( PrintStream arg, String indent,
+        List<TraceCall> calls ) {
+
+        for (TraceCall call : calls) {
+            arg.println( indent + call ) ;
+            display( arg, indent + "    ", call.children() ) ;
+        }
+    }
+
+    /** Print the call trees of all threads.
+     */
+    public void display( PrintStream arg ) {
+        for (Map.Entry<Long,List<TraceCall>> entry : roots.entrySet()) {
+            arg.println( "Thread " + entry.getKey() + ":" ) ;
+            display( arg, "    ", entry.getValue() ) ;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.glassfish.pfl.tf.spi.MethodMonitorRegistryTest.Traced;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JfrMethodMonitorFactoryTest {
+    private static final String EVENT = "org.glassfish.pfl.tf.MethodSpan" ;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder() ;
+
+    private List<RecordedEvent> events( Recording recording )
+        throws IOException {
+
+        Path path = folder.newFile().toPath() ;
+        recording.dump( path ) ;
+        return RecordingFile.readAllEvents( path ) ;
+    }
+
+    @Test()
+    public void recordsMethodSpans() throws IOException {
+        MethodMonitorRegistry.registerClass( Traced.class ) ;
+        MethodMonitor mm = MethodMonitorFactoryDefaults.jfr().create(
+            Traced.class ) ;
+        Assert.assertFalse( mm.wantsArgs() ) ;
+
+        // Not recorded, but must leave the stack balanced.
+        mm.enter0( 0 ) ;
+        mm.exit( 0 ) ;
+
+        Recording recording = new Recording() ;
+        try {
+            recording.enable( EVENT ) ;
+            recording.start() ;
+
+            mm.enter0( 0 ) ;
+            mm.enter0( 1 ) ;
+            mm.exit( 1 ) ;
+            mm.exception( 0, new RuntimeException() ) ;
+            mm.exit( 0, null ) ;
+
+            recording.stop() ;
+            List<RecordedEvent> events = events( recording ) ;
+
+            // Events are written as they end.
+            Assert.assertEquals( 2, events.size() ) ;
+            RecordedEvent inner = events.get( 0 ) ;
+            RecordedEvent outer = events.get( 1 ) ;
+            Assert.assertEquals( EVENT, inner.getEventType().getName() ) ;
+
+            Assert.assertEquals( Traced.class.getName(),
+                outer.getString( "className" ) ) ;
+            Assert.assertEquals( MethodMonitorRegistry.getMethodName(
+                Traced.class, 0 ), outer.getString( "methodName" ) ) ;
+            Assert.assertTrue( outer.getBoolean( "exceptionThrown" ) ) ;
+            Assert.assertEquals( Thread.currentThread().getId(),
+                outer.getThread().getJavaThreadId() ) ;
+
+            Assert.assertEquals( MethodMonitorRegistry.getMethodName(
+                Traced.class, 1 ), inner.getString( "methodName" ) ) ;
+            Assert.assertFalse( inner.getBoolean( "exceptionThrown" ) ) ;
+            Assert.assertTrue( outer.getDuration().compareTo(
+                inner.getDuration() ) >= 0 ) ;
+        } finally {
+            recording.close() ;
+        }
+    }
+
+    @Test()
+    public void ignoresExitsWithoutEnters() throws IOException {
+        MethodMonitorRegistry.registerClass( Traced.class ) ;
+        MethodMonitor mm = MethodMonitorFactoryDefaults.jfr().create(
+            Traced.class ) ;
+        MethodMonitor other = MethodMonitorFactoryDefaults.jfr().create(
+            String.class ) ;
+
+        Recording recording = new Recording() ;
+        try {
+            recording.enable( EVENT ) ;
+            recording.start() ;
+
+            // As if the monitor were registered inside calls to other
+            // methods, whose exits and exceptions must not end this span.
+            mm.exit( 1 ) ;
+            mm.enter0( 0 ) ;
+            mm.exception( 1, new RuntimeException() ) ;
+            mm.exit( 1 ) ;
+            other.exit( 0 ) ;
+            mm.exit( 0 ) ;
+            mm.exit( 1 ) ;
+
+            recording.stop() ;
+            List<RecordedEvent> events = events( recording ) ;
+
+            Assert.assertEquals( 1, events.size() ) ;
+            RecordedEvent event = events.get( 0 ) ;
+            Assert.assertEquals( MethodMonitorRegistry.getMethodName(
+                Traced.class, 0 ), event.getString( "methodName" ) ) ;
+            Assert.assertFalse( event.getBoolean( "exceptionThrown" ) ) ;
+        } finally {
+            recording.close() ;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.List;
+
+import org.glassfish.pfl.basic.contain.VolatileHolder;
+import org.glassfish.pfl.tf.spi.annotation.MethodMonitorGroup;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MethodMonitorRegistryTest {
+    @MethodMonitorGroup
+    @Target({ElementType.TYPE, ElementType.METHOD})
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Group {
+    }
+
+    // Written the way the enhancer leaves a class.
+    @Group
+    public static class Traced {
+        private static VolatileHolder<MethodMonitor> __$mm$__0 ;
+
+        @Group
+        public void first() { }
+
+        @Group
+        public void second() { }
+    }
+
+    @Test()
+    public void methodNamesByIdentifier() {
+        MethodMonitorRegistry.registerClass( Traced.class ) ;
+
+        List<String> names = MethodMonitorRegistry.getMethodNames(
+            Traced.class ) ;
+        Assert.assertEquals( 2, names.size() ) ;
+
+        for (int ctr=0; ctr<names.size(); ctr++) {
+            String name = names.get( ctr ) ;
+            Assert.assertEquals( name, MethodMonitorRegistry.getMethodName(
+                Traced.class, ctr ) ) ;
+            Assert.assertEquals( ctr, MethodMonitorRegistry.getMethodIdentifier(
+                Traced.class, name ) ) ;
+        }
+
+        Assert.assertEquals( -1, MethodMonitorRegistry.getMethodIdentifier(
+            Traced.class, "third" ) ) ;
+
+        try {
+            names.set( 0, "changed" ) ;
+            Assert.fail( "method name list is modifiable" ) ;
+        } catch (UnsupportedOperationException exc) {
+            // expected
+        }
+    }
+
+    @Test( expected=RuntimeException.class )
+    public void identifierOutOfRange() {
+        MethodMonitorRegistry.registerClass( Traced.class ) ;
+        MethodMonitorRegistry.getMethodName( Traced.class, 2 ) ;
+    }
+
+    @Test()
+    public void registeredFactoryFillsHolder() {
+        MethodMonitorRegistry.registerClass( Traced.class ) ;
+        MethodMonitorRegistry.register( Group.class,
+            MethodMonitorFactoryDefaults.noOp() ) ;
+        try {
+            Assert.assertNotNull( MethodMonitorRegistry.getMethodMonitorForClass(
+                Traced.class, Group.class ) ) ;
+            Assert.assertSame( Traced.__$mm$__0.content(),
+                MethodMonitorRegistry.getMethodMonitorForClass(
+                    Traced.class, Group.class ) ) ;
+        } finally {
+            MethodMonitorRegistry.clear( Group.class ) ;
+        }
+
+        Assert.assertNull( MethodMonitorRegistry.registeredFactory(
+            Group.class ) ) ;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class MethodMonitorTest {
+    private final List<String> calls = new ArrayList<String>() ;
+
+    private class Recorder extends MethodMonitorBase {
+        Recorder() {
+            super( "Recorder", MethodMonitorTest.class ) ;
+        }
+
+        public void enter( int ident, Object... args ) {
+            calls.add( ident + Arrays.toString( args ) ) ;
+        }
+
+        public void info( Object[] args, int callerIdent, int selfIdent ) { }
+
+        public void exit( int ident ) { }
+
+        public void exit( int ident, Object result ) { }
+
+        public void exception( int ident, Throwable thr ) { }
+
+        public void clear() { }
+    }
+
+    // Loaded again by a throwaway class loader in compositesDoNotKeepLoaders.
+    public static class Unloadable extends MethodMonitorBase {
+        public Unloadable() {
+            super( "Unloadable", MethodMonitorTest.class ) ;
+        }
+
+        public void enter( int ident, Object... args ) { }
+
+        public void info( Object[] args, int callerIdent, int selfIdent ) { }
+
+        public void exit( int ident ) { }
+
+        public void exit( int ident, Object result ) { }
+
+        public void exception( int ident, Throwable thr ) { }
+
+        public void clear() { }
+    }
+
+    private static class ThrowawayLoader extends ClassLoader {
+        ThrowawayLoader() {
+            super( MethodMonitorTest.class.getClassLoader() ) ;
+        }
+
+        Class<?> load( Class<?> cls ) throws IOException {
+            String resource = cls.getName().substring(
+                cls.getPackage().getName().length() + 1 ) + ".class" ;
+            InputStream is = cls.getResourceAsStream( resource ) ;
+            try {
+                ByteArrayOutputStream os = new ByteArrayOutputStream() ;
+                byte[] buffer = new byte[4096] ;
+                int count ;
+                while ((count = is.read( buffer )) > 0) {
+                    os.write( buffer, 0, count ) ;
+                }
+
+                byte[] bytes = os.toByteArray() ;
+                return defineClass( cls.getName(), bytes, 0, bytes.length ) ;
+            } finally {
+                is.close() ;
+            }
+        }
+    }
+
+    private class ExitRecorder extends Recorder {
+        @Override
+        public void info( Object[] args, int callerIdent, int selfIdent ) {
+            calls.add( "info" + selfIdent ) ;
+        }
+
+        @Override
+        public void exit( int ident ) {
+            calls.add( "exit" + ident ) ;
+        }
+
+        @Override
+        public void exit( int ident, Object result ) {
+            calls.add( "exit" + ident + "=" + result ) ;
+        }
+
+        @Override
+        public void exception( int ident, Throwable thr ) {
+            calls.add( "exception" + ident ) ;
+        }
+
+        @Override
+        public void clear() {
+            calls.add( "clear" ) ;
+        }
+    }
+
+    @Test()
+    public void specializedEntersDefaultToEnter() {
+        MethodMonitor mm = new Recorder() ;
+        Assert.assertTrue( mm.wantsArgs() ) ;
+
+        mm.enter0( 0 ) ;
+        mm.enter1( 1, "a" ) ;
+        mm.enter2( 2, "a", 3 ) ;
+        mm.enterI( 3, 7 ) ;
+        mm.enterJ( 4, 8L ) ;
+        mm.enterZ( 5, true ) ;
+        mm.enterD( 6, 1.5 ) ;
+
+        Assert.assertEquals( Arrays.asList( "0[]", "1[a]", "2[a, 3]", "3[7]",
+            "4[8]", "5[true]", "6[1.5]" ), calls ) ;
+    }
+
+    @Test()
+    public void noOpDoesNotWantArgs() {
+        Assert.assertFalse( MethodMonitorFactoryDefaults.noOp()
+            .create( MethodMonitorTest.class ).wantsArgs() ) ;
+    }
+
+    @Test()
+    public void compositeWantsArgsIfAnyComponentDoes() {
+        MethodMonitor noOp = MethodMonitorFactoryDefaults.noOp()
+            .create( MethodMonitorTest.class ) ;
+        MethodMonitor recorder = new Recorder() ;
+
+        MethodMonitor both = MethodMonitorFactoryDefaults.composeMM(
+            Arrays.asList( noOp, recorder ) ) ;
+        Assert.assertTrue( both.wantsArgs() ) ;
+
+        both.enter0( 9 ) ;
+        Assert.assertEquals( Arrays.asList( "9[]" ), calls ) ;
+    }
+
+    @Test()
+    public void compositeDropsNoOpMembers() {
+        MethodMonitor noOp = MethodMonitorFactoryDefaults.noOp()
+            .create( MethodMonitorTest.class ) ;
+        MethodMonitor recorder = new Recorder() ;
+
+        Assert.assertSame( recorder, MethodMonitorFactoryDefaults.composeMM(
+            Arrays.asList( noOp, recorder, noOp ) ) ) ;
+        Assert.assertFalse( MethodMonitorFactoryDefaults.composeMM(
+            Arrays.asList( noOp, noOp ) ).wantsArgs() ) ;
+        Assert.assertSame( MethodMonitorFactoryDefaults.noOp(),
+            MethodMonitorFactoryDefaults.compose( Arrays.asList(
+                MethodMonitorFactoryDefaults.noOp() ) ) ) ;
+    }
+
+    @Test()
+    public void compositesCallEveryMember() {
+        for (int size=2; size<=4; size++) {
+            List<MethodMonitor> mms = new ArrayList<MethodMonitor>() ;
+            for (int ctr=0; ctr<size; ctr++) {
+                mms.add( new Recorder() ) ;
+            }
+
+            MethodMonitor composite = MethodMonitorFactoryDefaults.composeMM(
+                mms ) ;
+            calls.clear() ;
+            composite.enter0( 0 ) ;
+            composite.enter1( 1, "a" ) ;
+            composite.enter2( 2, "a", 3 ) ;
+            composite.enterI( 3, 7 ) ;
+            composite.enterJ( 4, 8L ) ;
+            composite.enterZ( 5, true ) ;
+            composite.enterD( 6, 1.5 ) ;
+            composite.enter( 7, "b" ) ;
+
+            Assert.assertEquals( 8 * size, calls.size() ) ;
+            Assert.assertEquals( "0[]", calls.get( size - 1 ) ) ;
+            Assert.assertEquals( "7[b]", calls.get( 8 * size - 1 ) ) ;
+        }
+    }
+
+    @Test()
+    public void compositeClassesAreSharedPerTuple() {
+        Assume.assumeTrue( CompositeMethodMonitorGenerator.isAvailable() ) ;
+
+        MethodMonitor first = MethodMonitorFactoryDefaults.composeMM(
+            Arrays.<MethodMonitor>asList( new Recorder(), new Recorder() ) ) ;
+        MethodMonitor second = MethodMonitorFactoryDefaults.composeMM(
+            Arrays.<MethodMonitor>asList( new Recorder(), new Recorder() ) ) ;
+        MethodMonitor mixed = MethodMonitorFactoryDefaults.composeMM(
+            Arrays.<MethodMonitor>asList( new Recorder(),
+                new ExitRecorder() ) ) ;
+
+        Assert.assertSame( first.getClass(), second.getClass() ) ;
+        Assert.assertNotSame( first.getClass(), mixed.getClass() ) ;
+
+        mixed.enterJ( 1, 8L ) ;
+        mixed.info( new Object[0], 1, 2 ) ;
+        mixed.exception( 1, new RuntimeException() ) ;
+        mixed.exit( 1 ) ;
+        mixed.exit( 1, "r" ) ;
+        mixed.clear() ;
+        Assert.assertEquals( Arrays.asList( "1[8]", "1[8]", "info2",
+            "exception1", "exit1", "exit1=r", "clear" ), calls ) ;
+    }
+
+    @Test()
+    public void compositesDoNotKeepLoaders() throws Exception {
+        Assume.assumeTrue( CompositeMethodMonitorGenerator.isAvailable() ) ;
+
+        WeakReference<ClassLoader> loader = composeUnloadable() ;
+        for (int ctr=0; ctr<100 && loader.get() != null; ctr++) {
+            System.gc() ;
+            Thread.sleep( 10 ) ;
+        }
+
+        Assert.assertNull( loader.get() ) ;
+    }
+
+    private WeakReference<ClassLoader> composeUnloadable() throws Exception {
+        ThrowawayLoader loader = new ThrowawayLoader() ;
+        Class<?> cls = loader.load( Unloadable.class ) ;
+        Assert.assertNotSame( Unloadable.class, cls ) ;
+
+        MethodMonitor composite = MethodMonitorFactoryDefaults.composeMM(
+            Arrays.<MethodMonitor>asList( new Recorder(),
+                (MethodMonitor)cls.getConstructor().newInstance() ) ) ;
+        composite.enter0( 1 ) ;
+        Assert.assertEquals( Arrays.asList( "1[]" ), calls ) ;
+
+        return new WeakReference<ClassLoader>( loader ) ;
+    }
+}
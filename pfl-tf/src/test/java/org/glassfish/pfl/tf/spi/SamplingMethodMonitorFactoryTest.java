@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SamplingMethodMonitorFactoryTest {
+    private static final int OUTER = 1 ;
+    private static final int INNER = 2 ;
+
+    private final List<String> events = new ArrayList<String>() ;
+
+    private final MethodMonitorFactory recorder =
+        new MethodMonitorFactoryBase( "Recorder" ) {
+            public MethodMonitor create( final Class<?> cls ) {
+                return new MethodMonitorBase( "Recorder", cls, this ) {
+                    public void enter( int ident, Object... args ) {
+                        events.add( "enter" + ident ) ;
+                    }
+
+                    public void info( Object[] args, int callerIdent,
+                        int selfIdent ) {
+                        events.add( "info" + selfIdent ) ;
+                    }
+
+                    public void exit( int ident ) {
+                        events.add( "exit" + ident ) ;
+                    }
+
+                    public void exit( int ident, Object result ) {
+                        events.add( "exit" + ident ) ;
+                    }
+
+                    public void exception( int ident, Throwable thr ) {
+                        events.add( "exception" + ident ) ;
+                    }
+
+                    public void clear() { }
+                } ;
+            }
+        } ;
+
+    // One outer call, containing an info call and an inner call made
+    // through another class's MethodMonitor.
+    private void call( MethodMonitor outer, MethodMonitor inner ) {
+        outer.enter0( OUTER ) ;
+        outer.info( new Object[0], OUTER, 3 ) ;
+        inner.enterI( INNER, 7 ) ;
+        inner.exit( INNER ) ;
+        outer.exit( OUTER, "result" ) ;
+    }
+
+    private int count( String event ) {
+        int result = 0 ;
+        for (String str : events) {
+            if (str.equals( event )) {
+                result++ ;
+            }
+        }
+
+        return result ;
+    }
+
+    @Test()
+    public void fixedRateSamplesWholeTrees() {
+        MethodMonitorFactory mmf = MethodMonitorFactoryDefaults.sampling(
+            recorder, 4 ) ;
+        MethodMonitor outer = mmf.create( String.class ) ;
+        MethodMonitor inner = mmf.create( Integer.class ) ;
+        Assert.assertTrue( outer.wantsArgs() ) ;
+
+        for (int ctr=0; ctr<40; ctr++) {
+            call( outer, inner ) ;
+        }
+
+        // Only the outer calls count down, so exactly one in 4 is sampled,
+        // and every sampled tree is complete.
+        Assert.assertEquals( 10, count( "enter" + OUTER ) ) ;
+        Assert.assertEquals( 10, count( "exit" + OUTER ) ) ;
+        Assert.assertEquals( 10, count( "info3" ) ) ;
+        Assert.assertEquals( 10, count( "enter" + INNER ) ) ;
+        Assert.assertEquals( 10, count( "exit" + INNER ) ) ;
+        Assert.assertEquals( "enter" + OUTER, events.get( 0 ) ) ;
+    }
+
+    @Test()
+    public void innerCallsDoNotStartSamples() {
+        MethodMonitorFactory mmf = MethodMonitorFactoryDefaults.sampling(
+            recorder, 2 ) ;
+        MethodMonitor outer = mmf.create( String.class ) ;
+        MethodMonitor inner = mmf.create( Integer.class ) ;
+
+        // Many inner calls inside each outer call do not move the count.
+        for (int ctr=0; ctr<20; ctr++) {
+            outer.enter0( OUTER ) ;
+            for (int ictr=0; ictr<5; ictr++) {
+                inner.enter0( INNER ) ;
+                inner.exit( INNER ) ;
+            }
+            outer.exit( OUTER ) ;
+        }
+
+        Assert.assertEquals( 10, count( "enter" + OUTER ) ) ;
+        Assert.assertEquals( 50, count( "enter" + INNER ) ) ;
+        Assert.assertEquals( "enter" + OUTER, events.get( 0 ) ) ;
+    }
+
+    @Test()
+    public void sampledTreeIsNotSplit() {
+        MethodMonitorFactory mmf = MethodMonitorFactoryDefaults.sampling(
+            recorder, 1 ) ;
+        MethodMonitor outer = mmf.create( String.class ) ;
+        MethodMonitor inner = mmf.create( Integer.class ) ;
+
+        call( outer, inner ) ;
+        Assert.assertEquals( 5, events.size() ) ;
+        Assert.assertEquals( "enter" + OUTER, events.get( 0 ) ) ;
+        Assert.assertEquals( "exit" + OUTER, events.get( 4 ) ) ;
+    }
+
+    @Test()
+    public void timedRateSamplesFirstCall() {
+        MethodMonitorFactory mmf = MethodMonitorFactoryDefaults.sampling(
+            recorder, 1, TimeUnit.HOURS ) ;
+        MethodMonitor outer = mmf.create( String.class ) ;
+        MethodMonitor inner = mmf.create( Integer.class ) ;
+
+        for (int ctr=0; ctr<100; ctr++) {
+            call( outer, inner ) ;
+        }
+
+        // The first call is always sampled; the calls after it come far
+        // faster than one an hour, so the stride grows past them.
+        Assert.assertEquals( 1, count( "enter" + OUTER ) ) ;
+        Assert.assertEquals( 1, count( "exit" + OUTER ) ) ;
+        Assert.assertEquals( 1, count( "enter" + INNER ) ) ;
+    }
+
+    @Test( expected=IllegalArgumentException.class )
+    public void rejectsBadRate() {
+        MethodMonitorFactoryDefaults.sampling( recorder, 0 ) ;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.spi;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentStatisticsAccumulatorTest {
+    private static final String UNITS = "nanoseconds" ;
+    private static final int NUM_THREADS = 4 ;
+    private static final int SAMPLES_PER_THREAD = 10000 ;
+
+    private static void sampleAll( StatisticsAccumulator acc, int thread ) {
+        for (int ctr=1; ctr<=SAMPLES_PER_THREAD; ctr++) {
+            acc.sample( thread * SAMPLES_PER_THREAD + ctr ) ;
+        }
+    }
+
+    @Test()
+    public void matchesSequentialAccumulator() throws InterruptedException {
+        final StatisticsAccumulator expected =
+            new StatisticsAccumulator( UNITS ) ;
+        final ConcurrentStatisticsAccumulator acc =
+            new ConcurrentStatisticsAccumulator( UNITS, Long.MAX_VALUE, 3 ) ;
+
+        List<Thread> threads = new ArrayList<Thread>() ;
+        for (int ctr=0; ctr<NUM_THREADS; ctr++) {
+            final int thread = ctr ;
+            sampleAll( expected, thread ) ;
+            threads.add( new Thread() {
+                @Override
+                public void run() {
+                    sampleAll( acc, thread ) ;
+                }
+            } ) ;
+        }
+
+        for (Thread thr : threads) {
+            thr.start() ;
+        }
+
+        for (Thread thr : threads) {
+            thr.join() ;
+        }
+
+        Statistics stats = acc.getStats() ;
+        Assert.assertEquals( NUM_THREADS * SAMPLES_PER_THREAD, stats.count() ) ;
+        Assert.assertEquals( expected.min(), stats.min(), 0.0 ) ;
+        Assert.assertEquals( expected.max(), stats.max(), 0.0 ) ;
+        Assert.assertEquals( expected.average(), stats.average(), 0.0 ) ;
+        // Samples are 1 to NUM_THREADS * SAMPLES_PER_THREAD.
+        Assert.assertEquals( NUM_THREADS * SAMPLES_PER_THREAD / 2,
+            stats.percentile( 50 ), 0.001 * stats.max() ) ;
+        acc.unitTestValidate( UNITS, expected.min(), expected.max(),
+            expected.count(), expected.average(),
+            expected.standardDeviation() ) ;
+    }
+
+    @Test()
+    public void augmentAndClear() {
+        StatisticsAccumulator plain = new StatisticsAccumulator( UNITS ) ;
+        plain.sample( 2 ) ;
+        plain.sample( 10 ) ;
+
+        ConcurrentStatisticsAccumulator acc =
+            new ConcurrentStatisticsAccumulator( UNITS ) ;
+        acc.sample( 4 ) ;
+        acc.augment( plain ) ;
+
+        Assert.assertEquals( 3, acc.count() ) ;
+        Assert.assertEquals( 2.0, acc.min(), 0.0 ) ;
+        Assert.assertEquals( 10.0, acc.max(), 0.0 ) ;
+        Assert.assertEquals( 16.0/3, acc.average(), 0.0 ) ;
+
+        // The other direction reads the concurrent accumulator's cells.
+        plain.augment( acc ) ;
+        Assert.assertEquals( 5, plain.count() ) ;
+        Assert.assertEquals( 28.0/5, plain.average(), 0.0 ) ;
+
+        acc.clearState() ;
+        Assert.assertEquals( 0, acc.count() ) ;
+        acc.sample( 7 ) ;
+        Statistics stats = acc.getStats() ;
+        Assert.assertEquals( 1, stats.count() ) ;
+        Assert.assertEquals( 7.0, stats.min(), 0.0 ) ;
+        Assert.assertEquals( 7.0, stats.max(), 0.0 ) ;
+        Assert.assertEquals( 7.0, stats.average(), 0.0 ) ;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.spi;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JfrEventHandlerTest {
+    private static final String EVENT = "org.glassfish.pfl.tf.TimerSpan" ;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder() ;
+
+    @Test()
+    public void recordsTimerSpans() throws Exception {
+        TimerFactory tf = TimerFactoryBuilder.make( "JfrTF", "JFR test" ) ;
+        Recording recording = new Recording() ;
+        try {
+            Timer outer = tf.makeTimer( "outer", "The outer timer" ) ;
+            Timer inner = tf.makeTimer( "inner", "The inner timer" ) ;
+            TimerEventController controller = tf.makeController( "TC" ) ;
+            outer.enable() ;
+            inner.enable() ;
+
+            // Entered before the handler: its exit is ignored.
+            controller.enter( outer ) ;
+            controller.register( tf.makeJfrEventHandler( "jfr" ) ) ;
+            recording.enable( EVENT ) ;
+            recording.start() ;
+
+            controller.enter( inner ) ;
+            controller.exit( inner ) ;
+            controller.exit( outer ) ;
+            controller.enter( outer ) ;
+            controller.exit( outer ) ;
+
+            recording.stop() ;
+            Path path = folder.newFile().toPath() ;
+            recording.dump( path ) ;
+            List<RecordedEvent> events = RecordingFile.readAllEvents( path ) ;
+
+            Assert.assertEquals( 2, events.size() ) ;
+            Assert.assertEquals( "inner",
+                events.get( 0 ).getString( "timerName" ) ) ;
+            Assert.assertEquals( "outer",
+                events.get( 1 ).getString( "timerName" ) ) ;
+            for (RecordedEvent event : events) {
+                Assert.assertEquals( "JfrTF",
+                    event.getString( "factoryName" ) ) ;
+                Assert.assertEquals( Thread.currentThread().getId(),
+                    event.getThread().getJavaThreadId() ) ;
+            }
+        } finally {
+            recording.close() ;
+            TimerFactoryBuilder.destroy( tf ) ;
+        }
+    }
+
+    @Test( expected=IllegalArgumentException.class )
+    public void rejectsDuplicateName() {
+        TimerFactory tf = TimerFactoryBuilder.make( "JfrTF2", "JFR test" ) ;
+        try {
+            tf.makeJfrEventHandler( "jfr" ) ;
+            tf.makeJfrEventHandler( "jfr" ) ;
+        } finally {
+            TimerFactoryBuilder.destroy( tf ) ;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.timer.spi;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+    private static final long HOUR = 3600L * 1000 * 1000 * 1000 ;
+
+    private static void assertNear( long expected, long actual,
+        int significantDigits ) {
+
+        double error = Math.abs( actual - expected ) / (double)expected ;
+        Assert.assertTrue( "expected " + expected + " but was " + actual,
+            error <= Math.pow( 10, -significantDigits ) ) ;
+    }
+
+    @Test()
+    public void smallValuesAreExact() {
+        LatencyHistogram hist = new LatencyHistogram( HOUR, 2 ) ;
+        for (int ctr=0; ctr<100; ctr++) {
+            hist.record( ctr ) ;
+        }
+
+        Assert.assertEquals( 100, hist.count() ) ;
+        Assert.assertEquals( 0, hist.valueAtPercentile( 0 ) ) ;
+        Assert.assertEquals( 49, hist.valueAtPercentile( 50 ) ) ;
+        Assert.assertEquals( 98, hist.valueAtPercentile( 99 ) ) ;
+        Assert.assertEquals( 99, hist.valueAtPercentile( 100 ) ) ;
+    }
+
+    @Test()
+    public void percentilesWithinPrecision() {
+        for (int digits=1; digits<=3; digits++) {
+            LatencyHistogram hist = new LatencyHistogram( HOUR, digits ) ;
+            for (long ctr=1; ctr<=100000; ctr++) {
+                hist.record( ctr * 1000 ) ;
+            }
+
+            assertNear( 50000L * 1000, hist.valueAtPercentile( 50 ), digits ) ;
+            assertNear( 99000L * 1000, hist.valueAtPercentile( 99 ), digits ) ;
+            assertNear( 99900L * 1000, hist.valueAtPercentile( 99.9 ), digits ) ;
+        }
+    }
+
+    @Test()
+    public void outOfRangeValuesAreClamped() {
+        LatencyHistogram hist = new LatencyHistogram( 1000, 2 ) ;
+        hist.record( -5 ) ;
+        hist.record( Long.MAX_VALUE ) ;
+
+        Assert.assertEquals( 0, hist.valueAtPercentile( 50 ) ) ;
+        Assert.assertEquals( 1000, hist.valueAtPercentile( 100 ) ) ;
+    }
+
+    @Test()
+    public void addAndCopy() {
+        LatencyHistogram first = new LatencyHistogram( HOUR, 2 ) ;
+        LatencyHistogram second = new LatencyHistogram( HOUR, 2 ) ;
+        first.record( 10 ) ;
+        second.record( 20 ) ;
+        second.record( 30 ) ;
+
+        LatencyHistogram copy = first.copy() ;
+        first.add( second ) ;
+        Assert.assertEquals( 3, first.count() ) ;
+        Assert.assertEquals( 20, first.valueAtPercentile( 50 ) ) ;
+        Assert.assertEquals( 1, copy.count() ) ;
+
+        first.clear() ;
+        Assert.assertEquals( 0, first.count() ) ;
+        Assert.assertEquals( -1, first.valueAtPercentile( 50 ) ) ;
+    }
+
+    @Test( expected=IllegalArgumentException.class )
+    public void addNeedsSameLayout() {
+        new LatencyHistogram( HOUR, 2 ).add( new LatencyHistogram( HOUR, 3 ) ) ;
+    }
+
+    @Test()
+    public void accumulatorStatisticsReportPercentiles() {
+        StatisticsAccumulator acc = new StatisticsAccumulator( "nanoseconds",
+            new LatencyHistogram( HOUR, 2 ) ) ;
+        for (int ctr=1; ctr<=100; ctr++) {
+            acc.sample( ctr ) ;
+        }
+
+        Statistics stats = acc.getStats() ;
+        Assert.assertEquals( 50.0, stats.percentile( 50 ), 0.0 ) ;
+        Assert.assertEquals( 99.0, stats.percentile( 99 ), 0.0 ) ;
+
+        acc.sample( 1000 ) ;
+        Assert.assertEquals( 99.0, stats.percentile( 99 ), 0.0 ) ;
+
+        Assert.assertEquals( -1.0, new StatisticsAccumulator(
+            "nanoseconds" ).getStats().percentile( 50 ), 0.0 ) ;
+    }
+}
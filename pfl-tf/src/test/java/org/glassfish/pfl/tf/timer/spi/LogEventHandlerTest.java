@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -10,6 +11,8 @@
 
 package org.glassfish.pfl.tf.timer.spi;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -89,11 +92,16 @@ public class LogEventHandlerTest {
     };
 
     private void checkLogEventHandler(LogEventHandler leh, int size) {
-        int ctr = 0;
+        checkLogEventHandler(leh, 0, size);
+    }
+
+    // Check that leh holds the events of timerCallData from first on.
+    private void checkLogEventHandler(LogEventHandler leh, int first, int size) {
+        int ctr = first;
         boolean done = false;
         for (TimerEvent te : leh) {
             Assert.assertFalse(done);
-            if (ctr >= size) {
+            if (ctr >= first + size) {
                 done = true;
             }
 
@@ -109,7 +117,7 @@ public class LogEventHandlerTest {
             ctr++;
         }
 
-        Assert.assertEquals(ctr, size);
+        Assert.assertEquals(ctr - first, size);
     }
 
     private void callTimers() {
@@ -165,4 +173,79 @@ public class LogEventHandlerTest {
         leh.clear();
         checkLogEventHandler(leh, 0);
     }
+
+    @Test()
+    public void multiThreadedSingleThreadTest() {
+        LogEventHandler leh = tf.makeMultiThreadedLogEventHandler("MTLEH1", 100);
+        controller.register(leh);
+        enableTimers();
+        callTimers();
+        disableTimers();
+
+        checkLogEventHandler(leh, timerCallData.length);
+        leh.clear();
+        checkLogEventHandler(leh, 0);
+    }
+
+    @Test()
+    public void multiThreadedWrapTest() {
+        // 16 events are kept, and the oldest of those is dropped once the
+        // log has wrapped.
+        LogEventHandler leh = tf.makeMultiThreadedLogEventHandler("MTLEH2", 16);
+        controller.register(leh);
+        enableTimers();
+        callTimers();
+        disableTimers();
+
+        checkLogEventHandler(leh, timerCallData.length - 15, 15);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        leh.display(new PrintStream(os, true), "wrapped");
+        Assert.assertTrue(os.toString().contains(
+            (timerCallData.length - 15) + " earlier events dropped"));
+    }
+
+    @Test()
+    public void multiThreadedTest() throws InterruptedException {
+        final int numThreads = 4;
+        final LogEventHandler leh = tf.makeMultiThreadedLogEventHandler("MTLEH3",
+            timerCallData.length);
+        controller.register(leh);
+        enableTimers();
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int ctr = 0; ctr < numThreads; ctr++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    callTimers();
+                }
+            });
+        }
+
+        for (Thread thr : threads) {
+            thr.start();
+        }
+
+        for (Thread thr : threads) {
+            thr.join();
+        }
+
+        disableTimers();
+
+        int count = 0;
+        long lastTime = Long.MIN_VALUE;
+        for (TimerEvent te : leh) {
+            Assert.assertTrue(te.time() >= lastTime);
+            lastTime = te.time();
+            count++;
+        }
+
+        Assert.assertEquals(numThreads * timerCallData.length, count);
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        leh.display(new PrintStream(os, true), "threads");
+        Assert.assertFalse(os.toString().contains("BAD NESTED EVENT"));
+        Assert.assertFalse(os.toString().contains("ENTER NOT LOGGED"));
+    }
 }
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -15,6 +16,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -107,6 +109,16 @@ public class StatsEventHandlerTest {
 	{ 0, 4 },
     } ;
 
+    // Number of calls to each timer in one cycle, from the table above.
+    private static int[] callsPerCycle = {1, 1, 5, 1, 1, 1, 0, 1, 1, 1, 1, 1, 2, 1, 1};
+
+    private void checkCounts(Map<Timer, Statistics> map, int cycles) {
+        for (int ctr = 0; ctr < NUM_TIMERS; ctr++) {
+            Assert.assertEquals(callsPerCycle[ctr] * (long) cycles,
+                map.get(timers.get(ctr)).count());
+        }
+    }
+
     private int numEvents = 0;
     private long eventTime = 0;
     private long start;
@@ -189,11 +201,91 @@ public class StatsEventHandlerTest {
         disableTimers();
 
         Map<Timer, Statistics> map = seh.stats();
+        checkCounts(map, ITERATIONS);
     }
 
     @Test
-    public void multiThreadedTest() {
+    public void multiThreadedTest() throws InterruptedException {
+        final int numThreads = 4;
         StatsEventHandler seh = tf.makeMultiThreadedStatsEventHandler("SEH");
         controller.register(seh);
+        enableTimers();
+
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int ctr = 0; ctr < numThreads; ctr++) {
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    for (int ctr = 0; ctr < ITERATIONS; ctr++) {
+                        callTimers();
+                    }
+                }
+            });
+        }
+
+        for (Thread thr : threads) {
+            thr.start();
+        }
+
+        for (Thread thr : threads) {
+            thr.join();
+        }
+
+        disableTimers();
+
+        checkCounts(seh.stats(), numThreads * ITERATIONS);
+    }
+
+    private void checkLateTimer(StatsEventHandler seh) {
+        controller.register(seh);
+        Timer late = tf.makeTimer("late", "Created after the handler");
+        late.enable();
+        Assert.assertEquals(0, seh.stats().get(late).count());
+
+        for (int ctr = 0; ctr < 3; ctr++) {
+            controller.enter(late);
+            controller.exit(late);
+        }
+
+        Assert.assertEquals(3, seh.stats().get(late).count());
+        seh.clear();
+        Assert.assertEquals(0, seh.stats().get(late).count());
+    }
+
+    @Test
+    public void timerCreatedAfterHandler() {
+        checkLateTimer(tf.makeStatsEventHandler("STSEH"));
+    }
+
+    @Test
+    public void timerCreatedAfterMultiThreadedHandler() {
+        checkLateTimer(tf.makeMultiThreadedStatsEventHandler("SEH"));
+    }
+
+    private void checkPercentiles(StatsEventHandler seh, boolean expected) {
+        controller.register(seh);
+        Timer timer = timers.get(0);
+        timer.enable();
+        for (int ctr = 0; ctr < 10; ctr++) {
+            controller.enter(timer);
+            controller.exit(timer);
+        }
+
+        Statistics stats = seh.stats().get(timer);
+        Assert.assertEquals(10, stats.count());
+        Assert.assertEquals(expected, stats.percentile(50) >= 0);
+    }
+
+    @Test
+    public void histogramsAreOptIn() {
+        checkPercentiles(tf.makeStatsEventHandler("STSEH"), false);
+        checkPercentiles(tf.makeStatsEventHandler("STSEH2", true), true);
+    }
+
+    @Test
+    public void multiThreadedHistogramsAreOptIn() {
+        checkPercentiles(tf.makeMultiThreadedStatsEventHandler("SEH"), false);
+        checkPercentiles(tf.makeMultiThreadedStatsEventHandler("SEH2", true),
+            true);
     }
 }
@@ -1,5 +1,6 @@
 /*
  * Copyright (c) 1997, 2018 Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
  *
  * This program and the accompanying materials are made available under the
  * terms of the Eclipse Distribution License v. 1.0, which is available at
@@ -252,6 +253,54 @@ public class TimerFactoryActivationTest {
         disableAllControllables();
     }
 
+    private void checkActiveSet(List<String> expected) {
+        Assert.assertEquals(makeControllableSet(expected), tf.activeSet());
+    }
+
+    @Test()
+    public void testContentChanges() {
+        disableAllControllables();
+        getControllable("gb").enable();
+        checkActiveSet(t2_t8);
+
+        // A Timer added to a group reached from an enabled group is
+        // activated, and deactivated when removed.
+        Timer t9 = tf.makeTimer("t9", "t9");
+        TimerGroup gd = TimerGroup.class.cast(getControllable("gd"));
+        gd.add(t9);
+        Assert.assertTrue(t9.isActivated());
+        gd.remove(t9);
+        Assert.assertFalse(t9.isActivated());
+
+        // Removing gd from gb leaves only the timers gb holds directly,
+        // since gd is the only path from gb to the other groups.
+        TimerGroup gb = TimerGroup.class.cast(getControllable("gb"));
+        gb.remove(gd);
+        checkActiveSet(asList("t2", "t3"));
+
+        // t4 is still activated through gc after gd is removed from gb.
+        getControllable("gc").enable();
+        gb.add(gd);
+        gb.remove(gd);
+        checkActiveSet(asList("t2", "t3", "t4", "t5", "t6", "t7", "t8"));
+        getControllable("gc").disable();
+        checkActiveSet(asList("t2", "t3"));
+
+        // A Timer stays activated while it is enabled.
+        getControllable("t5").enable();
+        gb.add(gd);
+        gb.remove(gd);
+        checkActiveSet(asList("t2", "t3", "t5"));
+
+        // Enabling the factory activates every Timer, including new ones.
+        disableAllControllables();
+        tf.enable();
+        Timer t10 = tf.makeTimer("t10", "t10");
+        Assert.assertTrue(t10.isActivated());
+        tf.disable();
+        Assert.assertTrue(tf.activeSet().isEmpty());
+    }
+
     private class MyTimerEventHandler extends NamedBase implements TimerEventHandler {
         List<TimerEvent> events;
 
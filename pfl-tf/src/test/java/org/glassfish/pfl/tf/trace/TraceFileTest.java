@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2026 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Distribution License v. 1.0, which is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ */
+
+package org.glassfish.pfl.tf.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.glassfish.pfl.tf.spi.MethodMonitor;
+import org.glassfish.pfl.tf.spi.MethodMonitorRegistry;
+import org.glassfish.pfl.tf.spi.MethodMonitorRegistryTest.Traced;
+import org.glassfish.pfl.tf.timer.spi.Timer;
+import org.glassfish.pfl.tf.timer.spi.TimerEventController;
+import org.glassfish.pfl.tf.timer.spi.TimerFactory;
+import org.glassfish.pfl.tf.timer.spi.TimerFactoryBuilder;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TraceFileTest {
+    private static final int SMALL_FILE = 64 * TraceFile.RECORD_SIZE ;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder() ;
+
+    private static List<TraceCall> onlyThread( TraceFileReader reader ) {
+        Map<Long,List<TraceCall>> trees = reader.callTrees() ;
+        Assert.assertEquals( 1, trees.size() ) ;
+        return trees.get( Thread.currentThread().getId() ) ;
+    }
+
+    @Test()
+    public void methodMonitorCallTree() throws IOException {
+        File dir = folder.getRoot() ;
+        TraceFile trace = new TraceFile( dir, "mm", 1 << 16, 2 ) ;
+        MethodMonitorRegistry.registerClass( Traced.class ) ;
+        MethodMonitor mm = trace.methodMonitorFactory().create( Traced.class ) ;
+        Assert.assertFalse( mm.wantsArgs() ) ;
+
+        mm.enter0( 0 ) ;
+        mm.enter0( 1 ) ;
+        mm.info( null, 1, 0 ) ;
+        mm.exit( 1 ) ;
+        mm.exception( 0, new RuntimeException() ) ;
+        mm.exit( 0, null ) ;
+        mm.enter0( 1 ) ;
+        trace.close() ;
+
+        // Ignored after close.
+        mm.exit( 1 ) ;
+
+        List<TraceCall> calls = onlyThread( new TraceFileReader( dir, "mm" ) ) ;
+        Assert.assertEquals( 2, calls.size() ) ;
+
+        TraceCall outer = calls.get( 0 ) ;
+        Assert.assertEquals( Traced.class.getName(), outer.className() ) ;
+        Assert.assertEquals( MethodMonitorRegistry.getMethodName(
+            Traced.class, 0 ), outer.methodName() ) ;
+        Assert.assertTrue( outer.exceptionThrown() ) ;
+        Assert.assertTrue( outer.duration() >= 0 ) ;
+        Assert.assertEquals( 1, outer.children().size() ) ;
+
+        TraceCall inner = outer.children().get( 0 ) ;
+        Assert.assertEquals( MethodMonitorRegistry.getMethodName(
+            Traced.class, 1 ), inner.methodName() ) ;
+        Assert.assertFalse( inner.exceptionThrown() ) ;
+        Assert.assertEquals( 1, inner.children().size() ) ;
+        Assert.assertTrue( inner.children().get( 0 ).isInfo() ) ;
+
+        TraceCall open = calls.get( 1 ) ;
+        Assert.assertTrue( open.enterTime() >= 0 ) ;
+        Assert.assertEquals( -1, open.exitTime() ) ;
+    }
+
+    // Never registered with MethodMonitorRegistry.
+    private static class Unregistered {
+    }
+
+    @Test()
+    public void unregisteredClassShowsIdentifiers() throws IOException {
+        File dir = folder.getRoot() ;
+        TraceFile trace = new TraceFile( dir, "unreg", 1 << 16, 2 ) ;
+        MethodMonitor mm = trace.methodMonitorFactory().create(
+            Unregistered.class ) ;
+        Assert.assertSame( Unregistered.class, mm.myClass() ) ;
+
+        mm.enter0( 3 ) ;
+        mm.exit( 3 ) ;
+        trace.close() ;
+
+        List<TraceCall> calls = onlyThread(
+            new TraceFileReader( dir, "unreg" ) ) ;
+        Assert.assertEquals( 1, calls.size() ) ;
+        Assert.assertEquals( Unregistered.class.getName(),
+            calls.get( 0 ).className() ) ;
+        Assert.assertEquals( "#3", calls.get( 0 ).methodName() ) ;
+    }
+
+    @Test()
+    public void timerEventsRotate() throws IOException {
+        File dir = folder.getRoot() ;
+        TraceFile trace = new TraceFile( dir, "timer", SMALL_FILE, 2 ) ;
+        TimerFactory tf = TimerFactoryBuilder.make( "TraceTF", "Trace test" ) ;
+        try {
+            Timer outer = tf.makeTimer( "outer", "The outer timer" ) ;
+            TimerEventController controller = tf.makeController( "TC" ) ;
+            controller.register( trace.makeTimerEventHandler( tf, "trace" ) ) ;
+            outer.enable() ;
+
+            // Many more events than fit in two files.
+            for (int ctr=0; ctr<1000; ctr++) {
+                controller.enter( outer ) ;
+                controller.exit( outer ) ;
+            }
+
+            // Created after the handler.
+            Timer inner = tf.makeTimer( "inner", "The inner timer" ) ;
+            inner.enable() ;
+            controller.enter( outer ) ;
+            controller.enter( inner ) ;
+            controller.exit( inner ) ;
+            controller.exit( outer ) ;
+            trace.close() ;
+        } finally {
+            TimerFactoryBuilder.destroy( tf ) ;
+        }
+
+        Assert.assertFalse( TraceFile.fileFor( dir, "timer", 2 ).exists() ) ;
+
+        List<TraceCall> calls = onlyThread(
+            new TraceFileReader( dir, "timer" ) ) ;
+        Assert.assertTrue( calls.size() < 2 * SMALL_FILE
+            / TraceFile.RECORD_SIZE ) ;
+
+        long last = -1 ;
+        for (TraceCall call : calls) {
+            Assert.assertEquals( "TraceTF", call.className() ) ;
+            Assert.assertEquals( "outer", call.methodName() ) ;
+            Assert.assertTrue( call.enterTime() >= last ) ;
+            last = call.exitTime() ;
+        }
+
+        TraceCall end = calls.get( calls.size() - 1 ) ;
+        Assert.assertEquals( 1, end.children().size() ) ;
+        Assert.assertEquals( "inner", end.children().get( 0 ).methodName() ) ;
+    }
+
+    @Test( expected=IOException.class )
+    public void rejectsOtherFiles() throws IOException {
+        File dir = folder.getRoot() ;
+        Assert.assertTrue( TraceFile.fileFor( dir, "bad", 0 ).createNewFile() ) ;
+        new TraceFileReader( dir, "bad" ) ;
+    }
+}